@@ -0,0 +1,94 @@
+package com.netbull.apiloja.benchmark;
+
+import com.netbull.apiloja.domain.order.Order;
+import com.netbull.apiloja.domain.order.OrderState;
+import com.netbull.apiloja.domain.order.addressClient.AddressClient;
+import com.netbull.apiloja.domain.order.client.Client;
+import com.netbull.apiloja.domain.order.product.ProductOrder;
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.store.Store;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dados usados pelos benchmarks. Os pedidos usam os códigos "PRD-1" a "PRD-n", os mesmos
+ * gerados por {@link #product(Store, int)}.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Store store() {
+        Store store = new Store();
+        store.setId(BigInteger.ONE);
+        store.setCnpj("12345678000199");
+        store.setCorporateName("Loja Benchmark");
+        store.setEmail("benchmark@loja.com");
+        store.setPhone("51999999999");
+        store.setPassword("senha");
+        return store;
+    }
+
+    static Product product(Store store, int index) {
+        Product product = new Product();
+        product.setCode("PRD-" + index);
+        product.setName("Produto " + index);
+        product.setDescription("Descrição do produto " + index);
+        product.setPrice(new BigDecimal("19.90"));
+        product.setQuantity(BigInteger.valueOf(1_000_000_000L));
+        product.setStore(store);
+        return product;
+    }
+
+    /**
+     * Pedido com os produtos "PRD-1" a "PRD-n". Pedido, cliente, endereço e itens recebem ids a
+     * partir de {@code id}, já que chegam da api do cliente com os ids definidos.
+     */
+    static Order order(BigInteger id, Store store, int products) {
+        Client client = new Client();
+        client.setId(id);
+        client.setName("Cliente");
+        client.setCpf("12345678901");
+        client.setEmail("cliente@email.com");
+        client.setBirthday(LocalDate.of(1990, 5, 17));
+
+        AddressClient address = new AddressClient();
+        address.setId(id);
+        address.setCity("Porto Alegre");
+        address.setDistrict("Centro");
+        address.setNumber("100");
+        address.setStreet("Rua");
+        address.setCep("90010000");
+        address.setState("rs");
+
+        Order order = new Order();
+        order.setId(id);
+        order.setState(OrderState.CRIADO);
+        order.setOrderCreated(LocalDate.of(2021, 12, 1));
+        order.setClient(client);
+        order.setAddress(address);
+        order.setStore(store);
+
+        List<ProductOrder> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+
+        for (int index = 1; index <= products; index++) {
+            ProductOrder item = new ProductOrder();
+            item.setId(id.multiply(BigInteger.valueOf(1000)).add(BigInteger.valueOf(index)));
+            item.setCode("PRD-" + index);
+            item.setPrice(new BigDecimal("19.90"));
+            item.setQuantity(BigInteger.ONE);
+            items.add(item);
+            total = total.add(item.getPrice());
+        }
+
+        order.setProducts(items);
+        order.setTotalValue(total);
+        return order;
+    }
+}
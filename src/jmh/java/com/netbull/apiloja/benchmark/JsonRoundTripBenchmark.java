@@ -0,0 +1,77 @@
+package com.netbull.apiloja.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netbull.apiloja.domain.order.Order;
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.utility.LocalDateModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escrita e leitura de {@link Order} e {@link Product} com um ObjectMapper montado como o da
+ * aplicação (módulos padrão do Spring mais o {@link LocalDateModule}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonRoundTripBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private Order order;
+
+    private Product product;
+
+    private String orderJson;
+
+    private String productJson;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new LocalDateModule())
+                .build();
+
+        order = BenchmarkData.order(BigInteger.ONE, BenchmarkData.store(), 3);
+        product = BenchmarkData.product(BenchmarkData.store(), 1);
+
+        orderJson = objectMapper.writeValueAsString(order);
+        productJson = objectMapper.writeValueAsString(product);
+    }
+
+    @Benchmark
+    public String writeOrder() throws IOException {
+        return objectMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public Order readOrder() throws IOException {
+        return objectMapper.readValue(orderJson, Order.class);
+    }
+
+    @Benchmark
+    public String writeProduct() throws IOException {
+        return objectMapper.writeValueAsString(product);
+    }
+
+    @Benchmark
+    public Product readProduct() throws IOException {
+        return objectMapper.readValue(productJson, Product.class);
+    }
+}
@@ -0,0 +1,165 @@
+package com.netbull.apiloja.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.netbull.apiloja.domain.order.Order;
+import com.netbull.apiloja.domain.order.OrderState;
+import com.netbull.apiloja.domain.order.client.Client;
+import com.netbull.apiloja.utility.LocalDateModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o LocalDateModule com os antigos JsonLocalDateSerializer/JsonLocalDateDeserializer,
+ * aplicados por mix-in nos mesmos campos de {@link Order} e {@link Client}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalDateSerializationBenchmark {
+
+    private ObjectMapper legacyMapper;
+
+    private ObjectMapper moduleMapper;
+
+    private Order order;
+
+    private String json;
+
+    @Setup
+    public void setup() throws IOException {
+        legacyMapper = new ObjectMapper()
+                .addMixIn(Order.class, LegacyOrderDates.class)
+                .addMixIn(Client.class, LegacyClientDates.class);
+        moduleMapper = new ObjectMapper().registerModule(new LocalDateModule());
+
+        Client client = new Client();
+        client.setId(BigInteger.ONE);
+        client.setName("Cliente");
+        client.setCpf("12345678901");
+        client.setEmail("cliente@email.com");
+        client.setBirthday(LocalDate.of(1990, 5, 17));
+
+        order = new Order();
+        order.setId(BigInteger.ONE);
+        order.setState(OrderState.ENTREGUE);
+        order.setOrderCreated(LocalDate.of(2021, 12, 1));
+        order.setOrderDispatched(LocalDate.of(2021, 12, 2));
+        order.setOrderDelivered(LocalDate.of(2021, 12, 6));
+        order.setTotalValue(new BigDecimal("199.90"));
+        order.setClient(client);
+
+        json = moduleMapper.writeValueAsString(order);
+
+        if (!json.equals(legacyMapper.writeValueAsString(order))) {
+            throw new IllegalStateException("Os serializadores geram JSON diferente.");
+        }
+    }
+
+    @Benchmark
+    public String serializeLegacy() throws IOException {
+        return legacyMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public String serializeModule() throws IOException {
+        return moduleMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public Order deserializeLegacy() throws IOException {
+        return legacyMapper.readValue(json, Order.class);
+    }
+
+    @Benchmark
+    public Order deserializeModule() throws IOException {
+        return moduleMapper.readValue(json, Order.class);
+    }
+
+    abstract static class LegacyOrderDates {
+
+        @JsonSerialize(using = LegacyLocalDateSerializer.class)
+        @JsonDeserialize(using = LegacyLocalDateDeserializer.class)
+        private LocalDate orderCreated;
+
+        @JsonSerialize(using = LegacyLocalDateSerializer.class)
+        @JsonDeserialize(using = LegacyLocalDateDeserializer.class)
+        private LocalDate orderDispatched;
+
+        @JsonSerialize(using = LegacyLocalDateSerializer.class)
+        @JsonDeserialize(using = LegacyLocalDateDeserializer.class)
+        private LocalDate orderDelivered;
+    }
+
+    abstract static class LegacyClientDates {
+
+        @JsonSerialize(using = LegacyLocalDateSerializer.class)
+        @JsonDeserialize(using = LegacyLocalDateDeserializer.class)
+        private LocalDate birthday;
+    }
+
+    /**
+     * Cópia do antigo JsonLocalDateSerializer.
+     */
+    public static class LegacyLocalDateSerializer extends StdSerializer<LocalDate> {
+
+        private DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+        public LegacyLocalDateSerializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public void serialize(LocalDate localDate, JsonGenerator jsonGenerator, SerializerProvider serializerProvider)
+                throws IOException {
+            jsonGenerator.writeString(formatter.format(localDate));
+        }
+    }
+
+    /**
+     * Cópia do antigo JsonLocalDateDeserializer.
+     */
+    public static class LegacyLocalDateDeserializer extends StdDeserializer<LocalDate> {
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+        public LegacyLocalDateDeserializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public LocalDate deserialize(JsonParser jsonParser, DeserializationContext deserializationContext)
+                throws IOException {
+            try {
+                return LocalDate.parse(jsonParser.getText(), formatter);
+            } catch (Exception e) {
+                throw new RuntimeException("Erro na deserialização da data");
+            }
+        }
+    }
+}
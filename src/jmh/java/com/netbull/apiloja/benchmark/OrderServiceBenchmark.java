@@ -0,0 +1,82 @@
+package com.netbull.apiloja.benchmark;
+
+import com.netbull.apiloja.ApiLojaApplication;
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link OrderService#persistOrder} de ponta a ponta (proxy transacional, retry de lock otimista,
+ * baixa de estoque, log de alterações e versão do catálogo) contra o H2 em memória do profile
+ * benchmark. Cada chamada grava um pedido novo, com ids crescentes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"1", "10"})
+    private int products;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private OrderService orderService;
+
+    private Store store;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(ApiLojaApplication.class)
+                .profiles("benchmark")
+                .run();
+
+        orderService = context.getBean(OrderService.class);
+
+        Store seed = BenchmarkData.store();
+        seed.setId(null);
+        store = context.getBean(StoreRepository.class).save(seed);
+
+        List<Product> catalog = new ArrayList<>();
+        for (int index = 1; index <= products; index++) {
+            catalog.add(BenchmarkData.product(store, index));
+        }
+        context.getBean(ProductRepository.class).saveAll(catalog);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void persistOrder() {
+        orderService.persistOrder(BenchmarkData.order(BigInteger.valueOf(ids.incrementAndGet()), store, products));
+    }
+}
@@ -0,0 +1,61 @@
+package com.netbull.apiloja.benchmark;
+
+import com.netbull.apiloja.utility.PasswordHashingPool;
+import com.netbull.apiloja.utility.StringUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do BCrypt de {@link StringUtils}: a verificação é feita em todo login, a geração
+ * no cadastro e na troca de senha (passando pelo {@link PasswordHashingPool}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordBenchmark {
+
+    private static final String PASSWORD = "senhaDaLoja123";
+
+    private PasswordHashingPool passwordHashingPool;
+
+    private StringUtils stringUtils;
+
+    private String hash;
+
+    @Setup
+    public void setup() {
+        passwordHashingPool = new PasswordHashingPool(new SimpleMeterRegistry(), 1, 16);
+        stringUtils = new StringUtils(passwordHashingPool);
+        hash = stringUtils.encryptPassword(PASSWORD).join();
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHashingPool.shutdown();
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return stringUtils.getEncoder().matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public String encryptPassword() {
+        return stringUtils.encryptPassword(PASSWORD).join();
+    }
+}
@@ -0,0 +1,263 @@
+package com.netbull.apiloja.loadtest;
+
+import com.netbull.apiloja.monitoring.tracing.RabbitTracing;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Recorder;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SmartMessageConverter;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Substituto do RabbitMQ dentro do processo. As mensagens passam pelo mesmo
+ * {@link MessageConverter} da aplicação e são entregues aos métodos {@link RabbitListener}
+ * (pelo proxy do bean, com os aspectos) por um pool de consumidores em cada fila.
+ *
+ * <p>O roteamento usa os beans {@link Binding} como exchange direta: a routing key precisa ser
+ * igual à do binding. Mensagens sem binding, as que iriam para a api do cliente, só são contadas.
+ * Não há retry nem dead letter: a falha do listener é contada e a mensagem descartada.
+ */
+@Slf4j
+public class InProcessBroker extends RabbitTemplate {
+
+    private final int concurrency;
+
+    private final RabbitTracing rabbitTracing;
+
+    private final List<MessagePostProcessor> beforePublishPostProcessors = new CopyOnWriteArrayList<>();
+
+    private final Map<String, List<LocalQueue>> routes = new ConcurrentHashMap<>();
+
+    private final Map<String, LocalQueue> queues = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> unrouted = new ConcurrentHashMap<>();
+
+    public InProcessBroker(MessageConverter messageConverter, int concurrency, RabbitTracing rabbitTracing) {
+        this.concurrency = concurrency;
+        this.rabbitTracing = rabbitTracing;
+        setMessageConverter(messageConverter);
+    }
+
+    /**
+     * Liga os bindings e os listeners do contexto. Chamado com o contexto já pronto.
+     */
+    public void start(ApplicationContext context) {
+        context.getBeansOfType(Binding.class).values().stream()
+                .filter(Binding::isDestinationQueue)
+                .forEach(binding -> routes.computeIfAbsent(route(binding.getExchange(), binding.getRoutingKey()),
+                        key -> new CopyOnWriteArrayList<>()).add(queue(binding.getDestination())));
+
+        for (String beanName : context.getBeanDefinitionNames()) {
+            Class<?> type = context.getType(beanName);
+
+            if (type == null) {
+                continue;
+            }
+
+            ReflectionUtils.doWithMethods(ClassUtils.getUserClass(type), method -> {
+                RabbitListener listener = AnnotatedElementUtils.findMergedAnnotation(method, RabbitListener.class);
+
+                for (String queue : listener.queues()) {
+                    queue(queue).subscribe(context.getBean(beanName), method);
+                }
+            }, method -> AnnotatedElementUtils.hasAnnotation(method, RabbitListener.class));
+        }
+
+        queues.values().forEach(queue -> log.info("Fila {} com {}.", queue.getName(),
+                queue.listener == null ? "nenhum listener" : queue.listener.getName()));
+    }
+
+    /**
+     * Sem ConnectionFactory: nada é enviado ao RabbitMQ.
+     */
+    @Override
+    public void afterPropertiesSet() {
+    }
+
+    @Override
+    public void addBeforePublishPostProcessors(MessagePostProcessor... beforePublishPostProcessors) {
+        this.beforePublishPostProcessors.addAll(List.of(beforePublishPostProcessors));
+    }
+
+    @Override
+    public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+        for (MessagePostProcessor postProcessor : beforePublishPostProcessors) {
+            message = postProcessor.postProcessMessage(message, correlationData, exchange, routingKey);
+        }
+
+        Message published = message;
+        rabbitTracing.publish(exchange, routingKey, published, () -> {
+            List<LocalQueue> destinations = routes.get(route(exchange, routingKey));
+
+            if (destinations == null) {
+                unrouted.computeIfAbsent(route(exchange, routingKey), key -> new LongAdder()).increment();
+                return null;
+            }
+
+            destinations.forEach(queue -> queue.offer(published));
+            return null;
+        });
+    }
+
+    /**
+     * Espera as filas esvaziarem e os consumidores terminarem. Devolve false se o tempo acabar antes.
+     */
+    public boolean awaitDrain(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        while (queues.values().stream().anyMatch(LocalQueue::isBusy)) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+
+        return true;
+    }
+
+    public void resetStats() {
+        queues.values().forEach(LocalQueue::reset);
+        unrouted.clear();
+    }
+
+    public Collection<LocalQueue> getQueues() {
+        return queues.values();
+    }
+
+    public Map<String, Long> getUnrouted() {
+        Map<String, Long> counts = new TreeMap<>();
+        unrouted.forEach((route, count) -> counts.put(route, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public void destroy() {
+        queues.values().forEach(queue -> queue.executor.shutdownNow());
+        super.destroy();
+    }
+
+    private LocalQueue queue(String name) {
+        return queues.computeIfAbsent(name, LocalQueue::new);
+    }
+
+    private static String route(String exchange, String routingKey) {
+        return exchange + "/" + routingKey;
+    }
+
+    @Getter
+    public class LocalQueue {
+
+        private final String name;
+
+        private final ThreadPoolExecutor executor;
+
+        private final Recorder lag = new Recorder(3);
+
+        private final Recorder processing = new Recorder(3);
+
+        private final LongAdder consumed = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+
+        private final AtomicLong maxDepth = new AtomicLong();
+
+        private Method listener;
+
+        private Object bean;
+
+        private Type payloadType;
+
+        LocalQueue(String name) {
+            this.name = name;
+            this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), new CustomizableThreadFactory("loadtest-" + name + "-"));
+        }
+
+        void subscribe(Object bean, Method method) {
+            this.bean = bean;
+            this.listener = AopUtils.selectInvocableMethod(method, bean.getClass());
+            this.payloadType = method.getGenericParameterTypes()[0];
+        }
+
+        void offer(Message message) {
+            if (listener == null) {
+                consumed.increment();
+                return;
+            }
+
+            long published = System.nanoTime();
+            executor.execute(() -> deliver(message, published));
+            maxDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+        }
+
+        private void deliver(Message message, long published) {
+            long started = System.nanoTime();
+            lag.recordValue(started - published);
+
+            try {
+                message.getMessageProperties().setConsumerQueue(name);
+                rabbitTracing.consume(message, () -> listener.invoke(bean, convert(message)));
+                consumed.increment();
+            } catch (InvocationTargetException e) {
+                failed.increment();
+                log.debug("Falha no listener da fila {}.", name, e.getTargetException());
+            } catch (Exception e) {
+                failed.increment();
+                log.debug("Falha na entrega para a fila {}.", name, e);
+            } finally {
+                processing.recordValue(System.nanoTime() - started);
+            }
+        }
+
+        private Object convert(Message message) {
+            MessageConverter converter = getMessageConverter();
+
+            if (converter instanceof SmartMessageConverter) {
+                return ((SmartMessageConverter) converter).fromMessage(message,
+                        ParameterizedTypeReference.forType(payloadType));
+            }
+
+            return converter.fromMessage(message);
+        }
+
+        boolean isBusy() {
+            return !executor.getQueue().isEmpty() || executor.getActiveCount() > 0;
+        }
+
+        void reset() {
+            lag.reset();
+            processing.reset();
+            consumed.reset();
+            failed.reset();
+            maxDepth.set(0);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.netbull.apiloja.loadtest;
+
+import com.netbull.apiloja.monitoring.tracing.RabbitTracing;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Troca o RabbitTemplate injetado nos serviços pelo {@link InProcessBroker}. Os listener
+ * containers do Spring AMQP ficam parados ({@code spring.rabbitmq.listener.simple.auto-startup=false}),
+ * assim nenhuma conexão com o RabbitMQ é aberta.
+ */
+@Configuration
+@Profile("loadtest")
+public class InProcessBrokerConfig {
+
+    @Bean
+    @Primary
+    public InProcessBroker inProcessBroker(MessageConverter messageConverter, LoadTestProperties properties,
+                                           RabbitTracing rabbitTracing) {
+        return new InProcessBroker(messageConverter, properties.getListenerConcurrency(), rabbitTracing);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBean(InProcessBroker.class).start(event.getApplicationContext());
+    }
+}
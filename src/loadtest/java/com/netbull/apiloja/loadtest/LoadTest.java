@@ -0,0 +1,41 @@
+package com.netbull.apiloja.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netbull.apiloja.ApiLojaApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Sobe a aplicação com o profile loadtest (H2 em memória e {@link InProcessBroker} no lugar do
+ * RabbitMQ), roda a carga e grava o resultado. Os parâmetros são as propriedades {@code loadtest.*},
+ * por exemplo {@code --loadtest.users=50 --loadtest.duration=2m}.
+ */
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ApiLojaApplication.class)
+                .profiles("loadtest")
+                .run(args);
+
+        try {
+            LoadTestReport report = context.getBean(LoadTestRunner.class).run();
+            report.log();
+
+            String file = context.getBean(LoadTestProperties.class).getReport();
+
+            if (StringUtils.hasText(file)) {
+                context.getBean(ObjectMapper.class).writerWithDefaultPrettyPrinter()
+                        .writeValue(new File(file), report);
+                log.info("Resultado gravado em {}.", file);
+            }
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.netbull.apiloja.loadtest;
+
+import com.netbull.apiloja.domain.order.Order;
+import com.netbull.apiloja.domain.order.OrderState;
+import com.netbull.apiloja.domain.order.addressClient.AddressClient;
+import com.netbull.apiloja.domain.order.client.Client;
+import com.netbull.apiloja.domain.order.product.ProductOrder;
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.store.Store;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lojas, produtos e pedidos gerados para a carga. Os nomes dos produtos usam {@link #WORDS},
+ * os mesmos termos sorteados na busca.
+ */
+final class LoadTestData {
+
+    static final String PASSWORD = "senhaDaLoja";
+
+    static final List<String> WORDS = List.of("camiseta", "calça", "tênis", "boné", "jaqueta",
+            "meia", "bermuda", "vestido", "mochila", "relógio");
+
+    private static final List<String> COLORS = List.of("azul", "preto", "branco", "verde", "vermelho");
+
+    private LoadTestData() {
+    }
+
+    static Store store(int index) {
+        Store store = new Store();
+        store.setCnpj(String.format("%014d", index));
+        store.setCorporateName("Loja de carga " + index);
+        store.setEmail("loja" + index + "@carga.com");
+        store.setPhone(String.format("%011d", index));
+        store.setPassword(PASSWORD);
+        return store;
+    }
+
+    static Product product(Store store, String code) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        Product product = new Product();
+        product.setCode(code);
+        product.setName(WORDS.get(random.nextInt(WORDS.size())) + " " + COLORS.get(random.nextInt(COLORS.size())));
+        product.setDescription("Produto gerado para o teste de carga.");
+        product.setPrice(BigDecimal.valueOf(random.nextInt(100, 100_000), 2));
+        product.setQuantity(BigInteger.valueOf(1_000_000_000L));
+        product.setStore(store);
+        return product;
+    }
+
+    /**
+     * Corpo do POST de produto, sem loja: a loja vem do token.
+     */
+    static Map<String, Object> productRequest(String code) {
+        Product product = product(null, code);
+        return Map.of("code", code, "name", product.getName(), "description", product.getDescription(),
+                "price", product.getPrice(), "quantity", product.getQuantity());
+    }
+
+    /**
+     * Pedido como a api do cliente publica: ids definidos, loja só com o id e itens com
+     * códigos do catálogo da loja.
+     */
+    static Order order(long id, BigInteger storeId, List<String> codes, int items) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        BigInteger orderId = BigInteger.valueOf(id);
+
+        Store store = new Store();
+        store.setId(storeId);
+
+        Client client = new Client();
+        client.setId(orderId);
+        client.setName("Cliente " + id);
+        client.setCpf(String.format("%011d", id));
+        client.setEmail("cliente" + id + "@carga.com");
+        client.setBirthday(LocalDate.of(1990, 1, 1).plusDays(random.nextInt(10_000)));
+
+        AddressClient address = new AddressClient();
+        address.setId(orderId);
+        address.setStreet("Rua");
+        address.setNumber("100");
+        address.setDistrict("Centro");
+        address.setCity("Porto Alegre");
+        address.setCep("90010000");
+        address.setState("rs");
+
+        List<ProductOrder> products = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+
+        for (String code : random.ints(0, codes.size()).distinct().limit(Math.min(items, codes.size()))
+                .mapToObj(codes::get).toArray(String[]::new)) {
+            ProductOrder productOrder = new ProductOrder();
+            productOrder.setId(orderId.multiply(BigInteger.valueOf(100)).add(BigInteger.valueOf(products.size())));
+            productOrder.setCode(code);
+            productOrder.setPrice(BigDecimal.TEN);
+            productOrder.setQuantity(BigInteger.ONE);
+            products.add(productOrder);
+            total = total.add(productOrder.getPrice());
+        }
+
+        Order order = new Order();
+        order.setId(orderId);
+        order.setState(OrderState.CRIADO);
+        order.setOrderCreated(LocalDate.now());
+        order.setTotalValue(total);
+        order.setStore(store);
+        order.setClient(client);
+        order.setAddress(address);
+        order.setProducts(products);
+        return order;
+    }
+}
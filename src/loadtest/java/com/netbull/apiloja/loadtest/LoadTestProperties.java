@@ -0,0 +1,82 @@
+package com.netbull.apiloja.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@Profile("loadtest")
+@ConfigurationProperties(prefix = "loadtest")
+public class LoadTestProperties {
+
+    /**
+     * Usuários virtuais disparando operações ao mesmo tempo.
+     */
+    private int users = 20;
+
+    private Duration warmup = Duration.ofSeconds(15);
+
+    private Duration duration = Duration.ofSeconds(60);
+
+    /**
+     * Tempo máximo esperando as filas esvaziarem depois da carga.
+     */
+    private Duration drainTimeout = Duration.ofSeconds(60);
+
+    private int stores = 5;
+
+    private int productsPerStore = 500;
+
+    private int itemsPerOrder = 3;
+
+    /**
+     * Consumidores por fila, como o {@code concurrency} do listener container.
+     */
+    private int listenerConcurrency = 4;
+
+    /**
+     * Arquivo JSON com o resultado, vazio para só registrar no log.
+     */
+    private String report;
+
+    private Mix mix = new Mix();
+
+    /**
+     * Peso de cada operação; zero tira a operação da carga.
+     */
+    @Getter
+    @Setter
+    public static class Mix {
+
+        private int browse = 45;
+
+        private int search = 15;
+
+        private int login = 10;
+
+        private int productWrite = 10;
+
+        private int orderIngestion = 20;
+
+        public int weight(Operation operation) {
+            switch (operation) {
+                case BROWSE:
+                    return browse;
+                case SEARCH:
+                    return search;
+                case LOGIN:
+                    return login;
+                case PRODUCT_WRITE:
+                    return productWrite;
+                default:
+                    return orderIngestion;
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.netbull.apiloja.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado da medição: vazão, status e percentis de latência por operação, e espera na
+ * fila (do publish até o listener começar) e tempo de processamento por fila. Tempos em ms.
+ */
+@Slf4j
+@Getter
+@AllArgsConstructor
+public class LoadTestReport {
+
+    private final int users;
+
+    private final double durationSeconds;
+
+    private final boolean drained;
+
+    private final List<OperationResult> operations;
+
+    private final List<QueueResult> queues;
+
+    private final Map<String, Long> unroutedMessages;
+
+    static LoadTestReport of(LoadTestProperties properties, Map<Operation, OperationStats> stats,
+                             InProcessBroker broker, long elapsedNanos, boolean drained) {
+        double seconds = elapsedNanos / 1e9;
+        List<OperationResult> operations = new ArrayList<>();
+
+        stats.forEach((operation, operationStats) -> {
+            Histogram histogram = operationStats.histogram();
+            Map<Integer, Long> statuses = operationStats.statuses();
+            long errors = statuses.entrySet().stream()
+                    .filter(entry -> !OperationStats.isSuccess(entry.getKey()))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+
+            if (histogram.getTotalCount() > 0) {
+                operations.add(new OperationResult(operation, histogram.getTotalCount(), errors,
+                        histogram.getTotalCount() / seconds, statuses, Latency.of(histogram)));
+            }
+        });
+
+        List<QueueResult> queues = new ArrayList<>();
+
+        broker.getQueues().forEach(queue -> {
+            if (queue.getListener() != null) {
+                queues.add(new QueueResult(queue.getName(), queue.getConsumed().sum(), queue.getFailed().sum(),
+                        queue.getMaxDepth().get(), Latency.of(queue.getLag().getIntervalHistogram()),
+                        Latency.of(queue.getProcessing().getIntervalHistogram())));
+            }
+        });
+
+        return new LoadTestReport(properties.getUsers(), seconds, drained, operations, queues, broker.getUnrouted());
+    }
+
+    public void log() {
+        log.info("Resultado com {} usuários em {}s{}:", users, String.format("%.1f", durationSeconds),
+                drained ? "" : " (filas não esvaziaram)");
+        log.info(String.format("%-16s %9s %7s %9s %9s %9s %9s %9s", "operação", "total", "erros",
+                "req/s", "p50", "p95", "p99", "máx"));
+
+        operations.forEach(operation -> log.info(String.format("%-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f",
+                operation.getOperation(), operation.getCount(), operation.getErrors(), operation.getThroughput(),
+                operation.getLatency().getP50(), operation.getLatency().getP95(),
+                operation.getLatency().getP99(), operation.getLatency().getMax())));
+
+        queues.forEach(queue -> log.info(String.format(
+                "fila %s: %d consumidas, %d falhas, profundidade máx %d, espera p50/p99 %.2f/%.2f ms, "
+                        + "processamento p50/p99 %.2f/%.2f ms",
+                queue.getQueue(), queue.getConsumed(), queue.getFailed(), queue.getMaxDepth(),
+                queue.getLag().getP50(), queue.getLag().getP99(),
+                queue.getProcessing().getP50(), queue.getProcessing().getP99())));
+
+        operations.stream()
+                .filter(operation -> operation.getErrors() > 0)
+                .forEach(operation -> log.info("Status de {}: {}", operation.getOperation(), operation.getStatuses()));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class OperationResult {
+
+        private final Operation operation;
+
+        private final long count;
+
+        private final long errors;
+
+        private final double throughput;
+
+        private final Map<Integer, Long> statuses;
+
+        private final Latency latency;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class QueueResult {
+
+        private final String queue;
+
+        private final long consumed;
+
+        private final long failed;
+
+        private final long maxDepth;
+
+        private final Latency lag;
+
+        private final Latency processing;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Latency {
+
+        private final double p50;
+
+        private final double p95;
+
+        private final double p99;
+
+        private final double max;
+
+        static Latency of(Histogram histogram) {
+            return new Latency(millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
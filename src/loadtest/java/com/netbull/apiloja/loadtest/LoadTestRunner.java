@@ -0,0 +1,298 @@
+package com.netbull.apiloja.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.service.ProductService;
+import com.netbull.apiloja.service.StoreService;
+import com.netbull.apiloja.utility.StringUtils;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Cadastra as lojas e os catálogos pelos serviços e depois dispara a carga: os usuários virtuais
+ * sorteiam operações pelo peso do mix, as operações HTTP vão para o servidor embutido e os
+ * pedidos são publicados no {@link InProcessBroker}.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+public class LoadTestRunner {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final LoadTestProperties properties;
+
+    private final StoreService storeService;
+
+    private final ProductService productService;
+
+    private final StringUtils stringUtils;
+
+    private final InProcessBroker broker;
+
+    private final ObjectMapper objectMapper;
+
+    private final Environment environment;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    private final List<SeededStore> stores = new ArrayList<>();
+
+    private Operation[] operations;
+
+    private int[] cumulativeWeights;
+
+    private String baseUrl;
+
+    public LoadTestRunner(LoadTestProperties properties, StoreService storeService, ProductService productService,
+                          StringUtils stringUtils, InProcessBroker broker, ObjectMapper objectMapper,
+                          Environment environment) {
+        this.properties = properties;
+        this.storeService = storeService;
+        this.productService = productService;
+        this.stringUtils = stringUtils;
+        this.broker = broker;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public LoadTestReport run() throws InterruptedException {
+        if (properties.getItemsPerOrder() < 1 || properties.getItemsPerOrder() > 99) {
+            throw new IllegalArgumentException("Informe de 1 a 99 itens por pedido.");
+        }
+
+        buildMix();
+        baseUrl = "http://localhost:" + environment.getRequiredProperty("local.server.port");
+
+        seed();
+
+        log.info("Aquecimento de {} com {} usuários.", properties.getWarmup(), properties.getUsers());
+        drive(properties.getWarmup());
+        broker.awaitDrain(properties.getDrainTimeout());
+
+        stats.values().forEach(OperationStats::reset);
+        broker.resetStats();
+
+        log.info("Medição de {} com {} usuários.", properties.getDuration(), properties.getUsers());
+        long started = System.nanoTime();
+        drive(properties.getDuration());
+        long elapsed = System.nanoTime() - started;
+
+        boolean drained = broker.awaitDrain(properties.getDrainTimeout());
+
+        if (!drained) {
+            log.warn("As filas não esvaziaram em {}.", properties.getDrainTimeout());
+        }
+
+        return LoadTestReport.of(properties, stats, broker, elapsed, drained);
+    }
+
+    private void buildMix() {
+        List<Operation> enabled = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+
+        for (Operation operation : Operation.values()) {
+            int weight = properties.getMix().weight(operation);
+
+            if (weight > 0) {
+                total += weight;
+                enabled.add(operation);
+                cumulative.add(total);
+            }
+        }
+
+        if (enabled.isEmpty()) {
+            throw new IllegalArgumentException("Informe o peso de ao menos uma operação.");
+        }
+
+        operations = enabled.toArray(Operation[]::new);
+        cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void seed() {
+        log.info("Cadastrando {} lojas com {} produtos cada.", properties.getStores(), properties.getProductsPerStore());
+
+        for (int index = 1; index <= properties.getStores(); index++) {
+            Store store = LoadTestData.store(index);
+            store.setPassword(stringUtils.encryptPassword(store.getPassword()).join());
+            storeService.persistStore(store);
+
+            List<Product> products = IntStream.rangeClosed(1, properties.getProductsPerStore())
+                    .mapToObj(number -> LoadTestData.product(store, "LT-" + number))
+                    .collect(Collectors.toList());
+            productService.persistImportedProducts(store, products);
+
+            stores.add(new SeededStore(store.getId(), store.getEmail(), login(store.getEmail()),
+                    products.stream().map(Product::getCode).collect(Collectors.toList())));
+        }
+    }
+
+    private String login(String email) {
+        try {
+            HttpResponse<String> response = send(post("/authenticate",
+                    Map.of("username", email, "password", LoadTestData.PASSWORD), null));
+
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login da loja " + email + " falhou: " + response.statusCode());
+            }
+
+            JsonNode body = objectMapper.readTree(response.body());
+            return body.get("jwtToken").asText();
+        } catch (IOException e) {
+            throw new IllegalStateException("Login da loja " + email + " falhou.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Login da loja " + email + " interrompido.", e);
+        }
+    }
+
+    private void drive(Duration duration) throws InterruptedException {
+        ExecutorService users = Executors.newFixedThreadPool(properties.getUsers(),
+                new CustomizableThreadFactory("loadtest-user-"));
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        for (int user = 0; user < properties.getUsers(); user++) {
+            users.execute(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    execute(pick());
+                }
+            });
+        }
+
+        users.shutdown();
+
+        if (!users.awaitTermination(duration.toMillis() + 60_000, TimeUnit.MILLISECONDS)) {
+            users.shutdownNow();
+        }
+    }
+
+    private Operation pick() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+
+        for (int index = 0; index < cumulativeWeights.length; index++) {
+            if (value < cumulativeWeights[index]) {
+                return operations[index];
+            }
+        }
+
+        return operations[operations.length - 1];
+    }
+
+    private void execute(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SeededStore store = stores.get(random.nextInt(stores.size()));
+        long started = System.nanoTime();
+        int status;
+
+        try {
+            switch (operation) {
+                case BROWSE:
+                    int pages = Math.max(1, store.codes.size() / PAGE_SIZE);
+                    status = send(get("/v1/stores/products/store-id/" + store.id
+                            + "?page=" + random.nextInt(pages) + "&size=" + PAGE_SIZE)).statusCode();
+                    break;
+                case SEARCH:
+                    String word = LoadTestData.WORDS.get(random.nextInt(LoadTestData.WORDS.size()));
+                    status = send(get("/v1/stores/products/search?storeId=" + store.id
+                            + "&q=" + URLEncoder.encode(word, StandardCharsets.UTF_8))).statusCode();
+                    break;
+                case LOGIN:
+                    status = send(post("/authenticate",
+                            Map.of("username", store.email, "password", LoadTestData.PASSWORD), null)).statusCode();
+                    break;
+                case PRODUCT_WRITE:
+                    status = send(post("/v1/stores/products",
+                            LoadTestData.productRequest("LT-W-" + sequence.incrementAndGet()), store.token))
+                            .statusCode();
+                    break;
+                default:
+                    broker.convertAndSend("order-store", "order.store.created",
+                            LoadTestData.order(sequence.incrementAndGet(), store.id, store.codes,
+                                    properties.getItemsPerOrder()));
+                    status = 0;
+            }
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        stats.get(operation).record(System.nanoTime() - started, status);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Object body, String token) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        return request.build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @AllArgsConstructor
+    private static class SeededStore {
+
+        private final BigInteger id;
+
+        private final String email;
+
+        private final String token;
+
+        private final List<String> codes;
+    }
+}
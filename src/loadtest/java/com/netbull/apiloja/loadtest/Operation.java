@@ -0,0 +1,32 @@
+package com.netbull.apiloja.loadtest;
+
+/**
+ * Operações sorteadas pelos usuários virtuais, com o peso definido em {@code loadtest.mix}.
+ */
+public enum Operation {
+
+    /**
+     * Página do catálogo público de uma loja.
+     */
+    BROWSE,
+
+    /**
+     * Busca textual no catálogo público de uma loja.
+     */
+    SEARCH,
+
+    /**
+     * Login da loja, com a verificação de senha no BCrypt.
+     */
+    LOGIN,
+
+    /**
+     * Cadastro de produto pela loja logada.
+     */
+    PRODUCT_WRITE,
+
+    /**
+     * Pedido publicado em order-store-created, como a api do cliente faz.
+     */
+    ORDER_INGESTION
+}
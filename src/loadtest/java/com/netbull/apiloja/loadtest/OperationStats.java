@@ -0,0 +1,47 @@
+package com.netbull.apiloja.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências (em nanossegundos) e status de uma operação. O status 0 indica mensagem publicada
+ * e -1 falha de conexão.
+ */
+public class OperationStats {
+
+    private final Recorder latencies = new Recorder(3);
+
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    public void record(long nanos, int status) {
+        latencies.recordValue(nanos);
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    public void reset() {
+        latencies.reset();
+        statuses.clear();
+    }
+
+    /**
+     * Histograma acumulado desde o último {@link #reset()}. Só deve ser chamado uma vez, no fim da medição.
+     */
+    public Histogram histogram() {
+        return latencies.getIntervalHistogram();
+    }
+
+    public Map<Integer, Long> statuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    public static boolean isSuccess(int status) {
+        return status == 0 || (status >= 200 && status < 300);
+    }
+}
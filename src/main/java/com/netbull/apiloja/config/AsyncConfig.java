@@ -0,0 +1,21 @@
+package com.netbull.apiloja.config;
+
+import com.netbull.apiloja.monitoring.tracing.Tracer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Aplicado pelo Spring Boot ao executor da aplicação, usado pelo {@code @Async} e pela
+     * gravação das lojas no StoreController: as tarefas continuam o trace de quem as submeteu.
+     */
+    @Bean
+    public TaskDecorator tracingTaskDecorator() {
+        return Tracer::propagate;
+    }
+}
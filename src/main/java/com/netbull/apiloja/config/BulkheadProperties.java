@@ -0,0 +1,48 @@
+package com.netbull.apiloja.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grupos de rotas com limite próprio de requisições simultâneas. A primeira rota que casar
+ * com a requisição define o grupo; requisições fora dos grupos não são limitadas.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    private List<Group> groups = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Group {
+
+        private String name;
+
+        /**
+         * Método HTTP do grupo, vazio para qualquer método.
+         */
+        private String method;
+
+        private List<String> patterns = new ArrayList<>();
+
+        private int maxConcurrent;
+
+        /**
+         * Quantidade máxima de requisições esperando vaga; acima disso a requisição é recusada na hora.
+         */
+        private int maxWaiting;
+
+        private Duration queueTimeout = Duration.ZERO;
+    }
+}
@@ -0,0 +1,54 @@
+package com.netbull.apiloja.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netbull.apiloja.domain.order.Order;
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.monitoring.tracing.Tracer;
+import com.netbull.apiloja.monitoring.tracing.TracingJackson2HttpMessageConverter;
+import com.netbull.apiloja.utility.LocalDateModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.util.List;
+
+@Slf4j
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Tipos que a api serializa o tempo todo. Os (de)serializadores ficam em cache no ObjectMapper
+     * já na subida, em vez de serem montados na primeira requisição.
+     */
+    private static final List<Class<?>> PRE_WARMED_TYPES = List.of(Order.class, Product.class, Store.class);
+
+    @Bean
+    public Module localDateModule() {
+        return new LocalDateModule();
+    }
+
+    /**
+     * Substitui o conversor JSON padrão do Spring MVC pelo que mede a serialização no trace.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   Tracer tracer) {
+        return new TracingJackson2HttpMessageConverter(objectMapper, tracer);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preWarm(ApplicationReadyEvent event) {
+        ObjectMapper objectMapper = event.getApplicationContext().getBean(ObjectMapper.class);
+
+        PRE_WARMED_TYPES.forEach(type -> {
+            if (!objectMapper.canSerialize(type) || !objectMapper.canDeserialize(objectMapper.constructType(type))) {
+                log.warn("Não foi possível preparar a serialização de {}.", type.getSimpleName());
+            }
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package com.netbull.apiloja.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Faz os métodos anotados com {@code @RabbitListener} usarem o pool de conexões dos listeners.
+ */
+@Aspect
+public class ListenerDataSourceAspect {
+
+    @Around("@annotation(org.springframework.amqp.rabbit.annotation.RabbitListener)")
+    public Object useListenerPool(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ListenerRoutingDataSource.enterListener();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ListenerRoutingDataSource.exitListener(previous);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.netbull.apiloja.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pools de conexão separados para HTTP e listeners, ativado com
+ * {@code bulkhead.listener-pool.enabled=true}. Sem a propriedade o pool único do Spring Boot é usado.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bulkhead.listener-pool.enabled", havingValue = "true")
+public class ListenerDataSourceConfig {
+
+    @Bean
+    public ListenerRoutingDataSource dataSource(DataSourceProperties properties, MeterRegistry meterRegistry,
+                                                @Value("${bulkhead.listener-pool.http-size}") int httpPoolSize,
+                                                @Value("${bulkhead.listener-pool.listener-size}") int listenerPoolSize) {
+        return new ListenerRoutingDataSource(
+                createPool(properties, meterRegistry, "http", httpPoolSize),
+                createPool(properties, meterRegistry, "listener", listenerPoolSize));
+    }
+
+    @Bean
+    public ListenerDataSourceAspect listenerDataSourceAspect() {
+        return new ListenerDataSourceAspect();
+    }
+
+    private HikariDataSource createPool(DataSourceProperties properties, MeterRegistry meterRegistry,
+                                        String name, int size) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(size);
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+}
@@ -0,0 +1,55 @@
+package com.netbull.apiloja.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.Map;
+
+/**
+ * Separa as conexões usadas pelos listeners do Rabbit das usadas pelas requisições HTTP,
+ * cada grupo com seu próprio pool. A thread é marcada como listener pelo
+ * {@link ListenerDataSourceAspect}.
+ */
+public class ListenerRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private enum Pool { HTTP, LISTENER }
+
+    private static final ThreadLocal<Boolean> LISTENER = new ThreadLocal<>();
+
+    private final HikariDataSource httpPool;
+
+    private final HikariDataSource listenerPool;
+
+    public ListenerRoutingDataSource(HikariDataSource httpPool, HikariDataSource listenerPool) {
+        this.httpPool = httpPool;
+        this.listenerPool = listenerPool;
+        setTargetDataSources(Map.of(Pool.HTTP, httpPool, Pool.LISTENER, listenerPool));
+        setDefaultTargetDataSource(httpPool);
+    }
+
+    static boolean enterListener() {
+        boolean previous = Boolean.TRUE.equals(LISTENER.get());
+        LISTENER.set(true);
+        return previous;
+    }
+
+    static void exitListener(boolean previous) {
+        if (previous) {
+            LISTENER.set(true);
+        } else {
+            LISTENER.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Boolean.TRUE.equals(LISTENER.get()) ? Pool.LISTENER : Pool.HTTP;
+    }
+
+    @Override
+    public void close() {
+        httpPool.close();
+        listenerPool.close();
+    }
+}
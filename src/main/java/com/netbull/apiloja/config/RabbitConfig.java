@@ -1,25 +1,65 @@
 package com.netbull.apiloja.config;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netbull.apiloja.monitoring.tracing.RabbitTracing;
+import com.netbull.apiloja.monitoring.tracing.Tracer;
+import com.netbull.apiloja.monitoring.tracing.TracingMessageConverter;
+import com.netbull.apiloja.monitoring.tracing.TracingRabbitTemplate;
+import com.netbull.apiloja.utility.LocalDateModule;
+import org.aopalliance.aop.Advice;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 @Configuration
 public class RabbitConfig {
 
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter jsonMessageConverter(Tracer tracer) {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .registerModule(new LocalDateModule());
+
+        return new TracingMessageConverter(new Jackson2JsonMessageConverter(objectMapper), tracer);
     }
 
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
-        final RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(this.jsonMessageConverter());
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter jsonMessageConverter,
+                                         RabbitTracing rabbitTracing) {
+        final RabbitTemplate rabbitTemplate = new TracingRabbitTemplate(connectionFactory, rabbitTracing);
+        rabbitTemplate.setMessageConverter(jsonMessageConverter);
         return rabbitTemplate;
 
     }
+
+    /**
+     * Mesma configuração do Spring Boot (spring.rabbitmq.listener.simple.*), com o trace aberto
+     * antes do retry para que todas as tentativas fiquem no mesmo span de consumo.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            RabbitTracing rabbitTracing) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+
+        List<Advice> adviceChain = new ArrayList<>();
+        adviceChain.add(rabbitTracing.listenerAdvice());
+        if (factory.getAdviceChain() != null) {
+            adviceChain.addAll(Arrays.asList(factory.getAdviceChain()));
+        }
+        factory.setAdviceChain(adviceChain.toArray(new Advice[0]));
+
+        return factory;
+    }
 }
@@ -1,25 +1,61 @@
 package com.netbull.apiloja.controller;
 
 import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductBatchGet;
+import com.netbull.apiloja.domain.product.ProductBatchGetResult;
+import com.netbull.apiloja.domain.product.ProductExportFormat;
+import com.netbull.apiloja.domain.product.ProductFacets;
+import com.netbull.apiloja.domain.product.ProductField;
+import com.netbull.apiloja.domain.product.ProductFilter;
+import com.netbull.apiloja.domain.product.ProductImportReport;
+import com.netbull.apiloja.domain.product.change.ProductChangePage;
+import com.netbull.apiloja.domain.product.price.ProductPriceUpdate;
+import com.netbull.apiloja.domain.product.price.ProductPriceUpdateReport;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.service.ProductChangeLog;
+import com.netbull.apiloja.service.ProductExportService;
+import com.netbull.apiloja.service.ProductImportService;
+import com.netbull.apiloja.service.ProductRepricingService;
 import com.netbull.apiloja.service.ProductService;
+import com.netbull.apiloja.service.StoreService;
+import com.netbull.apiloja.security.model.LoggedUser;
+import com.netbull.apiloja.utility.CatalogVersion;
+import com.netbull.apiloja.utility.RequestCoalescer;
+import com.netbull.apiloja.utility.SlimPage;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequestMapping(path = "/v1/stores/products")
@@ -28,6 +64,30 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductChangeLog productChangeLog;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepricingService productRepricingService;
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Value("${catalog.cache.max-age}")
+    private long catalogMaxAge;
+
     @Operation(summary = "Criar um produto.")
     @PostMapping(produces = MediaType.APPLICATION_JSON, consumes = MediaType.APPLICATION_JSON)
     public ResponseEntity<String> persistProduct(@RequestBody Product product) {
@@ -50,25 +110,169 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductById(id, auth.getName()));
     }
 
-    @Operation(summary = "Buscar todos os produto.")
+    @Operation(summary = "Buscar vários produtos da loja logada por id ou código.")
+    @PostMapping(path = "/batch-get", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
+    public ResponseEntity<ProductBatchGetResult> getProductsByKeys(@RequestBody ProductBatchGet request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return ResponseEntity.ok(productService.getProductsByKeys(auth.getName(), request));
+    }
+
+    @Operation(summary = "Buscar todos os produto.",
+            description = "Com fields (ex.: fields=id,name,price) só as colunas pedidas são lidas do banco " +
+                    "e a resposta vem no envelope enxuto de página.")
     @GetMapping(produces = MediaType.APPLICATION_JSON)
-    public ResponseEntity<Page<Product>> getAllProductsByStore(
+    public ResponseEntity<?> getAllProductsByStore(
             @ParameterObject @PageableDefault(sort = {"id"},
                     direction = Sort.Direction.ASC,
                     page = 0, size = 10)
-                    Pageable pageable) {
+                    Pageable pageable, @ParameterObject ProductFilter filter,
+            @RequestParam(required = false) List<String> fields, WebRequest webRequest) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Supplier<Object> products = fields == null
+                ? () -> productService.getProductsByStoreEmail(pageable, auth.getName(), filter)
+                : () -> SlimPage.of(productService.getProductFieldsByStoreEmail(pageable, auth.getName(), filter,
+                        ProductField.parse(fields)));
+
+        if (!(auth.getPrincipal() instanceof LoggedUser)) {
+            return ResponseEntity.ok(products.get());
+        }
+
+        Optional<String> etag = catalogVersion.etag(((LoggedUser) auth.getPrincipal()).getStore().getId());
+
+        if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        etag.ifPresent(response::eTag);
+
+        return response.body(products.get());
+    }
+
+    @Operation(summary = "Buscar o resumo de estoque e faixas de preço dos produtos da loja logada.")
+    @GetMapping(path = "/facets", produces = MediaType.APPLICATION_JSON)
+    public ResponseEntity<ProductFacets> getProductFacets(@ParameterObject ProductFilter filter) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return ResponseEntity.ok(productService.getProductsByStoreEmail(pageable, auth.getName()));
+        return ResponseEntity.ok(productService.getProductFacetsByStoreEmail(auth.getName(), filter));
     }
 
+    @Operation(summary = "Buscar todos os produtos de uma loja.",
+            description = "Com fields (ex.: fields=id,name,price) só as colunas pedidas são lidas do banco " +
+                    "e a resposta vem no envelope enxuto de página.")
     @GetMapping(path = "/store-id/{id}", produces = MediaType.APPLICATION_JSON)
-    public ResponseEntity<Page<Product>> getAllProductsByStoreId(
+    public ResponseEntity<?> getAllProductsByStoreId(
             @ParameterObject @PageableDefault(sort = {"id"},
                     direction = Sort.Direction.ASC,
                     page = 0, size = 10)
                     Pageable pageable,
-            @PathVariable BigInteger id) {
-        return ResponseEntity.ok(productService.getProductsByStoreId(pageable, id));
+            @PathVariable BigInteger id, @ParameterObject ProductFilter filter,
+            @RequestParam(required = false) List<String> fields, WebRequest webRequest) {
+        Optional<String> etag = catalogVersion.etag(id);
+
+        if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+            return null;
+        }
+
+        if (fields != null) {
+            List<ProductField> productFields = ProductField.parse(fields);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(catalogMaxAge, TimeUnit.SECONDS).cachePublic().mustRevalidate());
+            etag.ifPresent(response::eTag);
+
+            return response.body(requestCoalescer.execute("product-fields-by-store-id",
+                    List.of(id, pageable, filter, productFields),
+                    () -> SlimPage.of(productService.getProductFieldsByStoreId(pageable, id, filter,
+                            productFields))));
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(catalogMaxAge, TimeUnit.SECONDS).cachePublic().mustRevalidate());
+        etag.ifPresent(response::eTag);
+
+        return response.body(requestCoalescer.execute("products-by-store-id", List.of(id, pageable, filter),
+                () -> productService.getProductsByStoreId(pageable, id, filter)));
+    }
+
+    @Operation(summary = "Buscar o resumo de estoque e faixas de preço dos produtos de uma loja.")
+    @GetMapping(path = "/store-id/{id}/facets", produces = MediaType.APPLICATION_JSON)
+    public ResponseEntity<ProductFacets> getProductFacetsByStoreId(@PathVariable BigInteger id,
+                                                                   @ParameterObject ProductFilter filter,
+                                                                   WebRequest webRequest) {
+        Optional<String> etag = catalogVersion.etag(id);
+
+        if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(catalogMaxAge, TimeUnit.SECONDS).cachePublic().mustRevalidate());
+        etag.ifPresent(response::eTag);
+
+        return response.body(productService.getProductFacetsByStoreId(id, filter));
+    }
+
+    @Operation(summary = "Buscar as alterações do catálogo de uma loja a partir de um cursor.")
+    @GetMapping(path = "/changes", produces = MediaType.APPLICATION_JSON)
+    public ResponseEntity<ProductChangePage> getProductChanges(@RequestParam BigInteger storeId,
+                                                               @RequestParam(defaultValue = "0") long since,
+                                                               @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(productChangeLog.getChanges(storeId, since, limit));
+    }
+
+    @Operation(summary = "Buscar produtos de uma loja por código, nome ou descrição.")
+    @GetMapping(path = "/search", produces = MediaType.APPLICATION_JSON)
+    public ResponseEntity<List<Product>> searchProducts(@RequestParam BigInteger storeId,
+                                                        @RequestParam String q,
+                                                        @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(productService.searchProducts(storeId, q, limit));
+    }
+
+    @Operation(summary = "Exportar o catálogo da loja logada em NDJSON ou CSV.")
+    @GetMapping(path = "/export")
+    public void exportProducts(@RequestParam(defaultValue = "ndjson") String format,
+                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                       String acceptEncoding,
+                               HttpServletResponse response) throws IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        ProductExportFormat exportFormat = ProductExportFormat.of(format);
+        Store store = storeService.getStoreByEmail(auth.getName());
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("produtos-" + store.getId() + "." + exportFormat.getExtension())
+                .build().toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+        productExportService.exportProducts(store, exportFormat, out);
+        out.flush();
+        if (gzip) {
+            ((GZIPOutputStream) out).finish();
+        }
+    }
+
+    @Operation(summary = "Importar produtos na loja logada a partir de NDJSON ou CSV.")
+    @PostMapping(path = "/import", produces = MediaType.APPLICATION_JSON)
+    public ResponseEntity<ProductImportReport> importProducts(@RequestParam(defaultValue = "ndjson") String format,
+                                                              @RequestHeader(value = HttpHeaders.CONTENT_ENCODING,
+                                                                      required = false) String contentEncoding,
+                                                              HttpServletRequest request) throws IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        ProductExportFormat importFormat = ProductExportFormat.of(format);
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding)
+                ? new GZIPInputStream(request.getInputStream(), 8192)
+                : request.getInputStream();
+
+        return ResponseEntity.ok(productImportService.importProducts(auth.getName(), importFormat, in));
     }
 
     @Operation(summary = "Alterar um preço de um produto.")
@@ -86,6 +290,13 @@ public class ProductController {
         return ResponseEntity.created(uri).body("Preço alterado.");
     }
 
+    @Operation(summary = "Reajustar os preços de vários produtos da loja logada.")
+    @PatchMapping(path = "/price", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
+    public ResponseEntity<ProductPriceUpdateReport> updatePrices(@RequestBody ProductPriceUpdate update) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return ResponseEntity.ok(productRepricingService.updatePrices(auth.getName(), update));
+    }
+
     @Operation(summary = "Alterar um produto.")
     @PutMapping(path = "/{id}", consumes = MediaType.APPLICATION_JSON, produces = MediaType.APPLICATION_JSON)
     public ResponseEntity<String> alterProduct(@PathVariable BigInteger id,
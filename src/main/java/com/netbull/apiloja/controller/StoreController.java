@@ -2,23 +2,35 @@ package com.netbull.apiloja.controller;
 
 import com.netbull.apiloja.domain.store.Store;
 import com.netbull.apiloja.service.StoreService;
+import com.netbull.apiloja.utility.CatalogVersion;
+import com.netbull.apiloja.utility.RequestCoalescer;
+import com.netbull.apiloja.utility.StringUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.ws.rs.core.MediaType;
 import java.math.BigInteger;
-import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Controller
 @RequestMapping(path = "/v1/stores")
@@ -27,23 +39,55 @@ public class StoreController {
     @Autowired
     StoreService storeService;
 
+    @Autowired
+    RequestCoalescer requestCoalescer;
+
+    @Autowired
+    CatalogVersion catalogVersion;
+
+    @Autowired
+    StringUtils stringUtils;
+
+    /**
+     * Só o hash roda no pool de senha; a gravação e a publicação da loja voltam para o executor
+     * da aplicação, para que conexões com o banco e o broker não prendam as threads do BCrypt.
+     */
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    Executor taskExecutor;
+
+    @Value("${catalog.cache.max-age}")
+    long catalogMaxAge;
+
     @Operation(summary = "Cria uma loja.")
     @PostMapping(produces = MediaType.APPLICATION_JSON, consumes = MediaType.APPLICATION_JSON)
-    public ResponseEntity<String> createStore(@RequestBody Store store) {
-        this.storeService.persistStore(store);
+    public CompletableFuture<ResponseEntity<String>> createStore(@RequestBody Store store) {
+        this.storeService.validateStore(store);
 
-        URI uri = MvcUriComponentsBuilder.fromController(getClass())
-                .path("/{id}")
-                .buildAndExpand(store.getId())
-                .toUri();
+        UriComponentsBuilder location = MvcUriComponentsBuilder.fromController(getClass()).path("/{id}");
 
-        return ResponseEntity.created(uri).body("Loja criada.");
+        return this.stringUtils.encryptPassword(store.getPassword()).thenApplyAsync(password -> {
+            store.setPassword(password);
+            this.storeService.persistStore(store);
+
+            return ResponseEntity.created(location.buildAndExpand(store.getId()).toUri()).body("Loja criada.");
+        }, taskExecutor);
     }
 
     @Operation(summary = "Busca loja pelo ID.")
     @GetMapping(path = "/{id}" ,produces = MediaType.APPLICATION_JSON)
-    public ResponseEntity<Store> getStoreById(@PathVariable BigInteger id) {
-        return ResponseEntity.ok(this.storeService.getStoreByID(id));
+    public ResponseEntity<Store> getStoreById(@PathVariable BigInteger id, WebRequest webRequest) {
+        Optional<String> etag = catalogVersion.etag(id);
+
+        if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(catalogMaxAge, TimeUnit.SECONDS).cachePublic().mustRevalidate());
+        etag.ifPresent(response::eTag);
+
+        return response.body(requestCoalescer.execute("store-by-id", id, () -> this.storeService.getStoreByID(id)));
     }
 
     @Operation(summary = "Busca loja pelo e-mail.")
@@ -64,17 +108,19 @@ public class StoreController {
 
     @Operation(summary = "Altera uma loja.")
     @PutMapping(produces = MediaType.APPLICATION_JSON, consumes = MediaType.APPLICATION_JSON)
-    public ResponseEntity<String> alterStore(@RequestBody Store store) {
+    public CompletableFuture<ResponseEntity<String>> alterStore(@RequestBody Store store) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
-        this.storeService.putStore(auth.getName() ,store);
+        this.storeService.validateStore(store);
+
+        UriComponentsBuilder location = MvcUriComponentsBuilder.fromController(getClass()).path("/{id}");
 
-        URI uri = MvcUriComponentsBuilder.fromController(getClass())
-                .path("/{id}")
-                .buildAndExpand(store.getId())
-                .toUri();
+        return this.stringUtils.encryptPassword(store.getPassword()).thenApplyAsync(password -> {
+            store.setPassword(password);
+            this.storeService.putStore(auth.getName() ,store);
 
-        return ResponseEntity.created(uri).body("Loja alterada.");
+            return ResponseEntity.created(location.buildAndExpand(store.getId()).toUri()).body("Loja alterada.");
+        }, taskExecutor);
     }
 
     @Operation(summary = "Exclui uma loja.")
@@ -82,7 +128,9 @@ public class StoreController {
     public ResponseEntity<String> deleteStore() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
-        this.storeService.deleteStore(auth.getName());
+        if (!this.storeService.deleteStore(auth.getName())) {
+            return ResponseEntity.accepted().body("Exclusão da loja agendada.");
+        }
 
         return ResponseEntity.ok("Loja deletada.");
     }
@@ -5,6 +5,8 @@ import com.netbull.apiloja.domain.address.AddressAbstract;
 import com.netbull.apiloja.domain.store.Store;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -15,6 +17,8 @@ import java.math.BigInteger;
 @Getter
 @Entity
 @Table(name = "address_store")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "address-store")
 public class AddressStore extends AddressAbstract implements Serializable {
 
     @Id
@@ -1,14 +1,29 @@
 package com.netbull.apiloja.domain.address.addressStore;
 
 import com.netbull.apiloja.domain.store.Store;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.math.BigInteger;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+
 @Repository
 public interface AddressStoreRepository extends CrudRepository<AddressStore, BigInteger> {
+
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     public Optional<Set<AddressStore>> findAddressesByStore(Store store);
+
+    @Transactional
+    @Modifying
+    @Query("delete from AddressStore a where a.store = :store")
+    public int deleteAddressesByStore(@Param("store") Store store);
 }
@@ -1,14 +1,10 @@
 package com.netbull.apiloja.domain.order;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
-import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.netbull.apiloja.domain.order.addressClient.AddressClient;
 import com.netbull.apiloja.domain.order.client.Client;
 import com.netbull.apiloja.domain.order.product.ProductOrder;
 import com.netbull.apiloja.domain.store.Store;
-import com.netbull.apiloja.utility.JsonLocalDateDeserializer;
-import com.netbull.apiloja.utility.JsonLocalDateSerializer;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -26,43 +22,63 @@ import java.util.Objects;
 @Setter
 @Entity
 @Table(name = "order_client")
+@NamedEntityGraph(name = Order.GRAPH_SUMMARY,
+        attributeNodes = {
+                @NamedAttributeNode(value = "address", subgraph = "address"),
+                @NamedAttributeNode("client"),
+                @NamedAttributeNode("store")
+        },
+        subgraphs = @NamedSubgraph(name = "address", attributeNodes = @NamedAttributeNode("type")))
+@NamedEntityGraph(name = Order.GRAPH_DETAILS,
+        attributeNodes = {
+                @NamedAttributeNode(value = "address", subgraph = "address"),
+                @NamedAttributeNode("client"),
+                @NamedAttributeNode("store"),
+                @NamedAttributeNode("products")
+        },
+        subgraphs = @NamedSubgraph(name = "address", attributeNodes = @NamedAttributeNode("type")))
 public class Order implements Serializable {
 
+    /**
+     * Pedido com endereço, cliente e loja, sem os produtos. Usado na listagem paginada,
+     * os produtos são buscados em uma segunda consulta para toda a página.
+     */
+    public static final String GRAPH_SUMMARY = "Order.summary";
+
+    /**
+     * Pedido completo, usado quando o pedido é enviado para a api do cliente.
+     */
+    public static final String GRAPH_DETAILS = "Order.details";
+
     @Id
     private BigInteger id;
 
     @Enumerated(EnumType.STRING)
     private OrderState state;
 
-    @JsonSerialize(using = JsonLocalDateSerializer.class)
-    @JsonDeserialize(using = JsonLocalDateDeserializer.class)
     private LocalDate orderCreated;
 
-    @JsonSerialize(using = JsonLocalDateSerializer.class)
-    @JsonDeserialize(using = JsonLocalDateDeserializer.class)
     private LocalDate orderDispatched;
 
-    @JsonSerialize(using = JsonLocalDateSerializer.class)
-    @JsonDeserialize(using = JsonLocalDateDeserializer.class)
     private LocalDate orderDelivered;
 
     private BigDecimal totalValue;
 
     @JsonIgnoreProperties({"client"})
-    @ManyToOne(cascade = CascadeType.ALL)
+    @ManyToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "address_id")
     private AddressClient address;
 
-    @ManyToOne(cascade = CascadeType.ALL)
+    @ManyToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id")
     private Client client;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "store_id")
     private Store store;
 
     @JsonIgnoreProperties({"order"})
-    @OneToMany(mappedBy = "order", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
     private List<ProductOrder> products;
 
     @Override
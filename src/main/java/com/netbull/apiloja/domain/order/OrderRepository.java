@@ -2,25 +2,25 @@ package com.netbull.apiloja.domain.order;
 
 import com.netbull.apiloja.domain.store.Store;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.math.BigInteger;
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 public interface OrderRepository extends PagingAndSortingRepository<Order, BigInteger> {
 
-    public Optional<Set<Order>> findOrdersByStore(Store store);
+    @EntityGraph(Order.GRAPH_SUMMARY)
+    public Page<Order> findOrdersPageByStore(Pageable pageable, Store store);
 
-    public default Page<Order> findOrdersPageByStore(Pageable pageable, Store store) {
-        List<Order> products = this.findOrdersByStore(store).orElse(new HashSet<Order>())
-                .stream()
-                .collect(Collectors.toList());
-        return new PageImpl<Order>(products, pageable, products.size());
-    }
+    @EntityGraph(Order.GRAPH_DETAILS)
+    public Optional<Order> findDetailedById(BigInteger id);
+
+    @Query("select distinct o from Order o left join fetch o.products where o in :orders")
+    public List<Order> fetchProducts(@Param("orders") Collection<Order> orders);
 }
@@ -2,7 +2,10 @@ package com.netbull.apiloja.domain.order.addressClient;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Table;
@@ -12,6 +15,8 @@ import java.io.Serializable;
 @Setter
 @Entity
 @Table(name = "address_type")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "address-type")
 public class Type implements Serializable {
 
     @Id
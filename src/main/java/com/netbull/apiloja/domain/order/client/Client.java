@@ -1,10 +1,6 @@
 package com.netbull.apiloja.domain.order.client;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
-import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.netbull.apiloja.utility.JsonLocalDateDeserializer;
-import com.netbull.apiloja.utility.JsonLocalDateSerializer;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -34,8 +30,6 @@ public class Client implements Serializable {
 
     private String email;
 
-    @JsonSerialize(using = JsonLocalDateSerializer.class)
-    @JsonDeserialize(using = JsonLocalDateDeserializer.class)
     private LocalDate birthday;
 
     @Override
@@ -0,0 +1,22 @@
+package com.netbull.apiloja.domain.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+
+/**
+ * Evento enviado quando todo o catálogo de uma loja é removido, no lugar de um
+ * product.deleted por produto.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class CatalogTombstone implements Serializable {
+
+    private BigInteger storeId;
+
+    private long deletedProducts;
+}
@@ -19,14 +19,18 @@ import java.util.Objects;
 @Getter
 @Setter
 @Entity
-@Table(name = "product_store")
+@Table(name = "product_store", indexes = {
+        @Index(name = "idx_product_store_price", columnList = "store_id, price"),
+        @Index(name = "idx_product_store_quantity", columnList = "store_id, quantity"),
+        @Index(name = "idx_product_store_code", columnList = "store_id, code")
+})
 public class Product implements Serializable {
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequence_product_store")
     @SequenceGenerator(name = "sequence_product_store",sequenceName = "sequence_product_store",
-            allocationSize = 1,
+            allocationSize = 50,
             initialValue = 1)
     private BigInteger id;
 
@@ -48,6 +52,10 @@ public class Product implements Serializable {
     @NotBlank(message = "O código do produto não pode ser vazio.")
     private String code;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Version
+    private Long version;
+
     @JsonIgnoreProperties({"cnpj", "corporateName", "email", "phone", "password"})
     @NotNull(message = "Loja não pode ser nula.")
     @ManyToOne
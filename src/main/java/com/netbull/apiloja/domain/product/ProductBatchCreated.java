@@ -0,0 +1,23 @@
+package com.netbull.apiloja.domain.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Evento enviado para cada bloco de produtos importados, no lugar de um
+ * product.created por produto.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class ProductBatchCreated implements Serializable {
+
+    private BigInteger storeId;
+
+    private List<Product> products;
+}
@@ -0,0 +1,23 @@
+package com.netbull.apiloja.domain.product;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Busca de vários produtos da loja logada por id e/ou código. Com {@code fields}, cada produto
+ * vem só com os campos pedidos.
+ */
+@Getter
+@Setter
+public class ProductBatchGet {
+
+    private List<BigInteger> ids = new ArrayList<>();
+
+    private List<String> codes = new ArrayList<>();
+
+    private List<String> fields = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.netbull.apiloja.domain.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigInteger;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductBatchGetResult {
+
+    private final List<?> products;
+
+    private final List<BigInteger> missingIds;
+
+    private final List<String> missingCodes;
+}
@@ -0,0 +1,28 @@
+package com.netbull.apiloja.domain.product;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+@Getter
+public enum ProductExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+
+    private final String extension;
+
+    ProductExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static ProductExportFormat of(String format) {
+        return Arrays.stream(values())
+                .filter(value -> value.extension.equalsIgnoreCase(format))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Formato de exportação inválido: " + format + "."));
+    }
+}
@@ -0,0 +1,35 @@
+package com.netbull.apiloja.domain.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Resumo dos produtos que atendem a um filtro: total, estoque e faixas de preço. A faixa
+ * inclui {@code from} e exclui {@code to}; a última não tem limite superior.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductFacets {
+
+    private final long total;
+
+    private final long inStock;
+
+    private final long outOfStock;
+
+    private final List<PriceBucket> priceBuckets;
+
+    @Getter
+    @AllArgsConstructor
+    public static class PriceBucket {
+
+        private final BigDecimal from;
+
+        private final BigDecimal to;
+
+        private final long count;
+    }
+}
@@ -0,0 +1,50 @@
+package com.netbull.apiloja.domain.product;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Campos de {@link Product} que podem ser pedidos numa projeção. O nome é o mesmo do atributo
+ * da entidade e da propriedade no JSON.
+ */
+@Getter
+public enum ProductField {
+
+    ID("id"),
+    CODE("code"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    PRICE("price"),
+    QUANTITY("quantity"),
+    VERSION("version");
+
+    private final String attribute;
+
+    ProductField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public static ProductField of(String attribute) {
+        return Arrays.stream(values())
+                .filter(field -> field.attribute.equals(attribute.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Campo inválido: " + attribute.trim() + "."));
+    }
+
+    /**
+     * Campos pedidos, na ordem em que vieram e sem repetição.
+     */
+    public static List<ProductField> parse(Collection<String> attributes) {
+        Set<ProductField> fields = attributes.stream()
+                .filter(attribute -> !attribute.isBlank())
+                .map(ProductField::of)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return List.copyOf(fields);
+    }
+}
@@ -0,0 +1,24 @@
+package com.netbull.apiloja.domain.product;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Filtros da listagem de produtos, recebidos como parâmetros da requisição.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+public class ProductFilter {
+
+    private BigDecimal minPrice;
+
+    private BigDecimal maxPrice;
+
+    private Boolean inStock;
+
+    private String codePrefix;
+}
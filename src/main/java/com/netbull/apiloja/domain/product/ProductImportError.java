@@ -0,0 +1,17 @@
+package com.netbull.apiloja.domain.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductImportError {
+
+    private final long row;
+
+    private final String code;
+
+    private final List<String> messages;
+}
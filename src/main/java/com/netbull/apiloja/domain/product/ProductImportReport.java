@@ -0,0 +1,45 @@
+package com.netbull.apiloja.domain.product;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de uma importação. Só as primeiras {@code maxErrors} linhas com erro são detalhadas,
+ * {@code failed} conta todas.
+ */
+@Getter
+public class ProductImportReport {
+
+    private long rows;
+
+    private long created;
+
+    private long failed;
+
+    private final List<ProductImportError> errors = new ArrayList<>();
+
+    @JsonIgnore
+    private final int maxErrors;
+
+    public ProductImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void addRow() {
+        rows++;
+    }
+
+    public void addCreated(int count) {
+        created += count;
+    }
+
+    public void addError(String code, List<String> messages) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ProductImportError(rows, code, messages));
+        }
+    }
+}
@@ -1,27 +1,94 @@
 package com.netbull.apiloja.domain.product;
 
+import com.netbull.apiloja.domain.product.price.ProductPrice;
+import com.netbull.apiloja.domain.product.stock.StockLevel;
 import com.netbull.apiloja.domain.store.Store;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.math.BigInteger;
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface ProductRepository extends PagingAndSortingRepository<Product, BigInteger> {
+public interface ProductRepository extends PagingAndSortingRepository<Product, BigInteger>,
+        JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
     public Optional<Product> findProductsByStoreAndCode(Store store, String code);
-    public Optional<Set<Product>> findProductsByStore(Store store);
-    public default Page<Product> findProductsByStorePage(Pageable pageable, Store store) {
-        List<Product> products = this.findProductsByStore(store).orElse(new HashSet<Product>())
-                .stream()
-                .collect(Collectors.toList());
-        return new PageImpl<Product>(products, pageable, products.size());
-    }
+    public List<Product> findProductsByStoreAndCodeIn(Store store, Collection<String> codes);
+
+    public long countProductsByStore(Store store);
+
+    /**
+     * Preços para reajuste, com as linhas bloqueadas até o commit e em ordem de id.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.netbull.apiloja.domain.product.price.ProductPrice(p.id, p.code, p.price) " +
+            "from Product p where p.store = :store and p.id in :ids order by p.id")
+    public List<ProductPrice> findPricesByStoreAndIdInForUpdate(@Param("store") Store store,
+                                                                @Param("ids") Collection<BigInteger> ids);
+
+    @Query("select new com.netbull.apiloja.domain.product.price.ProductPrice(p.id, p.code, p.price) " +
+            "from Product p where p.store = :store and p.code in :codes")
+    public List<ProductPrice> findPricesByStoreAndCodeIn(@Param("store") Store store,
+                                                         @Param("codes") Collection<String> codes);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.netbull.apiloja.domain.product.price.ProductPrice(p.id, p.code, p.price) " +
+            "from Product p where p.store = :store and p.id > :after order by p.id")
+    public List<ProductPrice> findPricesByStoreAfterForUpdate(@Param("store") Store store,
+                                                              @Param("after") BigInteger after, Pageable pageable);
+
+    @Query("select p from Product p join fetch p.store where p.id > :after order by p.id")
+    public List<Product> findProductsAfter(@Param("after") BigInteger after, Pageable pageable);
+
+    @Query("select new com.netbull.apiloja.domain.product.stock.StockLevel(p.store.id, count(p), " +
+            "coalesce(sum(p.quantity), 0), sum(case when p.quantity = 0 then 1 else 0 end), " +
+            "sum(case when p.quantity <= :lowStock then 1 else 0 end)) from Product p group by p.store.id")
+    public List<StockLevel> findStockLevels(@Param("lowStock") BigInteger lowStock);
+
+    @Query("select p.code from Product p where p.store = :store")
+    public Set<String> findCodesByStore(@Param("store") Store store);
+
+    /**
+     * Percorre o catálogo da loja com um cursor no servidor (fetch size MIN_VALUE no driver do MySQL),
+     * sem carregar o resultado inteiro. A loja vem no join para não disparar outra consulta na
+     * conexão enquanto o cursor está aberto. Deve ser consumido dentro de uma transação e fechado.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select p from Product p join fetch p.store where p.store = :store order by p.id")
+    public Stream<Product> streamProductsByStore(@Param("store") Store store);
+
+    @Query("select p.id from Product p where p.store = :store order by p.id")
+    public List<BigInteger> findProductIdsByStore(@Param("store") Store store, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Product p where p.store = :store")
+    public int deleteProductsByStore(@Param("store") Store store);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Product p where p.id in :ids")
+    public int deleteProductsByIdIn(@Param("ids") Collection<BigInteger> ids);
 }
@@ -0,0 +1,25 @@
+package com.netbull.apiloja.domain.product;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    public ProductFacets findFacets(Specification<Product> specification, List<BigDecimal> priceBounds);
+
+    /**
+     * Só as colunas dos campos pedidos, sem carregar a entidade nem a loja, ordenado por id.
+     */
+    public List<Map<String, Object>> findFields(Specification<Product> specification, List<ProductField> fields);
+
+    /**
+     * Página só com as colunas dos campos pedidos, com a ordenação do {@code pageable}.
+     */
+    public Page<Map<String, Object>> findFields(Specification<Product> specification, List<ProductField> fields,
+                                                Pageable pageable);
+}
@@ -0,0 +1,127 @@
+package com.netbull.apiloja.domain.product;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Todas as contagens saem de uma consulta só, com um sum(case ...) por faixa de preço.
+     */
+    @Override
+    public ProductFacets findFacets(Specification<Product> specification, List<BigDecimal> priceBounds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        Path<BigDecimal> price = root.get("price");
+        Expression<Integer> inStock = cb.<Integer>selectCase()
+                .when(cb.greaterThan(root.<BigInteger>get("quantity"), BigInteger.ZERO), 1)
+                .otherwise(0);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(cb.count(root));
+        selections.add(cb.sum(inStock));
+        for (int i = 0; i < priceBounds.size(); i++) {
+            Predicate bucket = cb.greaterThanOrEqualTo(price, priceBounds.get(i));
+            if (i + 1 < priceBounds.size()) {
+                bucket = cb.and(bucket, cb.lessThan(price, priceBounds.get(i + 1)));
+            }
+            selections.add(cb.sum(cb.<Integer>selectCase().when(bucket, 1).otherwise(0)));
+        }
+
+        query.multiselect(selections);
+        query.where(specification.toPredicate(root, query, cb));
+
+        Tuple tuple = entityManager.createQuery(query).getSingleResult();
+
+        long total = count(tuple.get(0));
+        long inStockCount = count(tuple.get(1));
+
+        List<ProductFacets.PriceBucket> buckets = new ArrayList<>(priceBounds.size());
+        for (int i = 0; i < priceBounds.size(); i++) {
+            buckets.add(new ProductFacets.PriceBucket(priceBounds.get(i),
+                    i + 1 < priceBounds.size() ? priceBounds.get(i + 1) : null,
+                    count(tuple.get(i + 2))));
+        }
+
+        return new ProductFacets(total, inStockCount, total - inStockCount, buckets);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(Specification<Product> specification, List<ProductField> fields) {
+        return toMaps(fieldsQuery(specification, fields, Sort.by("id")).getResultList(), fields);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFields(Specification<Product> specification, List<ProductField> fields,
+                                                Pageable pageable) {
+        TypedQuery<Tuple> query = fieldsQuery(specification, fields, pageable.getSort());
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+
+        List<Map<String, Object>> content = toMaps(query.getResultList(), fields);
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    private TypedQuery<Tuple> fieldsQuery(Specification<Product> specification, List<ProductField> fields,
+                                          Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        query.multiselect(fields.stream()
+                .map(field -> root.get(field.getAttribute()).alias(field.getAttribute()))
+                .collect(Collectors.toList()));
+        query.where(specification.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Product> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+
+        query.select(cb.count(root));
+        query.where(specification.toPredicate(root, query, cb));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private List<Map<String, Object>> toMaps(List<Tuple> tuples, List<ProductField> fields) {
+        return tuples.stream()
+                .map(tuple -> {
+                    Map<String, Object> product = new LinkedHashMap<>();
+                    fields.forEach(field -> product.put(field.getAttribute(), tuple.get(field.getAttribute())));
+                    return product;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private long count(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+}
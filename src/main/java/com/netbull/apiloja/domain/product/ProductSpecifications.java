@@ -0,0 +1,65 @@
+package com.netbull.apiloja.domain.product;
+
+import com.netbull.apiloja.domain.store.Store;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * Produtos da loja que atendem ao filtro. Os predicados usam os índices por loja de
+     * {@code product_store}: preço, quantidade e código (prefixo com like 'abc%').
+     */
+    public static Specification<Product> byStore(Store store, ProductFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("store"), store));
+
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<BigDecimal>get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<BigDecimal>get("price"), filter.getMaxPrice()));
+            }
+            if (Boolean.TRUE.equals(filter.getInStock())) {
+                predicates.add(cb.greaterThan(root.<BigInteger>get("quantity"), BigInteger.ZERO));
+            }
+            if (filter.getCodePrefix() != null && !filter.getCodePrefix().isBlank()) {
+                predicates.add(cb.like(root.get("code"), escapeLike(filter.getCodePrefix()) + "%", '\\'));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Produtos da loja com algum dos ids ou códigos informados.
+     */
+    public static Specification<Product> byStoreAndKeys(Store store, Collection<BigInteger> ids,
+                                                        Collection<String> codes) {
+        return (root, query, cb) -> {
+            List<Predicate> keys = new ArrayList<>();
+            if (!ids.isEmpty()) {
+                keys.add(root.get("id").in(ids));
+            }
+            if (!codes.isEmpty()) {
+                keys.add(root.get("code").in(codes));
+            }
+
+            return cb.and(cb.equal(root.get("store"), store), cb.or(keys.toArray(new Predicate[0])));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,48 @@
+package com.netbull.apiloja.domain.product.change;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+/**
+ * Registro de uma alteração no catálogo de uma loja. A sequência é por loja e cresce na
+ * ordem de commit, então pode ser usada como cursor pelo feed de alterações.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "product_change",
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_change_store_sequence",
+                columnNames = {"store_id", "sequence"}),
+        indexes = @Index(name = "idx_product_change_changed_at", columnList = "changedAt"))
+public class ProductChange implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequence_product_change")
+    @SequenceGenerator(name = "sequence_product_change", sequenceName = "sequence_product_change",
+            allocationSize = 50,
+            initialValue = 1)
+    private BigInteger id;
+
+    @Column(name = "store_id", nullable = false)
+    private BigInteger storeId;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    @Column(nullable = false)
+    private BigInteger productId;
+
+    private String code;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ProductChangeType type;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
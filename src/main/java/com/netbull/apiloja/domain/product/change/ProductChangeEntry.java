@@ -0,0 +1,26 @@
+package com.netbull.apiloja.domain.product.change;
+
+import com.netbull.apiloja.domain.product.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigInteger;
+
+/**
+ * Item do feed de alterações. Em criações e alterações {@code product} traz o estado atual
+ * do produto; em exclusões vem nulo.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangeEntry {
+
+    private final long sequence;
+
+    private final ProductChangeType type;
+
+    private final BigInteger productId;
+
+    private final String code;
+
+    private final Product product;
+}
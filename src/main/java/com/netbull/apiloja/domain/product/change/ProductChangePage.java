@@ -0,0 +1,20 @@
+package com.netbull.apiloja.domain.product.change;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Página do feed de alterações. {@code next} é o valor de {@code since} da próxima chamada.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangePage {
+
+    private final List<ProductChangeEntry> changes;
+
+    private final long next;
+
+    private final boolean hasMore;
+}
@@ -0,0 +1,47 @@
+package com.netbull.apiloja.domain.product.change;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends CrudRepository<ProductChange, BigInteger> {
+
+    public List<ProductChange> findByStoreIdAndSequenceGreaterThanOrderBySequence(BigInteger storeId, long since,
+                                                                                   Pageable pageable);
+
+    @Query("select c.id from ProductChange c where c.changedAt < :before and exists " +
+            "(select l.id from ProductChange l where l.storeId = c.storeId and l.productId = c.productId " +
+            "and l.sequence > c.sequence)")
+    public List<BigInteger> findSupersededChangeIds(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Query("select c.storeId, max(c.sequence) from ProductChange c " +
+            "where c.type = :type and c.changedAt < :before group by c.storeId")
+    public List<Object[]> findLastSequenceByStore(@Param("type") ProductChangeType type,
+                                                  @Param("before") LocalDateTime before);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ProductChange c where c.id in :ids")
+    public int deleteChangesByIdIn(@Param("ids") Collection<BigInteger> ids);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ProductChange c where c.storeId = :storeId and c.type = :type and c.sequence <= :sequence")
+    public int deleteChangesThrough(@Param("storeId") BigInteger storeId, @Param("type") ProductChangeType type,
+                                    @Param("sequence") long sequence);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ProductChange c where c.storeId = :storeId")
+    public int deleteChangesByStoreId(@Param("storeId") BigInteger storeId);
+}
@@ -0,0 +1,35 @@
+package com.netbull.apiloja.domain.product.change;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.math.BigInteger;
+
+/**
+ * Última sequência do feed de alterações de cada loja. A linha é bloqueada do beforeCommit
+ * ao commit da escrita das alterações, o que faz a sequência seguir a ordem de commit.
+ * {@code compactedThrough} é a maior sequência de exclusão já descartada pela compactação.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "product_change_sequence")
+public class ProductChangeSequence implements Serializable {
+
+    @Id
+    private BigInteger storeId;
+
+    private long lastSequence;
+
+    private long compactedThrough;
+
+    public ProductChangeSequence(BigInteger storeId) {
+        this.storeId = storeId;
+    }
+}
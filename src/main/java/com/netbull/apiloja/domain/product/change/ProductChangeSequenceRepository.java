@@ -0,0 +1,37 @@
+package com.netbull.apiloja.domain.product.change;
+
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.math.BigInteger;
+import java.util.Optional;
+
+@Repository
+public interface ProductChangeSequenceRepository extends CrudRepository<ProductChangeSequence, BigInteger> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ProductChangeSequence s where s.storeId = :storeId")
+    public Optional<ProductChangeSequence> findForUpdate(@Param("storeId") BigInteger storeId);
+
+    @Transactional
+    @Modifying
+    @Query("update ProductChangeSequence s set s.compactedThrough = :sequence " +
+            "where s.storeId = :storeId and s.compactedThrough < :sequence")
+    public int advanceCompactedThrough(@Param("storeId") BigInteger storeId, @Param("sequence") long sequence);
+
+    /**
+     * Abre a sequência das lojas cadastradas antes do feed de alterações.
+     */
+    @Transactional
+    @Modifying
+    @Query("insert into ProductChangeSequence (storeId, lastSequence, compactedThrough) " +
+            "select s.id, 0L, 0L from Store s " +
+            "where not exists (select c.storeId from ProductChangeSequence c where c.storeId = s.id)")
+    public int openMissingSequences();
+}
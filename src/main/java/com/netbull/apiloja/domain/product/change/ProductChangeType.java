@@ -0,0 +1,5 @@
+package com.netbull.apiloja.domain.product.change;
+
+public enum ProductChangeType {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,21 @@
+package com.netbull.apiloja.domain.product.price;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Projeção do preço atual de um produto, usada no reajuste em lote.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductPrice {
+
+    private final BigInteger id;
+
+    private final String code;
+
+    private final BigDecimal price;
+}
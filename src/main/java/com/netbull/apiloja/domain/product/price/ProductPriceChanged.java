@@ -0,0 +1,38 @@
+package com.netbull.apiloja.domain.product.price;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Evento enviado para cada bloco de um reajuste em lote, no lugar de um
+ * product.updated com a entidade inteira por produto.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class ProductPriceChanged implements Serializable {
+
+    private BigInteger storeId;
+
+    private List<Change> changes;
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    public static class Change implements Serializable {
+
+        private BigInteger id;
+
+        private String code;
+
+        private BigDecimal oldPrice;
+
+        private BigDecimal newPrice;
+    }
+}
@@ -0,0 +1,22 @@
+package com.netbull.apiloja.domain.product.price;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reajuste de preços em lote. Cada item identifica o produto por {@code id} ou {@code code} e traz
+ * o novo preço ou um percentual sobre o preço atual. {@code percentage} sem itens reajusta o
+ * catálogo inteiro da loja.
+ */
+@Getter
+@Setter
+public class ProductPriceUpdate {
+
+    private List<ProductPriceUpdateItem> items = new ArrayList<>();
+
+    private BigDecimal percentage;
+}
@@ -0,0 +1,20 @@
+package com.netbull.apiloja.domain.product.price;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+@Getter
+@Setter
+public class ProductPriceUpdateItem {
+
+    private BigInteger id;
+
+    private String code;
+
+    private BigDecimal price;
+
+    private BigDecimal percentage;
+}
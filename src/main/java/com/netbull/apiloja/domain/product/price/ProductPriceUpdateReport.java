@@ -0,0 +1,15 @@
+package com.netbull.apiloja.domain.product.price;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductPriceUpdateReport {
+
+    private final long updated;
+
+    private final List<String> notFound;
+}
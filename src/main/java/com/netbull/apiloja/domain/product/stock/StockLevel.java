@@ -0,0 +1,24 @@
+package com.netbull.apiloja.domain.product.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigInteger;
+
+/**
+ * Projeção do estoque de uma loja, usada nas métricas de estoque.
+ */
+@Getter
+@AllArgsConstructor
+public class StockLevel {
+
+    private final BigInteger storeId;
+
+    private final Long products;
+
+    private final BigInteger units;
+
+    private final Long outOfStock;
+
+    private final Long lowStock;
+}
@@ -3,6 +3,8 @@ package com.netbull.apiloja.domain.store;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
@@ -16,9 +18,21 @@ import java.util.Objects;
 @Getter
 @Setter
 @Entity
-@Table(name = "store")
+@Table(name = "store", uniqueConstraints = {
+        @UniqueConstraint(name = Store.UK_CNPJ, columnNames = "cnpj"),
+        @UniqueConstraint(name = Store.UK_EMAIL, columnNames = "email"),
+        @UniqueConstraint(name = Store.UK_PHONE, columnNames = "phone")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "store")
 public class Store implements Serializable {
 
+    public static final String UK_CNPJ = "uk_store_cnpj";
+
+    public static final String UK_EMAIL = "uk_store_email";
+
+    public static final String UK_PHONE = "uk_store_phone";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequence_store")
     @SequenceGenerator(name = "sequence_store",sequenceName = "sequence_store",
@@ -0,0 +1,42 @@
+package com.netbull.apiloja.domain.store;
+
+import lombok.Getter;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Andamento de uma exclusão de loja em segundo plano, exposto pelo endpoint
+ * {@code /actuator/storepurges} e pelas métricas {@code store.purge.*}.
+ */
+public class StorePurgeProgress {
+
+    @Getter
+    private final BigInteger storeId;
+
+    @Getter
+    private final long totalProducts;
+
+    @Getter
+    private final Instant startedAt = Instant.now();
+
+    private final AtomicLong deleted = new AtomicLong();
+
+    public StorePurgeProgress(BigInteger storeId, long totalProducts) {
+        this.storeId = storeId;
+        this.totalProducts = totalProducts;
+    }
+
+    public long getDeletedProducts() {
+        return deleted.get();
+    }
+
+    public long getRemainingProducts() {
+        return Math.max(0, totalProducts - deleted.get());
+    }
+
+    public long addDeleted(long products) {
+        return deleted.addAndGet(products);
+    }
+}
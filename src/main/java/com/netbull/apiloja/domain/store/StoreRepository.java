@@ -2,17 +2,24 @@ package com.netbull.apiloja.domain.store;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+
 @Repository
-public interface StoreRepository extends PagingAndSortingRepository<Store, BigInteger> {
+public interface StoreRepository extends JpaRepository<Store, BigInteger> {
 
-    public Optional<Store> findByCnpj(String cnpj);
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     public Optional<Store> findByEmail(String email);
-    public Optional<Store> findByPhone(String phone);
+
+    public List<Store> findByCnpjOrEmailOrPhone(String cnpj, String email, String phone);
+
     public Page<Store> findAll(Pageable pageable);
 }
@@ -0,0 +1,31 @@
+package com.netbull.apiloja.domain.store.refreshToken;
+
+import com.netbull.apiloja.domain.store.Store;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Registro de um refresh token emitido. O id é o jti do token, usado para revogá-lo.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "refresh_token")
+public class RefreshToken implements Serializable {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "store_id")
+    private Store store;
+
+    private LocalDateTime expiresAt;
+
+    private boolean revoked;
+}
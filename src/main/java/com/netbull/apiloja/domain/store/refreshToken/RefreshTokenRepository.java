@@ -0,0 +1,39 @@
+package com.netbull.apiloja.domain.store.refreshToken;
+
+import com.netbull.apiloja.domain.store.Store;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RefreshTokenRepository extends CrudRepository<RefreshToken, String> {
+
+    /**
+     * Revoga o token se ele ainda não foi revogado. Devolve 0 quando outra requisição já o usou:
+     * o update trava a linha, então duas renovações concorrentes com o mesmo token não passam juntas.
+     */
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.id = :id and r.revoked = false")
+    public int revokeToken(@Param("id") String id);
+
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.store = :store and r.revoked = false")
+    public int revokeTokensByStore(@Param("store") Store store);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken r where r.store = :store")
+    public int deleteTokensByStore(@Param("store") Store store);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt < :now")
+    public int deleteExpiredTokens(@Param("now") LocalDateTime now);
+}
@@ -1,7 +1,6 @@
 package com.netbull.apiloja.listener;
 
 import com.netbull.apiloja.domain.order.Order;
-import com.netbull.apiloja.domain.order.OrderRepository;
 import com.netbull.apiloja.service.OrderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -12,9 +11,6 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class OrderListener {
 
-    @Autowired
-    OrderRepository orderRepository;
-
     @Autowired
     OrderService orderService;
 
@@ -25,12 +21,6 @@ public class OrderListener {
 
     @RabbitListener(queues = "order-store-updated-delivered")
     public void executeUpdate(Order order) {
-        Order otherOrder = orderRepository.findById(order.getId()).get();
-        otherOrder.setState(order.getState());
-        otherOrder.setOrderDelivered(order.getOrderDelivered());
-
-        if (orderRepository.save(order) != null) {
-            log.info("Endereço alterado: {}", order.getState());
-        }
+        orderService.updateDeliveredOrder(order);
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.netbull.apiloja.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.time.Duration;
+
+/**
+ * Métricas dos serviços, dos listeners e do estoque. O id da loja nunca vira tag: as lojas são
+ * agrupadas em {@code store-buckets} faixas pelo resto da divisão do id.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "monitoring.metrics")
+public class MetricsProperties {
+
+    private int storeBuckets = 16;
+
+    /**
+     * Quantidade a partir da qual, para baixo, o produto conta como estoque baixo.
+     */
+    private long lowStock = 5;
+
+    /**
+     * Faixa esperada das latências, define os limites do histograma de percentis.
+     */
+    private Duration minimumExpectedLatency = Duration.ofMillis(1);
+
+    private Duration maximumExpectedLatency = Duration.ofSeconds(10);
+
+    public String storeBucket(BigInteger storeId) {
+        if (storeId == null) {
+            return "none";
+        }
+        return String.valueOf(storeId.mod(BigInteger.valueOf(storeBuckets)));
+    }
+}
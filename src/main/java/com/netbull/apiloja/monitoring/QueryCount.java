@@ -0,0 +1,32 @@
+package com.netbull.apiloja.monitoring;
+
+import lombok.Getter;
+
+/**
+ * Comandos SQL, linhas e tempo de banco acumulados por uma requisição HTTP ou
+ * por uma execução de listener.
+ */
+@Getter
+public class QueryCount {
+
+    private long statements;
+
+    private long rows;
+
+    private long timeMillis;
+
+    void addStatement(long elapsedMillis) {
+        this.statements++;
+        this.timeMillis += elapsedMillis;
+    }
+
+    void addRows(long rows) {
+        this.rows += rows;
+    }
+
+    void add(QueryCount other) {
+        this.statements += other.statements;
+        this.rows += other.rows;
+        this.timeMillis += other.timeMillis;
+    }
+}
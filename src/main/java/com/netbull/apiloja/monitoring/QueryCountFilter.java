@@ -0,0 +1,89 @@
+package com.netbull.apiloja.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Conta os comandos SQL de cada requisição HTTP. No profile debug a contagem também é
+ * devolvida nos headers X-Query-Count, X-Query-Rows e X-Query-Time.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final String PENDING_COUNT_ATTRIBUTE = QueryCountFilter.class.getName() + ".PENDING_COUNT";
+
+    // Respostas em stream não podem ser bufferizadas para receber os headers no final
+    private static final Set<String> STREAMING_PATHS = Set.of("/v1/stores/products/export");
+
+    private final QueryCountMetrics queryCountMetrics;
+
+    @Value("${monitoring.query.headers}")
+    private boolean headers;
+
+    public QueryCountFilter(QueryCountMetrics queryCountMetrics) {
+        this.queryCountMetrics = queryCountMetrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        boolean headers = this.headers && !STREAMING_PATHS.contains(request.getRequestURI());
+
+        ContentCachingResponseWrapper responseWrapper = null;
+        if (headers) {
+            responseWrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (responseWrapper == null) {
+                responseWrapper = new ContentCachingResponseWrapper(response);
+            }
+        }
+
+        try (QueryCountHolder.Scope scope = QueryCountHolder.start()) {
+            filterChain.doFilter(request, headers ? responseWrapper : response);
+
+            QueryCount count = scope.getCount();
+            QueryCount previousDispatch = (QueryCount) request.getAttribute(PENDING_COUNT_ATTRIBUTE);
+            if (previousDispatch != null) {
+                count.add(previousDispatch);
+            }
+
+            // Requisições assíncronas só são contabilizadas no último dispatch
+            if (isAsyncStarted(request)) {
+                request.setAttribute(PENDING_COUNT_ATTRIBUTE, count);
+                return;
+            }
+
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            queryCountMetrics.record("http", request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN"), count);
+
+            if (headers) {
+                responseWrapper.setHeader("X-Query-Count", String.valueOf(count.getStatements()));
+                responseWrapper.setHeader("X-Query-Rows", String.valueOf(count.getRows()));
+                responseWrapper.setHeader("X-Query-Time", String.valueOf(count.getTimeMillis()));
+            }
+        } finally {
+            if (headers && !isAsyncStarted(request)) {
+                responseWrapper.copyBodyToResponse();
+            }
+        }
+    }
+}
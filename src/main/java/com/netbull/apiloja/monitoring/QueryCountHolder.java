@@ -0,0 +1,50 @@
+package com.netbull.apiloja.monitoring;
+
+/**
+ * Mantém a contagem de comandos SQL da thread atual. Escopos podem ser aninhados,
+ * ao fechar um escopo o que foi contado nele é somado ao escopo anterior.
+ */
+public final class QueryCountHolder {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private QueryCountHolder() {
+    }
+
+    public static Scope start() {
+        QueryCount previous = CURRENT.get();
+        QueryCount count = new QueryCount();
+        CURRENT.set(count);
+        return new Scope(count, previous);
+    }
+
+    static QueryCount current() {
+        return CURRENT.get();
+    }
+
+    public static class Scope implements AutoCloseable {
+
+        private final QueryCount count;
+
+        private final QueryCount previous;
+
+        private Scope(QueryCount count, QueryCount previous) {
+            this.count = count;
+            this.previous = previous;
+        }
+
+        public QueryCount getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                previous.add(count);
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
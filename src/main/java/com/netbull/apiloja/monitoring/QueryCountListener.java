@@ -0,0 +1,59 @@
+package com.netbull.apiloja.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Listener do datasource-proxy que soma comandos, linhas e tempo no {@link QueryCountHolder}.
+ * Linhas lidas são contadas pelas chamadas de {@link ResultSet#next()} que retornam true,
+ * linhas alteradas pelo retorno dos updates.
+ */
+public class QueryCountListener implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryCount count = QueryCountHolder.current();
+
+        if (count == null) {
+            return;
+        }
+
+        count.addStatement(execInfo.getElapsedTime());
+
+        Object result = execInfo.getResult();
+        if (result instanceof Integer) {
+            count.addRows((Integer) result);
+        } else if (result instanceof int[]) {
+            for (int updated : (int[]) result) {
+                count.addRows(Math.max(updated, 0));
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+
+            QueryCount count = QueryCountHolder.current();
+            if (count != null) {
+                count.addRows(1);
+            }
+        }
+    }
+}
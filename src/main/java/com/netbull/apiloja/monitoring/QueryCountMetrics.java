@@ -0,0 +1,50 @@
+package com.netbull.apiloja.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica a contagem de comandos SQL de uma unidade de trabalho (endpoint ou listener)
+ * no Micrometer e avisa no log quando o limite configurado é ultrapassado.
+ */
+@Component
+@Slf4j
+public class QueryCountMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${monitoring.query.budget}")
+    private long budget;
+
+    public QueryCountMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String type, String name, QueryCount count) {
+        DistributionSummary.builder("db.queries.statements")
+                .tags("type", type, "name", name)
+                .register(meterRegistry)
+                .record(count.getStatements());
+
+        DistributionSummary.builder("db.queries.rows")
+                .tags("type", type, "name", name)
+                .register(meterRegistry)
+                .record(count.getRows());
+
+        Timer.builder("db.queries.time")
+                .tags("type", type, "name", name)
+                .register(meterRegistry)
+                .record(count.getTimeMillis(), TimeUnit.MILLISECONDS);
+
+        if (count.getStatements() > budget) {
+            log.warn("{} {} executou {} comandos SQL, o limite é {}.",
+                    type, name, count.getStatements(), budget);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.netbull.apiloja.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conta os comandos SQL de cada mensagem processada pelos métodos anotados com {@link RabbitListener}.
+ */
+@Aspect
+@Component
+public class RabbitListenerQueryCountAspect {
+
+    private final QueryCountMetrics queryCountMetrics;
+
+    public RabbitListenerQueryCountAspect(QueryCountMetrics queryCountMetrics) {
+        this.queryCountMetrics = queryCountMetrics;
+    }
+
+    @Around("@annotation(rabbitListener)")
+    public Object count(ProceedingJoinPoint joinPoint, RabbitListener rabbitListener) throws Throwable {
+        try (QueryCountHolder.Scope scope = QueryCountHolder.start()) {
+            Object result = joinPoint.proceed();
+            queryCountMetrics.record("rabbit", String.join(",", rabbitListener.queues()), scope.getCount());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.netbull.apiloja.monitoring;
+
+import com.netbull.apiloja.domain.order.Order;
+import com.netbull.apiloja.domain.store.Store;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo dos métodos públicos dos serviços ({@code service.calls}) e das mensagens
+ * processadas pelos listeners ({@code rabbit.listener}), com histograma de percentis.
+ * A loja é identificada pelo argumento {@code storeId}, {@link Store} ou {@link Order} e vira a
+ * faixa de {@link MetricsProperties#storeBucket}; chamadas internas do próprio serviço não são medidas.
+ *
+ * <p>Cada série de histograma custa um contador por faixa de latência, então os timers só têm a
+ * loja e o resultado além do método; o tipo da exceção fica em {@code service.errors} e
+ * {@code rabbit.listener.errors}, contadores sem histograma e sem loja. Os timers ficam em cache
+ * por método, loja e resultado, sem montar e registrar um builder a cada chamada.</p>
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    private final MetricsProperties properties;
+
+    private final Map<Method, MeteredMethod> methods = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry, MetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Around("execution(public * com.netbull.apiloja.service.ProductService.*(..)) " +
+            "|| execution(public * com.netbull.apiloja.service.StoreService.*(..)) " +
+            "|| execution(public * com.netbull.apiloja.service.OrderService.*(..)) " +
+            "|| execution(public * com.netbull.apiloja.service.AddressService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        MeteredMethod metered = methods.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                method -> new MeteredMethod("service.calls", "service.errors", Tags.of(
+                        "class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                        "method", joinPoint.getSignature().getName())));
+        return time(joinPoint, metered);
+    }
+
+    @Around("@annotation(rabbitListener) && within(com.netbull.apiloja.listener..*)")
+    public Object timeListener(ProceedingJoinPoint joinPoint, RabbitListener rabbitListener) throws Throwable {
+        MeteredMethod metered = methods.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                method -> new MeteredMethod("rabbit.listener", "rabbit.listener.errors",
+                        Tags.of("queue", String.join(",", rabbitListener.queues()))));
+        return time(joinPoint, metered);
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, MeteredMethod metered) throws Throwable {
+        long start = System.nanoTime();
+        boolean success = false;
+
+        try {
+            Object result = joinPoint.proceed();
+            success = true;
+            return result;
+        } catch (Throwable e) {
+            metered.error(e.getClass()).increment();
+            throw e;
+        } finally {
+            metered.timer(properties.storeBucket(storeId(joinPoint)), success)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Timers e contadores de erro de um método, criados na primeira chamada de cada combinação.
+     */
+    private class MeteredMethod {
+
+        private final String timerName;
+
+        private final String errorName;
+
+        private final Tags tags;
+
+        private final Map<String, Timer> successes = new ConcurrentHashMap<>();
+
+        private final Map<String, Timer> failures = new ConcurrentHashMap<>();
+
+        private final Map<Class<?>, Counter> errors = new ConcurrentHashMap<>();
+
+        MeteredMethod(String timerName, String errorName, Tags tags) {
+            this.timerName = timerName;
+            this.errorName = errorName;
+            this.tags = tags;
+        }
+
+        Timer timer(String store, boolean success) {
+            return (success ? successes : failures).computeIfAbsent(store, bucket -> Timer.builder(timerName)
+                    .tags(tags)
+                    .tag("store", bucket)
+                    .tag("outcome", success ? "success" : "error")
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(properties.getMinimumExpectedLatency())
+                    .maximumExpectedValue(properties.getMaximumExpectedLatency())
+                    .register(meterRegistry));
+        }
+
+        Counter error(Class<?> exception) {
+            return errors.computeIfAbsent(exception, type -> Counter.builder(errorName)
+                    .tags(tags)
+                    .tag("exception", type.getSimpleName())
+                    .register(meterRegistry));
+        }
+    }
+
+    private static BigInteger storeId(ProceedingJoinPoint joinPoint) {
+        String[] names = ((MethodSignature) joinPoint.getSignature()).getParameterNames();
+        Object[] args = joinPoint.getArgs();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Store) {
+                return ((Store) args[i]).getId();
+            }
+            if (args[i] instanceof Order && ((Order) args[i]).getStore() != null) {
+                return ((Order) args[i]).getStore().getId();
+            }
+            if (args[i] instanceof BigInteger && names != null && "storeId".equals(names[i])) {
+                return (BigInteger) args[i];
+            }
+        }
+        return null;
+    }
+}
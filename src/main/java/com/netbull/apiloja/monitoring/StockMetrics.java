@@ -0,0 +1,73 @@
+package com.netbull.apiloja.monitoring;
+
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.stock.StockLevel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Publica o estoque por faixa de lojas ({@code product.stock.*}). A consulta roda no agendamento,
+ * não a cada leitura das métricas.
+ */
+@Component
+@Slf4j
+public class StockMetrics {
+
+    private final ProductRepository productRepository;
+
+    private final MetricsProperties properties;
+
+    private final MultiGauge products;
+
+    private final MultiGauge units;
+
+    private final MultiGauge outOfStock;
+
+    private final MultiGauge lowStock;
+
+    public StockMetrics(ProductRepository productRepository, MetricsProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.properties = properties;
+        this.products = MultiGauge.builder("product.stock.products").register(meterRegistry);
+        this.units = MultiGauge.builder("product.stock.units").register(meterRegistry);
+        this.outOfStock = MultiGauge.builder("product.stock.out").register(meterRegistry);
+        this.lowStock = MultiGauge.builder("product.stock.low").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${monitoring.metrics.stock-refresh-interval}")
+    public void refresh() {
+        Map<String, long[]> buckets = new TreeMap<>();
+
+        for (StockLevel level : productRepository.findStockLevels(BigInteger.valueOf(properties.getLowStock()))) {
+            long[] totals = buckets.computeIfAbsent(properties.storeBucket(level.getStoreId()), bucket -> new long[4]);
+            totals[0] += level.getProducts();
+            totals[1] += level.getUnits().longValue();
+            totals[2] += level.getOutOfStock();
+            totals[3] += level.getLowStock();
+        }
+
+        products.register(rows(buckets, 0), true);
+        units.register(rows(buckets, 1), true);
+        outOfStock.register(rows(buckets, 2), true);
+        lowStock.register(rows(buckets, 3), true);
+
+        log.debug("Métricas de estoque atualizadas para {} faixas de lojas.", buckets.size());
+    }
+
+    private static List<MultiGauge.Row<?>> rows(Map<String, long[]> buckets, int index) {
+        return buckets.entrySet().stream()
+                .map(entry -> MultiGauge.Row.of(Tags.of("store", entry.getKey()), entry.getValue()[index]))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,36 @@
+package com.netbull.apiloja.monitoring;
+
+import com.netbull.apiloja.domain.store.StorePurgeProgress;
+import com.netbull.apiloja.service.StorePurgeJob;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Exclusões de loja em andamento ({@code /actuator/storepurges}). A loja some da lista quando a
+ * exclusão termina ou falha; o resultado fica no log e nos eventos store.deleted.
+ */
+@Component
+@Endpoint(id = "storepurges")
+public class StorePurgeEndpoint {
+
+    private final StorePurgeJob storePurgeJob;
+
+    public StorePurgeEndpoint(StorePurgeJob storePurgeJob) {
+        this.storePurgeJob = storePurgeJob;
+    }
+
+    @ReadOperation
+    public List<StorePurgeProgress> purges() {
+        return storePurgeJob.getProgress();
+    }
+
+    @ReadOperation
+    public StorePurgeProgress purge(@Selector BigInteger storeId) {
+        return storePurgeJob.getProgress(storeId).orElse(null);
+    }
+}
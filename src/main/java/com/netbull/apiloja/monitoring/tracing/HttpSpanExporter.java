@@ -0,0 +1,52 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envia cada lote em um POST para o endpoint de spans do coletor (Zipkin ou compatível).
+ */
+public class HttpSpanExporter implements SpanExporter {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final URI url;
+
+    private final ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+
+    public HttpSpanExporter(URI url, ObjectMapper objectMapper) {
+        this.url = url;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void export(List<Map<String, Object>> spans) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(spans)))
+                .build();
+
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Envio dos spans interrompido.", e);
+        }
+
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("O coletor respondeu " + response.statusCode() + ".");
+        }
+    }
+}
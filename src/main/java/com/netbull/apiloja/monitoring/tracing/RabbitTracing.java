@@ -0,0 +1,62 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propaga o trace pelo RabbitMQ: o publisher grava o {@code traceparent} do span de envio nos
+ * headers da mensagem e o listener continua o trace a partir dele. O span de envio cobre a
+ * publicação no broker; o de consumo cobre a conversão da mensagem e o listener, com todas as
+ * tentativas do retry.
+ */
+@Component
+public class RabbitTracing {
+
+    private final Tracer tracer;
+
+    public RabbitTracing(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Envia a mensagem dentro de um span de produção, que só termina depois do envio.
+     */
+    public <E extends Throwable> void publish(String exchange, String routingKey, Message message,
+                                              Tracer.Traced<Void, E> send) throws E {
+        Span span = tracer.startSpan("publish " + exchange + " " + routingKey, Span.Kind.PRODUCER)
+                .tag("messaging.exchange", exchange)
+                .tag("messaging.routing_key", routingKey)
+                .tag("messaging.message_size", message.getBody().length);
+
+        message.getMessageProperties().setHeader(TraceContext.HEADER, span.getContext().toHeader());
+        tracer.within(span, send);
+    }
+
+    /**
+     * Advice para o advice chain do container dos listeners.
+     */
+    public MethodInterceptor listenerAdvice() {
+        return invocation -> {
+            Object data = invocation.getArguments()[1];
+
+            if (!(data instanceof Message)) {
+                return invocation.proceed();
+            }
+            return consume((Message) data, invocation::proceed);
+        };
+    }
+
+    public <T, E extends Throwable> T consume(Message message, Tracer.Traced<T, E> listener) throws E {
+        MessageProperties properties = message.getMessageProperties();
+        Object header = properties.getHeaders().get(TraceContext.HEADER);
+
+        Span span = tracer.startSpan("consume " + properties.getConsumerQueue(), Span.Kind.CONSUMER,
+                        TraceContext.parse(header != null ? header.toString() : null))
+                .tag("messaging.destination", properties.getConsumerQueue())
+                .tag("messaging.redelivered", properties.isRedelivered());
+
+        return tracer.within(span, listener);
+    }
+}
@@ -0,0 +1,84 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uma etapa medida do trace. Os tempos seguem o Zipkin: início em microssegundos desde a época
+ * e duração em microssegundos.
+ */
+@Getter
+public class Span {
+
+    public enum Kind {
+        SERVER, CLIENT, PRODUCER, CONSUMER, INTERNAL
+    }
+
+    @Getter(AccessLevel.NONE)
+    private final Tracer tracer;
+
+    private final TraceContext context;
+
+    private final String parentId;
+
+    private final Kind kind;
+
+    private final long timestamp;
+
+    @Getter(AccessLevel.NONE)
+    private final long startNanos;
+
+    private final Map<String, String> tags = new LinkedHashMap<>();
+
+    private String name;
+
+    private long duration = -1;
+
+    Span(Tracer tracer, TraceContext context, String parentId, String name, Kind kind) {
+        this.tracer = tracer;
+        this.context = context;
+        this.parentId = parentId;
+        this.name = name;
+        this.kind = kind;
+        this.timestamp = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Span filho deste, criado pelo mesmo {@link Tracer}.
+     */
+    public Span child(String name, Kind kind) {
+        return new Span(tracer, context.child(), context.getSpanId(), name, kind);
+    }
+
+    public Span name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public Span tag(String key, Object value) {
+        if (context.isSampled() && value != null) {
+            tags.put(key, String.valueOf(value));
+        }
+        return this;
+    }
+
+    public Span error(Throwable error) {
+        return tag("error", error.getClass().getSimpleName());
+    }
+
+    /**
+     * Encerra o span e o envia para exportação se o trace foi amostrado. Chamadas repetidas são ignoradas.
+     */
+    public void end() {
+        if (duration >= 0) {
+            return;
+        }
+        duration = Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+        tracer.finish(this);
+    }
+}
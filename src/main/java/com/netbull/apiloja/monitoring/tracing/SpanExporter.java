@@ -0,0 +1,17 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destino dos spans, já convertidos para o JSON v2 do Zipkin. Chamado sempre pela mesma thread.
+ */
+public interface SpanExporter extends AutoCloseable {
+
+    void export(List<Map<String, Object>> spans) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
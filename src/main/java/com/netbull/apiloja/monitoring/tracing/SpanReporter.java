@@ -0,0 +1,149 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exporta os spans encerrados em uma thread própria, em lotes, para que a escrita no arquivo ou
+ * no coletor não entre no tempo das requisições. Com a fila cheia os spans são descartados e
+ * contados em {@code tracing.spans{outcome=dropped}}.
+ */
+@Component
+@Slf4j
+public class SpanReporter implements DisposableBean {
+
+    private final TracingProperties properties;
+
+    private final String serviceName;
+
+    private final BlockingQueue<Span> queue;
+
+    private final SpanExporter exporter;
+
+    private final Thread thread;
+
+    private final Counter exported;
+
+    private final Counter dropped;
+
+    private final Counter failed;
+
+    private volatile boolean running = true;
+
+    public SpanReporter(TracingProperties properties, MeterRegistry meterRegistry,
+                        @Value("${spring.application.name}") String serviceName) throws IOException {
+        this.properties = properties;
+        this.serviceName = serviceName;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.exporter = createExporter(properties, new ObjectMapper());
+        this.exported = meterRegistry.counter("tracing.spans", "outcome", "exported");
+        this.dropped = meterRegistry.counter("tracing.spans", "outcome", "dropped");
+        this.failed = meterRegistry.counter("tracing.spans", "outcome", "failed");
+
+        this.thread = new Thread(this::run, "span-reporter");
+        this.thread.setDaemon(true);
+
+        if (exporter != null) {
+            this.thread.start();
+        }
+    }
+
+    public void report(Span span) {
+        if (exporter != null && !queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (exporter == null) {
+            return;
+        }
+
+        running = false;
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        exporter.close();
+    }
+
+    private void run() {
+        List<Span> batch = new ArrayList<>(properties.getBatchSize());
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Span first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                export(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void export(List<Span> batch) {
+        List<Map<String, Object>> spans = new ArrayList<>(batch.size());
+        batch.forEach(span -> spans.add(toZipkin(span)));
+
+        try {
+            exporter.export(spans);
+            exported.increment(spans.size());
+        } catch (IOException | RuntimeException e) {
+            failed.increment(spans.size());
+            log.warn("Não foi possível exportar {} spans: {}", spans.size(), e.getMessage());
+        }
+    }
+
+    private Map<String, Object> toZipkin(Span span) {
+        Map<String, Object> zipkin = new LinkedHashMap<>();
+        zipkin.put("traceId", span.getContext().getTraceId());
+        zipkin.put("id", span.getContext().getSpanId());
+        if (span.getParentId() != null) {
+            zipkin.put("parentId", span.getParentId());
+        }
+        zipkin.put("name", span.getName());
+        if (span.getKind() != Span.Kind.INTERNAL) {
+            zipkin.put("kind", span.getKind().name());
+        }
+        zipkin.put("timestamp", span.getTimestamp());
+        zipkin.put("duration", span.getDuration());
+        zipkin.put("localEndpoint", Map.of("serviceName", serviceName));
+        if (!span.getTags().isEmpty()) {
+            zipkin.put("tags", span.getTags());
+        }
+        return zipkin;
+    }
+
+    private static SpanExporter createExporter(TracingProperties properties, ObjectMapper objectMapper)
+            throws IOException {
+        switch (properties.getExporter()) {
+            case FILE:
+                return new FileSpanExporter(Path.of(properties.getFile()), objectMapper);
+            case HTTP:
+                return new HttpSpanExporter(properties.getUrl(), objectMapper);
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Identificação de um span no formato W3C Trace Context
+ * ({@code traceparent: 00-<trace-id>-<span-id>-<flags>}).
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TraceContext {
+
+    public static final String HEADER = "traceparent";
+
+    private static final String VERSION = "00";
+
+    private final String traceId;
+
+    private final String spanId;
+
+    private final boolean sampled;
+
+    /**
+     * @return null se o header estiver ausente ou fora do formato; a requisição começa um trace novo.
+     */
+    public static TraceContext parse(String header) {
+        if (header == null) {
+            return null;
+        }
+
+        String[] parts = header.trim().split("-");
+
+        if (parts.length < 4 || !isHex(parts[0], 2) || "ff".equals(parts[0])
+                || (VERSION.equals(parts[0]) && parts.length != 4)
+                || !isHex(parts[1], 32) || !isHex(parts[2], 16) || !isHex(parts[3], 2)
+                || isZero(parts[1]) || isZero(parts[2])) {
+            return null;
+        }
+
+        return new TraceContext(parts[1], parts[2], (Integer.parseInt(parts[3], 16) & 1) == 1);
+    }
+
+    static TraceContext root(boolean sampled) {
+        return new TraceContext(randomId() + randomId(), randomId(), sampled);
+    }
+
+    TraceContext child() {
+        return new TraceContext(traceId, randomId(), sampled);
+    }
+
+    public String toHeader() {
+        return VERSION + "-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    private static String randomId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+
+        String hex = Long.toHexString(id);
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value) {
+        return value.chars().allMatch(c -> c == '0');
+    }
+}
@@ -0,0 +1,138 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cria os spans e mantém o span ativo da thread. A decisão de amostragem é tomada na raiz do
+ * trace ({@code tracing.sampler.probability}) e herdada pelos filhos, inclusive em outros
+ * serviços pelo {@code traceparent}. Spans não amostrados só propagam os ids.
+ */
+@Component
+public class Tracer {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final TracingProperties properties;
+
+    private final SpanReporter spanReporter;
+
+    public Tracer(TracingProperties properties, SpanReporter spanReporter) {
+        this.properties = properties;
+        this.spanReporter = spanReporter;
+    }
+
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Span filho do span ativo ou raiz de um trace novo.
+     */
+    public Span startSpan(String name, Span.Kind kind) {
+        Span current = CURRENT.get();
+        return startSpan(name, kind, current == null ? null : current.getContext());
+    }
+
+    public Span startSpan(String name, Span.Kind kind, TraceContext parent) {
+        if (parent == null) {
+            return new Span(this, TraceContext.root(sample()), null, name, kind);
+        }
+        return new Span(this, parent.child(), parent.getSpanId(), name, kind);
+    }
+
+    /**
+     * Span filho do span ativo, somente se houver um span amostrado; senão null. Usado nas etapas
+     * internas (banco, serialização), que não abrem trace sozinhas.
+     */
+    public Span startChild(String name, Span.Kind kind) {
+        Span current = CURRENT.get();
+
+        if (current == null || !current.getContext().isSampled()) {
+            return null;
+        }
+        return current.child(name, kind);
+    }
+
+    public Scope activate(Span span) {
+        return enter(span);
+    }
+
+    /**
+     * Envolve uma tarefa que vai rodar em outra thread (pool de senha, {@code @Async}) para que
+     * ela continue o span ativo de quem a submeteu. Sem span ativo a tarefa é devolvida como está.
+     */
+    public static Runnable propagate(Runnable task) {
+        Span span = CURRENT.get();
+
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope scope = enter(span)) {
+                task.run();
+            }
+        };
+    }
+
+    private static Scope enter(Span span) {
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        return new Scope(previous);
+    }
+
+    /**
+     * Executa a etapa com o span ativo e o encerra no final, marcando o erro se houver.
+     * Com span null só executa a etapa.
+     */
+    public <T, E extends Throwable> T within(Span span, Traced<T, E> traced) throws E {
+        if (span == null) {
+            return traced.call();
+        }
+
+        try (Scope scope = activate(span)) {
+            return traced.call();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    void finish(Span span) {
+        if (span.getContext().isSampled()) {
+            spanReporter.report(span);
+        }
+    }
+
+    private boolean sample() {
+        double probability = properties.getSampler().getProbability();
+        return probability >= 1 || (probability > 0 && ThreadLocalRandom.current().nextDouble() < probability);
+    }
+
+    @FunctionalInterface
+    public interface Traced<T, E extends Throwable> {
+
+        T call() throws E;
+    }
+
+    public static class Scope implements AutoCloseable {
+
+        private final Span previous;
+
+        private Scope(Span previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
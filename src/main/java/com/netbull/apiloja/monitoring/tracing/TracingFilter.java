@@ -0,0 +1,94 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Abre o span de cada requisição HTTP, continuando o trace do {@code traceparent} recebido, e
+ * devolve o {@code traceparent} do span na resposta. Em requisições assíncronas o span é
+ * encerrado quando a resposta termina.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        Span span = tracer.startSpan(request.getMethod(), Span.Kind.SERVER,
+                TraceContext.parse(request.getHeader(TraceContext.HEADER)));
+        response.setHeader(TraceContext.HEADER, span.getContext().toHeader());
+
+        try (Tracer.Scope scope = tracer.activate(span)) {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            span.name(request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN"))
+                    .tag("http.method", request.getMethod())
+                    .tag("http.path", request.getRequestURI());
+
+            if (isAsyncStarted(request)) {
+                request.getAsyncContext().addListener(new SpanAsyncListener(span));
+            } else {
+                span.tag("http.status_code", response.getStatus()).end();
+            }
+        }
+    }
+
+    private static class SpanAsyncListener implements AsyncListener {
+
+        private final Span span;
+
+        private SpanAsyncListener(Span span) {
+            this.span = span;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            span.tag("http.status_code", ((HttpServletResponse) event.getSuppliedResponse()).getStatus()).end();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            span.tag("error", "timeout");
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            if (event.getThrowable() != null) {
+                span.error(event.getThrowable());
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Mede a leitura e a escrita do JSON das requisições como spans filhos do span da requisição.
+ * A escrita vai direto para a resposta, então o span também inclui o envio ao cliente.
+ */
+public class TracingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Tracer tracer;
+
+    public TracingJackson2HttpMessageConverter(ObjectMapper objectMapper, Tracer tracer) {
+        super(objectMapper);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return tracer.within(tracer.startChild("deserialize request", Span.Kind.INTERNAL),
+                () -> super.read(type, contextClass, inputMessage));
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        tracer.within(tracer.startChild("serialize response", Span.Kind.INTERNAL), () -> {
+            super.writeInternal(object, type, outputMessage);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.SmartMessageConverter;
+
+/**
+ * Mede a serialização das mensagens do RabbitMQ como spans filhos do span ativo.
+ */
+public class TracingMessageConverter implements SmartMessageConverter {
+
+    private final SmartMessageConverter delegate;
+
+    private final Tracer tracer;
+
+    public TracingMessageConverter(SmartMessageConverter delegate, Tracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+        Span span = tracer.startChild("serialize " + object.getClass().getSimpleName(), Span.Kind.INTERNAL);
+        Message message = tracer.within(span, () -> delegate.toMessage(object, messageProperties));
+
+        if (span != null) {
+            span.tag("bytes", message.getBody().length);
+        }
+        return message;
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        return tracer.within(deserializeSpan(message), () -> delegate.fromMessage(message));
+    }
+
+    @Override
+    public Object fromMessage(Message message, Object conversionHint) throws MessageConversionException {
+        return tracer.within(deserializeSpan(message), () -> delegate.fromMessage(message, conversionHint));
+    }
+
+    private Span deserializeSpan(Message message) {
+        Span span = tracer.startChild("deserialize", Span.Kind.INTERNAL);
+        return span == null ? null : span.tag("bytes", message.getBody().length);
+    }
+}
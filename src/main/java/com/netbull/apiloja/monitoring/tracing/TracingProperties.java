@@ -0,0 +1,56 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+
+/**
+ * Amostragem e exportação dos traces. Os spans são exportados em lote no formato JSON v2 do
+ * Zipkin, em um arquivo (uma linha por span) ou enviados a um coletor por HTTP. Por padrão nada
+ * é exportado: o contexto continua sendo propagado, mas a exportação precisa ser ligada.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "tracing")
+public class TracingProperties {
+
+    private Sampler sampler = new Sampler();
+
+    private Exporter exporter = Exporter.NONE;
+
+    /**
+     * Arquivo do exportador {@code file}. Não tem rotação nem limite de tamanho, é para uso local
+     * e no teste de carga.
+     */
+    private String file = "traces.jsonl";
+
+    /**
+     * Endpoint de spans do coletor, por exemplo um Zipkin local.
+     */
+    private URI url = URI.create("http://localhost:9411/api/v2/spans");
+
+    /**
+     * Spans aguardando exportação; acima disso os spans novos são descartados.
+     */
+    private int queueCapacity = 10_000;
+
+    private int batchSize = 500;
+
+    public enum Exporter {
+        NONE, FILE, HTTP
+    }
+
+    @Getter
+    @Setter
+    public static class Sampler {
+
+        /**
+         * Fração dos traces iniciados aqui que são exportados, de 0 a 1.
+         */
+        private double probability = 0.1;
+    }
+}
@@ -0,0 +1,56 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Listener do datasource-proxy que abre um span para cada comando SQL executado dentro de um
+ * trace amostrado. O SQL vai com os parâmetros como {@code ?}, sem os valores.
+ */
+public class TracingQueryListener implements QueryExecutionListener {
+
+    private static final int MAX_STATEMENT_LENGTH = 500;
+
+    private final ThreadLocal<Span> pending = new ThreadLocal<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span current = Tracer.current();
+
+        if (current != null && current.getContext().isSampled()) {
+            String query = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+            Span span = current.child("db " + operation(query), Span.Kind.CLIENT)
+                    .tag("db.statement", query.length() > MAX_STATEMENT_LENGTH
+                            ? query.substring(0, MAX_STATEMENT_LENGTH) : query);
+            pending.set(span);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = pending.get();
+
+        if (span == null) {
+            return;
+        }
+
+        pending.remove();
+
+        if (execInfo.isBatch()) {
+            span.tag("db.batch_size", execInfo.getBatchSize());
+        }
+        if (!execInfo.isSuccess()) {
+            span.tag("error", "sql");
+        }
+        span.end();
+    }
+
+    private static String operation(String query) {
+        String trimmed = query.stripLeading();
+        int end = trimmed.indexOf(' ');
+        return (end < 0 ? trimmed : trimmed.substring(0, end)).toLowerCase();
+    }
+}
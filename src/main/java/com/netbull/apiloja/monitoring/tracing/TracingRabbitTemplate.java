@@ -0,0 +1,28 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+/**
+ * RabbitTemplate com cada envio dentro do span de produção do {@link RabbitTracing}. Todos os
+ * convertAndSend passam por este send.
+ */
+public class TracingRabbitTemplate extends RabbitTemplate {
+
+    private final RabbitTracing rabbitTracing;
+
+    public TracingRabbitTemplate(ConnectionFactory connectionFactory, RabbitTracing rabbitTracing) {
+        super(connectionFactory);
+        this.rabbitTracing = rabbitTracing;
+    }
+
+    @Override
+    public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+        rabbitTracing.publish(exchange, routingKey, message, () -> {
+            super.send(exchange, routingKey, message, correlationData);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.netbull.apiloja.security.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limites de requisição por rota. A primeira rota que casar com o método e o caminho da
+ * requisição é aplicada; requisições que não casam com nenhuma rota não são limitadas.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Quantidade máxima de buckets mantidos em memória (loja ou IP por rota).
+     */
+    private int maxKeys = 100_000;
+
+    /**
+     * Tempo sem uso depois do qual o bucket é descartado.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        private String name;
+
+        /**
+         * Método HTTP da rota, vazio para qualquer método.
+         */
+        private String method;
+
+        private String pattern;
+
+        /**
+         * Tamanho da rajada permitida.
+         */
+        private long capacity;
+
+        private double refillPerSecond;
+    }
+}
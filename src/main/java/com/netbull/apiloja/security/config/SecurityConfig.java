@@ -2,8 +2,10 @@ package com.netbull.apiloja.security.config;
 
 import com.netbull.apiloja.security.utility.JwtAuthenticationEntryPoint;
 import com.netbull.apiloja.security.utility.JwtRequestFilter;
+import com.netbull.apiloja.security.utility.RateLimitFilter;
 import com.netbull.apiloja.utility.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -36,6 +38,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Autowired
     private StringUtils stringUtils;
 
@@ -58,7 +63,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
         http.csrf().disable()
                 .authorizeRequests()
-                .antMatchers(HttpMethod.POST, "/authenticate", "/v1/stores").permitAll()
+                .antMatchers(HttpMethod.POST, "/authenticate", "/authenticate/refresh", "/v1/stores").permitAll()
                 .antMatchers(HttpMethod.GET, "/v1/stores/**", "/v1/stores/email/**",
                         "/v1/stores", "/v1/stores/products/store-id/**").permitAll()
                 .antMatchers(HttpMethod.GET, "/v3/api-docs/swagger-config/**", "/api/balance/**",
@@ -74,6 +79,17 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JwtRequestFilter.class);
+    }
+
+    /**
+     * O filtro só deve rodar dentro da cadeia do Spring Security, depois do JwtRequestFilter.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
     }
 
     @Bean
@@ -2,13 +2,17 @@ package com.netbull.apiloja.security.controller;
 
 import com.netbull.apiloja.security.model.JwtRequest;
 import com.netbull.apiloja.security.model.JwtResponse;
+import com.netbull.apiloja.security.model.LoggedUser;
+import com.netbull.apiloja.security.model.RefreshRequest;
+import com.netbull.apiloja.security.service.RefreshTokenService;
 import com.netbull.apiloja.security.utility.JwtTokenUtil;
+import com.netbull.apiloja.utility.PasswordHashingPool;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -16,6 +20,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.ws.rs.core.MediaType;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @CrossOrigin
@@ -25,37 +30,62 @@ public class JwtAuthenticationController {
 
     private JwtTokenUtil jwtTokenUtil;
 
-    private UserDetailsService userDetailsService;
+    private PasswordHashingPool passwordHashingPool;
+
+    private RefreshTokenService refreshTokenService;
 
     public JwtAuthenticationController(AuthenticationManager authenticationManager,
                                        JwtTokenUtil jwtTokenUtil,
-                                       UserDetailsService userDetailsService) {
+                                       PasswordHashingPool passwordHashingPool,
+                                       RefreshTokenService refreshTokenService) {
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
         this.jwtTokenUtil = jwtTokenUtil;
+        this.passwordHashingPool = passwordHashingPool;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @PostMapping(value = "/authenticate", produces = MediaType.APPLICATION_JSON, consumes = MediaType.APPLICATION_JSON)
-    public ResponseEntity<?> createAuthenticationToken(@RequestBody JwtRequest authenticationRequest) throws Exception {
+    public CompletableFuture<ResponseEntity<?>> createAuthenticationToken(@RequestBody JwtRequest authenticationRequest) {
 
         if(Optional.ofNullable(authenticationRequest.getUsername()).isEmpty() ||
                 Optional.ofNullable(authenticationRequest.getUsername().isEmpty()).isEmpty() ) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Credencial inválida."));
+        }
+
+        return passwordHashingPool.submit(() -> {
+            Authentication authentication;
+            try {
+                authentication = authenticate(authenticationRequest.getUsername(), authenticationRequest.getPassword());
+
+            } catch (BadCredentialsException e) {
+                return ResponseEntity.badRequest().body("Credencial inválida.");
+            }
+
+            final LoggedUser loggedUser = (LoggedUser) authentication.getPrincipal();
+            final String token = jwtTokenUtil.generateToken(loggedUser);
+            final String refreshToken = refreshTokenService.createRefreshToken(loggedUser.getStore(),
+                    loggedUser.getUsername());
+            return ResponseEntity.ok(new JwtResponse(token, refreshToken));
+        });
+    }
+
+    @PostMapping(value = "/authenticate/refresh", produces = MediaType.APPLICATION_JSON, consumes = MediaType.APPLICATION_JSON)
+    public ResponseEntity<?> refreshAuthenticationToken(@RequestBody RefreshRequest refreshRequest) {
+
+        if(Optional.ofNullable(refreshRequest.getRefreshToken()).isEmpty() ||
+                refreshRequest.getRefreshToken().isBlank()) {
             return ResponseEntity.badRequest().body("Credencial inválida.");
         }
 
         try {
-            authenticate(authenticationRequest.getUsername(), authenticationRequest.getPassword());
+            return ResponseEntity.ok(refreshTokenService.refresh(refreshRequest.getRefreshToken()));
 
         } catch (BadCredentialsException e) {
-            return ResponseEntity.badRequest().body("Credencial inválida.");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Token inválido.");
         }
-
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(authenticationRequest.getUsername());
-        final String token = jwtTokenUtil.generateToken(userDetails);
-        return ResponseEntity.ok(new JwtResponse(token));
     }
 
-    private void authenticate(String username, String password) throws Exception {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+    private Authentication authenticate(String username, String password) {
+        return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(username, password));
     }
 }
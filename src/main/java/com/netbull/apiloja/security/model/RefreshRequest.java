@@ -0,0 +1,17 @@
+package com.netbull.apiloja.security.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RefreshRequest implements Serializable {
+
+    private String refreshToken;
+}
@@ -0,0 +1,80 @@
+package com.netbull.apiloja.security.service;
+
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.refreshToken.RefreshToken;
+import com.netbull.apiloja.domain.store.refreshToken.RefreshTokenRepository;
+import com.netbull.apiloja.security.model.JwtResponse;
+import com.netbull.apiloja.security.utility.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Emite e renova refresh tokens. A renovação só confere a assinatura do token e o registro
+ * do jti no banco, sem passar pelo BCrypt. Cada refresh token é de uso único: ao ser usado
+ * é revogado e um novo é emitido; se um token já revogado for reapresentado, todos os tokens
+ * da loja são revogados. A revogação é um update condicional, então de duas renovações
+ * simultâneas com o mesmo token só uma passa e a outra é tratada como reuso.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private JwtTokenUtil jwtTokenUtil;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, JwtTokenUtil jwtTokenUtil) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtTokenUtil = jwtTokenUtil;
+    }
+
+    @Transactional
+    public String createRefreshToken(Store store, String username) {
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setId(UUID.randomUUID().toString());
+        refreshToken.setStore(store);
+        refreshToken.setExpiresAt(LocalDateTime.now().plusSeconds(jwtTokenUtil.getRefreshTokenValidity()));
+
+        refreshTokenRepository.save(refreshToken);
+
+        return jwtTokenUtil.generateRefreshToken(username, refreshToken.getId());
+    }
+
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public JwtResponse refresh(String token) {
+        Claims claims;
+        try {
+            claims = jwtTokenUtil.getClaimsFromRefreshToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Token inválido.");
+        }
+
+        RefreshToken refreshToken = refreshTokenRepository.findById(claims.getId())
+                .orElseThrow(() -> new BadCredentialsException("Token inválido."));
+
+        if (refreshToken.isRevoked() || refreshTokenRepository.revokeToken(refreshToken.getId()) == 0) {
+            int revoked = refreshTokenRepository.revokeTokensByStore(refreshToken.getStore());
+            log.warn("Refresh token reutilizado, {} tokens revogados.", revoked);
+            throw new BadCredentialsException("Token inválido.");
+        }
+
+        return new JwtResponse(jwtTokenUtil.generateToken(claims.getSubject()),
+                createRefreshToken(refreshToken.getStore(), claims.getSubject()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.cleanup-interval}")
+    public void deleteExpiredTokens() {
+        int deleted = refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Refresh tokens expirados removidos: {}", deleted);
+        }
+    }
+}
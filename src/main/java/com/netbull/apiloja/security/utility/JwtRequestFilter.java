@@ -1,5 +1,7 @@
 package com.netbull.apiloja.security.utility;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,6 +29,9 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${jwt.string.start}")
     private String START_TOKEN;
 
@@ -43,15 +48,24 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
             try {
                 username = jwtTokenUtil.getUsernameFromToken(jwtToken);
+            } catch (ExpiredJwtException e) {
+                count("expired");
+                response.setStatus(401);
+                response.getWriter().print("Token inválido.");
+                return;
             } catch (Exception e) {
+                count("invalid");
                 response.setStatus(401);
                 response.getWriter().print("Token inválido.");
                 return;
             }
         } else if(requestTokenHeader != null) {
+            count("malformed_header");
             response.setStatus(401);
             response.getWriter().print("Token inválido.");
             return;
+        } else {
+            count("absent");
         }
 
 
@@ -65,8 +79,15 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                 usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                count("valid");
+            } else {
+                count("rejected");
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    private void count(String outcome) {
+        meterRegistry.counter("security.jwt.validations", "outcome", outcome).increment();
+    }
 }
@@ -2,6 +2,7 @@ package com.netbull.apiloja.security.utility;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,15 +17,52 @@ import java.util.function.Function;
 @Component
 public class JwtTokenUtil implements Serializable {
 
+    private static final String TOKEN_TYPE = "typ";
+
+    private static final String REFRESH_TOKEN = "refresh";
+
     @Value("${jwt.time}")
     private long JWT_TOKEN_VALIDITY;
 
+    @Value("${jwt.refresh.time}")
+    private long JWT_REFRESH_TOKEN_VALIDITY;
+
     @Value("${jwt.secret}")
     private String secret;
 
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails.getUsername());
+    }
+
+    public String generateToken(String username) {
+        Map<String, Object> claims = new HashMap<>();
+        return doGenerateToken(claims, username, JWT_TOKEN_VALIDITY);
+    }
+
+    /**
+     * Gera um refresh token para o usuário, identificado pelo jti informado.
+     */
+    public String generateRefreshToken(String username, String id) {
         Map<String, Object> claims = new HashMap<>();
-        return doGenerateToken(claims, userDetails.getUsername());
+        claims.put(TOKEN_TYPE, REFRESH_TOKEN);
+        claims.put(Claims.ID, id);
+        return doGenerateToken(claims, username, JWT_REFRESH_TOKEN_VALIDITY);
+    }
+
+    public long getRefreshTokenValidity() {
+        return JWT_REFRESH_TOKEN_VALIDITY;
+    }
+
+    /**
+     * Valida a assinatura e a expiração do refresh token e devolve suas claims. Lança
+     * {@link io.jsonwebtoken.JwtException} se o token for inválido ou não for de renovação.
+     */
+    public Claims getClaimsFromRefreshToken(String token) {
+        final Claims claims = getAllClaimsFromToken(token);
+        if (!REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE))) {
+            throw new MalformedJwtException("O token não é um refresh token.");
+        }
+        return claims;
     }
 
     public String getUsernameFromToken(String token) {
@@ -46,7 +84,7 @@ public class JwtTokenUtil implements Serializable {
 
     public Boolean validateToken(String token, UserDetails userDetails) {
         final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token) && !isRefreshToken(token));
     }
 
     private Boolean isTokenExpired(String token) {
@@ -54,12 +92,16 @@ public class JwtTokenUtil implements Serializable {
         return expiration.before(new Date());
     }
 
-    private String doGenerateToken(Map<String, Object> claims, String subject) {
+    private Boolean isRefreshToken(String token) {
+        return REFRESH_TOKEN.equals(getClaimFromToken(token, claims -> claims.get(TOKEN_TYPE)));
+    }
+
+    private String doGenerateToken(Map<String, Object> claims, String subject, long validity) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + JWT_TOKEN_VALIDITY * 1000))
+                .setExpiration(new Date(System.currentTimeMillis() + validity * 1000))
                 .signWith(SignatureAlgorithm.HS512, secret)
                 .compact();
     }
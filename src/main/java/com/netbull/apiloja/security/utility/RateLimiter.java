@@ -0,0 +1,119 @@
+package com.netbull.apiloja.security.utility;
+
+import com.netbull.apiloja.security.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Guarda os token buckets por rota e chave (loja ou IP). O mapa é limitado por
+ * {@code rate-limit.max-keys}; buckets sem uso são descartados periodicamente. Quando o
+ * mapa está cheio, a chave nova descarta os buckets usados há mais tempo, para que quem
+ * espalha chaves não consiga fazer os clientes novos dividirem um mesmo limite.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    /**
+     * Fração do limite descartada de uma vez quando o mapa enche, para não varrer o mapa
+     * inteiro a cada chave nova.
+     */
+    private static final int LRU_EVICTION_DIVISOR = 100;
+
+    private final RateLimitProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final Counter evicted;
+
+    private final Counter evictedLeastRecentlyUsed;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.evicted = Counter.builder("rate.limit.buckets.evicted").register(meterRegistry);
+        this.evictedLeastRecentlyUsed = Counter.builder("rate.limit.buckets.evicted.lru").register(meterRegistry);
+        meterRegistry.gauge("rate.limit.buckets", buckets, Map::size);
+    }
+
+    /**
+     * @return 0 se a requisição pode seguir, senão o tempo em nanossegundos até a próxima vaga.
+     */
+    public long acquire(RateLimitProperties.Route route, String key) {
+        long now = System.nanoTime();
+        String bucketKey = route.getName() + ":" + key;
+
+        TokenBucket bucket = buckets.get(bucketKey);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxKeys()) {
+                evictLeastRecentlyUsed();
+            }
+            bucket = buckets.computeIfAbsent(bucketKey,
+                    ignored -> new TokenBucket(route.getCapacity(), route.getRefillPerSecond(), now));
+        }
+
+        long wait = bucket.tryConsume(now);
+
+        meterRegistry.counter("rate.limit.requests",
+                "route", route.getName(), "outcome", wait == 0 ? "allowed" : "rejected").increment();
+
+        return wait;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval}")
+    public void evictIdleBuckets() {
+        long idleSince = System.nanoTime() - properties.getIdleTimeout().toNanos();
+        int before = buckets.size();
+
+        buckets.values().removeIf(bucket -> bucket.getLastAccess() - idleSince < 0);
+
+        int removed = before - buckets.size();
+        if (removed > 0) {
+            evicted.increment(removed);
+            log.debug("Buckets de limite de requisição descartados: {}", removed);
+        }
+    }
+
+    /**
+     * Descarta os buckets acessados há mais tempo: o que falta para abrir uma vaga ou 1% do
+     * limite, o que for maior. Só uma thread varre o mapa por vez; as outras seguem sem esperar
+     * e o mapa pode passar do limite por alguns buckets até a varredura terminar.
+     */
+    private void evictLeastRecentlyUsed() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+
+        try {
+            int maxKeys = properties.getMaxKeys();
+            int excess = buckets.size() - maxKeys + 1;
+            if (excess <= 0) {
+                return;
+            }
+
+            long removed = buckets.entrySet().stream()
+                    .map(entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().getLastAccess()))
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(Math.max(excess, maxKeys / LRU_EVICTION_DIVISOR))
+                    .filter(entry -> buckets.remove(entry.getKey()) != null)
+                    .count();
+
+            evictedLeastRecentlyUsed.increment(removed);
+            log.debug("Buckets de limite de requisição descartados com o mapa cheio: {}", removed);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
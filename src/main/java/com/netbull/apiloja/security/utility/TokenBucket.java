@@ -0,0 +1,63 @@
+package com.netbull.apiloja.security.utility;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket sem lock: o estado (tokens disponíveis e instante da última reposição) é
+ * trocado por inteiro com compareAndSet.
+ */
+class TokenBucket {
+
+    private static final class State {
+
+        private final double tokens;
+
+        private final long refilledAt;
+
+        private State(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    private final long capacity;
+
+    private final double tokensPerNano;
+
+    private final AtomicReference<State> state;
+
+    private volatile long lastAccess;
+
+    TokenBucket(long capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, now));
+        this.lastAccess = now;
+    }
+
+    /**
+     * Consome um token.
+     *
+     * @return 0 se o token foi consumido, senão o tempo em nanossegundos até haver um token.
+     */
+    long tryConsume(long now) {
+        lastAccess = now;
+        while (true) {
+            State current = state.get();
+            double available = Math.min(capacity,
+                    current.tokens + Math.max(0, now - current.refilledAt) * tokensPerNano);
+
+            if (available < 1) {
+                return (long) Math.ceil((1 - available) / tokensPerNano);
+            }
+
+            if (state.compareAndSet(current, new State(available - 1, Math.max(now, current.refilledAt)))) {
+                return 0;
+            }
+        }
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+}
@@ -8,7 +8,10 @@ import com.netbull.apiloja.domain.order.client.Client;
 import com.netbull.apiloja.domain.order.product.ProductOrder;
 import com.netbull.apiloja.domain.product.Product;
 import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.change.ProductChangeType;
 import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.utility.CatalogVersion;
+import com.netbull.apiloja.utility.RetryOnOptimisticLock;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.data.domain.Page;
@@ -20,6 +23,10 @@ import javax.ws.rs.NotFoundException;
 import java.math.BigInteger;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -33,14 +40,22 @@ public class OrderService {
 
     private RabbitTemplate rabbitTemplate;
 
+    private CatalogVersion catalogVersion;
+
+    private ProductChangeLog productChangeLog;
+
     public OrderService(OrderRepository orderRepository, StoreService storeService,
-                        ProductRepository productRepository, RabbitTemplate rabbitTemplate) {
+                        ProductRepository productRepository, RabbitTemplate rabbitTemplate,
+                        CatalogVersion catalogVersion, ProductChangeLog productChangeLog) {
         this.orderRepository = orderRepository;
         this.storeService = storeService;
         this.productRepository = productRepository;
         this.rabbitTemplate = rabbitTemplate;
+        this.catalogVersion = catalogVersion;
+        this.productChangeLog = productChangeLog;
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public void persistOrder(Order order) {
         Store store = storeService.getStoreByID(order.getStore().getId());
@@ -53,22 +68,30 @@ public class OrderService {
 
         order.getProducts().forEach(productOrder -> productOrder.setOrder(order));
 
+        Map<String, Product> products = productRepository.findProductsByStoreAndCodeIn(store,
+                        order.getProducts().stream().map(ProductOrder::getCode).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Product::getCode, Function.identity()));
+
         for(ProductOrder productOrder : order.getProducts()) {
-            Product product = productRepository
-                    .findProductsByStoreAndCode(store, productOrder.getCode()).get();
+            Product product = Optional.ofNullable(products.get(productOrder.getCode())).orElseThrow(
+                    () -> new NotFoundException("Nenhum produto foi encontrado com o código: " +
+                            productOrder.getCode() + "."));
 
             product.setQuantity(product.getQuantity().subtract(
                     productOrder.getQuantity()
             ));
-            productRepository.save(product);
         }
+        productRepository.saveAll(products.values());
         orderRepository.save(order);
+        productChangeLog.record(store.getId(), ProductChangeType.UPDATED, products.values());
+        catalogVersion.bump(store.getId());
     }
 
     @Transactional
     public void setOrderStateToDispatched(BigInteger id, String userEmail, OrderState orderState) {
 
-        Order order = orderRepository.findById(id).orElseThrow(
+        Order order = orderRepository.findDetailedById(id).orElseThrow(
                 () -> new NotFoundException("Nenhum pedido foi encontrado com o id: " + id + "."));
 
         if(order.getState().equals(OrderState.ENTREGUE)) {
@@ -93,6 +116,20 @@ public class OrderService {
         this.rabbitTemplate.convertAndSend("order-client", "order.client.updated.dispatched", order);
     }
 
+    @Transactional
+    public void updateDeliveredOrder(Order deliveredOrder) {
+        Order order = orderRepository.findById(deliveredOrder.getId()).orElseThrow(
+                () -> new NotFoundException("Nenhum pedido foi encontrado com o id: " + deliveredOrder.getId() + "."));
+
+        order.setState(deliveredOrder.getState());
+        order.setOrderDelivered(deliveredOrder.getOrderDelivered());
+
+        if (orderRepository.save(order) != null) {
+            log.info("Pedido alterado: {}", order.getState());
+        }
+    }
+
+    @Transactional(readOnly = true)
     public Page<Order> getOrdersPageByStore(Pageable pageable, String userEmail) {
         Store store = storeService.getStoreByEmail(userEmail);
 
@@ -102,6 +139,8 @@ public class OrderService {
             throw new NotFoundException("Nenhum pedido foi encontrado.");
         }
 
+        orderRepository.fetchProducts(ordersPage.getContent());
+
         return ordersPage;
     }
 }
@@ -0,0 +1,269 @@
+package com.netbull.apiloja.service;
+
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.change.*;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.core.Response;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Feed de alterações do catálogo. As alterações são gravadas na mesma transação da escrita
+ * do produto, com uma sequência por loja, e lidas a partir do último cursor do cliente.
+ *
+ * <p>Para a sequência seguir a ordem de commit, a linha da sequência da loja é bloqueada, mas
+ * só no beforeCommit: durante a transação as alterações ficam guardadas e, no fim, o flush
+ * grava os produtos, a sequência é bloqueada e as alterações são inseridas. As escritas da
+ * mesma loja se enfileiram apenas nesse trecho final (os inserts do feed e o commit), não
+ * durante a transação inteira, e como os produtos já foram gravados antes do bloqueio quem
+ * espera pela sequência não segura nada que a transação da frente ainda precise.</p>
+ *
+ * <p>As sequências são abertas no cadastro da loja; as lojas anteriores ao feed ganham a sua
+ * na subida da aplicação, antes de o servidor aceitar requisições.</p>
+ *
+ * <p>A compactação remove, depois do período de retenção, as alterações substituídas por
+ * outra mais nova do mesmo produto e as exclusões antigas. Clientes com cursor anterior à
+ * última exclusão descartada recebem 410 e precisam sincronizar o catálogo completo.</p>
+ */
+@Service
+@Slf4j
+public class ProductChangeLog implements SmartInitializingSingleton {
+
+    private ProductChangeRepository productChangeRepository;
+
+    private ProductChangeSequenceRepository productChangeSequenceRepository;
+
+    private ProductRepository productRepository;
+
+    private StoreRepository storeRepository;
+
+    private EntityManager entityManager;
+
+    @Value("${product.changes.retention-days}")
+    private int retentionDays;
+
+    @Value("${product.changes.max-page-size}")
+    private int maxPageSize;
+
+    @Value("${product.changes.compaction-chunk-size}")
+    private int compactionChunkSize;
+
+    public ProductChangeLog(ProductChangeRepository productChangeRepository,
+                            ProductChangeSequenceRepository productChangeSequenceRepository,
+                            ProductRepository productRepository, StoreRepository storeRepository,
+                            EntityManager entityManager) {
+        this.productChangeRepository = productChangeRepository;
+        this.productChangeSequenceRepository = productChangeSequenceRepository;
+        this.productRepository = productRepository;
+        this.storeRepository = storeRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int opened = productChangeSequenceRepository.openMissingSequences();
+        if (opened > 0) {
+            log.info("Feed de alterações aberto para {} lojas sem sequência.", opened);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(BigInteger storeId, ProductChangeType type, Product product) {
+        record(storeId, type, List.of(product));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(BigInteger storeId, ProductChangeType type, Collection<Product> products) {
+        Map<BigInteger, String> codes = new LinkedHashMap<>();
+        products.forEach(product -> codes.put(product.getId(), product.getCode()));
+        recordAll(storeId, type, codes);
+    }
+
+    /**
+     * Registra alterações de produtos que não foram carregados como entidade, como nos updates em lote.
+     * A sequência só é atribuída no beforeCommit da transação.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(BigInteger storeId, ProductChangeType type, Map<BigInteger, String> codesByProductId) {
+        if (codesByProductId.isEmpty()) {
+            return;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductChange> changes = pending.changesByStore.computeIfAbsent(storeId, id -> new ArrayList<>());
+
+        for (Map.Entry<BigInteger, String> product : codesByProductId.entrySet()) {
+            ProductChange change = new ProductChange();
+            change.setStoreId(storeId);
+            change.setProductId(product.getKey());
+            change.setCode(product.getValue());
+            change.setType(type);
+            change.setChangedAt(now);
+            changes.add(change);
+        }
+    }
+
+    @Transactional
+    public void openFeed(BigInteger storeId) {
+        productChangeSequenceRepository.save(new ProductChangeSequence(storeId));
+    }
+
+    @Transactional
+    public void deleteFeed(BigInteger storeId) {
+        productChangeRepository.deleteChangesByStoreId(storeId);
+        if (productChangeSequenceRepository.existsById(storeId)) {
+            productChangeSequenceRepository.deleteById(storeId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ProductChangePage getChanges(BigInteger storeId, long since, int limit) {
+        Optional<ProductChangeSequence> sequence = productChangeSequenceRepository.findById(storeId);
+
+        if (sequence.isEmpty()) {
+            if (!storeRepository.existsById(storeId)) {
+                throw new NotFoundException("Loja não encontrada.");
+            }
+            return new ProductChangePage(List.of(), since, false);
+        }
+
+        if (since < sequence.get().getCompactedThrough()) {
+            throw new ClientErrorException("O cursor é anterior à compactação do feed, " +
+                    "sincronize o catálogo completo.", Response.Status.GONE);
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        List<ProductChange> changes = productChangeRepository.findByStoreIdAndSequenceGreaterThanOrderBySequence(
+                storeId, since, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence();
+
+        // Só a alteração mais nova de cada produto da página importa, o produto vem com o estado atual
+        Map<BigInteger, ProductChange> latest = new LinkedHashMap<>();
+        for (ProductChange change : changes) {
+            latest.remove(change.getProductId());
+            latest.put(change.getProductId(), change);
+        }
+
+        Map<BigInteger, Product> products = new HashMap<>();
+        List<BigInteger> productIds = latest.values().stream()
+                .filter(change -> change.getType() != ProductChangeType.DELETED)
+                .map(ProductChange::getProductId)
+                .collect(Collectors.toList());
+        if (!productIds.isEmpty()) {
+            productRepository.findAllById(productIds)
+                    .forEach(product -> products.put(product.getId(), product));
+        }
+
+        List<ProductChangeEntry> entries = latest.values().stream()
+                .map(change -> new ProductChangeEntry(change.getSequence(), change.getType(),
+                        change.getProductId(), change.getCode(), products.get(change.getProductId())))
+                .collect(Collectors.toList());
+
+        return new ProductChangePage(entries, next, hasMore);
+    }
+
+    @Scheduled(fixedDelayString = "${product.changes.compaction-interval}")
+    public void compact() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+
+        long superseded = 0;
+        List<BigInteger> ids = productChangeRepository.findSupersededChangeIds(before,
+                PageRequest.of(0, compactionChunkSize));
+        while (!ids.isEmpty()) {
+            superseded += productChangeRepository.deleteChangesByIdIn(ids);
+            ids = productChangeRepository.findSupersededChangeIds(before, PageRequest.of(0, compactionChunkSize));
+        }
+
+        long tombstones = 0;
+        for (Object[] row : productChangeRepository.findLastSequenceByStore(ProductChangeType.DELETED, before)) {
+            BigInteger storeId = (BigInteger) row[0];
+            long sequence = ((Number) row[1]).longValue();
+
+            productChangeSequenceRepository.advanceCompactedThrough(storeId, sequence);
+            tombstones += productChangeRepository.deleteChangesThrough(storeId, ProductChangeType.DELETED, sequence);
+        }
+
+        if (superseded > 0 || tombstones > 0) {
+            log.info("Feed de alterações compactado: {} substituídas e {} exclusões removidas.",
+                    superseded, tombstones);
+        }
+    }
+
+    /**
+     * Alterações da transação corrente, por loja em ordem de id para que transações com mais de
+     * uma loja bloqueiem as sequências sempre na mesma ordem.
+     */
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final Map<BigInteger, List<ProductChange>> changesByStore = new TreeMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            flushProducts();
+
+            changesByStore.forEach((storeId, changes) -> {
+                ProductChangeSequence sequence = productChangeSequenceRepository.findForUpdate(storeId)
+                        .orElseThrow(() -> new IllegalStateException(
+                                "Feed de alterações da loja " + storeId + " não foi aberto."));
+
+                for (ProductChange change : changes) {
+                    sequence.setLastSequence(sequence.getLastSequence() + 1);
+                    change.setSequence(sequence.getLastSequence());
+                }
+
+                productChangeRepository.saveAll(changes);
+            });
+        }
+
+        /**
+         * O flush chamado direto no EntityManager não passa pelo proxy dos repositórios, então o
+         * conflito de versão sairia como exceção do JPA; traduzida, o {@code @RetryOnOptimisticLock}
+         * repete a transação e o cliente recebe 409.
+         */
+        private void flushProducts() {
+            try {
+                entityManager.flush();
+            } catch (RuntimeException e) {
+                DataAccessException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+                throw translated != null ? translated : e;
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ProductChangeLog.this);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.netbull.apiloja.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductExportFormat;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.store.Store;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta o catálogo de uma loja direto no stream da resposta. Os produtos são lidos por um
+ * cursor e desanexados da sessão depois de escritos, então a memória não cresce com o catálogo.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+
+    private static final String CSV_HEADER = "id,code,name,description,price,quantity,version";
+
+    private ProductRepository productRepository;
+
+    private EntityManager entityManager;
+
+    private ObjectWriter productWriter;
+
+    private ObjectMapper objectMapper;
+
+    @Value("${product.export.flush-rows}")
+    private int flushRows;
+
+    public ProductExportService(ProductRepository productRepository, EntityManager entityManager,
+                                ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.productWriter = objectMapper.writerFor(Product.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportProducts(Store store, ProductExportFormat format, OutputStream out) throws IOException {
+        long rows;
+
+        try (Stream<Product> products = productRepository.streamProductsByStore(store)) {
+            Iterator<Product> iterator = products.iterator();
+
+            if (format == ProductExportFormat.CSV) {
+                rows = writeCsv(iterator, out);
+            } else {
+                rows = writeNdjson(iterator, out);
+            }
+        }
+
+        log.info("Catálogo da loja {} exportado em {}: {} produtos.", store.getId(), format, rows);
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<Product> products, OutputStream out) throws IOException {
+        long rows = 0;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+
+            while (products.hasNext()) {
+                Product product = products.next();
+                productWriter.writeValue(generator, product);
+                entityManager.detach(product);
+
+                if (++rows % flushRows == 0) {
+                    generator.flush();
+                }
+            }
+            if (rows > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(Iterator<Product> products, OutputStream out) throws IOException {
+        long rows = 0;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        while (products.hasNext()) {
+            Product product = products.next();
+            writer.write(String.valueOf(product.getId()));
+            writer.write(',');
+            writer.write(csv(product.getCode()));
+            writer.write(',');
+            writer.write(csv(product.getName()));
+            writer.write(',');
+            writer.write(csv(product.getDescription()));
+            writer.write(',');
+            writer.write(product.getPrice() != null ? product.getPrice().toPlainString() : "");
+            writer.write(',');
+            writer.write(product.getQuantity() != null ? product.getQuantity().toString() : "");
+            writer.write(',');
+            writer.write(product.getVersion() != null ? product.getVersion().toString() : "");
+            writer.write('\n');
+            entityManager.detach(product);
+
+            if (++rows % flushRows == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
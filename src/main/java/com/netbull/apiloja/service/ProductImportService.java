@@ -0,0 +1,207 @@
+package com.netbull.apiloja.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductExportFormat;
+import com.netbull.apiloja.domain.product.ProductImportReport;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.utility.CsvReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.ws.rs.NotFoundException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de catálogo em lote a partir de NDJSON ou CSV. A entrada é lida linha a linha,
+ * cada produto é validado com o {@link Validator} e os códigos são conferidos contra os já
+ * cadastrados na loja, carregados uma vez. Os válidos são gravados em blocos pelo
+ * {@link ProductService#persistImportedProducts}, cada bloco na sua transação.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private static final List<String> CSV_REQUIRED_COLUMNS = List.of("code", "name", "price", "quantity");
+
+    private ProductService productService;
+
+    private ProductRepository productRepository;
+
+    private StoreRepository storeRepository;
+
+    private Validator validator;
+
+    private ObjectReader productReader;
+
+    @Value("${product.import.chunk-size}")
+    private int chunkSize;
+
+    @Value("${product.import.max-rows}")
+    private long maxRows;
+
+    @Value("${product.import.max-reported-errors}")
+    private int maxReportedErrors;
+
+    public ProductImportService(ProductService productService, ProductRepository productRepository,
+                                StoreRepository storeRepository, Validator validator, ObjectMapper objectMapper) {
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.storeRepository = storeRepository;
+        this.validator = validator;
+        this.productReader = objectMapper.readerFor(Product.class);
+    }
+
+    public ProductImportReport importProducts(String userEmail, ProductExportFormat format, InputStream in)
+            throws IOException {
+
+        Store store = storeRepository.findByEmail(userEmail).orElseThrow(
+                () -> new NotFoundException("Loja não encontrada."));
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        RowParser parser = format == ProductExportFormat.CSV ? csvParser(reader) : ndjsonParser(reader);
+
+        Set<String> codes = new HashSet<>(productRepository.findCodesByStore(store));
+        ProductImportReport report = new ProductImportReport(maxReportedErrors);
+        List<Product> chunk = new ArrayList<>(chunkSize);
+
+        while (true) {
+            Product product;
+            try {
+                product = parser.next();
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                report.addRow();
+                report.addError(null, List.of("Linha inválida."));
+                continue;
+            }
+            if (product == null) {
+                break;
+            }
+
+            report.addRow();
+            if (report.getRows() > maxRows) {
+                report.addError(null, List.of("Limite de " + maxRows + " linhas por importação atingido."));
+                break;
+            }
+
+            product.setStore(store);
+
+            Set<ConstraintViolation<Product>> violations = validator.validate(product);
+            if (!violations.isEmpty()) {
+                report.addError(product.getCode(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.toList()));
+                continue;
+            }
+
+            if (!codes.add(product.getCode())) {
+                report.addError(product.getCode(), List.of("Já existe um produto com o mesmo código."));
+                continue;
+            }
+
+            chunk.add(product);
+            if (chunk.size() == chunkSize) {
+                persistChunk(store, chunk, report);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            persistChunk(store, chunk, report);
+        }
+
+        log.info("Importação da loja {}: {} linhas, {} produtos criados, {} com erro.",
+                store.getId(), report.getRows(), report.getCreated(), report.getFailed());
+        return report;
+    }
+
+    private void persistChunk(Store store, List<Product> chunk, ProductImportReport report) {
+        productService.persistImportedProducts(store, chunk);
+        report.addCreated(chunk.size());
+    }
+
+    private RowParser ndjsonParser(BufferedReader reader) {
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            return productReader.readValue(line);
+        };
+    }
+
+    private RowParser csvParser(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("O arquivo está vazio.");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+        for (String column : CSV_REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("O cabeçalho do CSV não tem a coluna: " + column + ".");
+            }
+        }
+
+        return () -> {
+            List<String> record;
+            do {
+                record = csv.readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+
+            Product product = new Product();
+            product.setCode(field(record, columns, "code"));
+            product.setName(field(record, columns, "name"));
+            product.setDescription(field(record, columns, "description"));
+
+            String price = field(record, columns, "price");
+            product.setPrice(price != null ? new BigDecimal(price) : null);
+
+            String quantity = field(record, columns, "quantity");
+            product.setQuantity(quantity != null ? new BigInteger(quantity) : null);
+
+            return product;
+        };
+    }
+
+    private String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isBlank()) {
+            return null;
+        }
+        return record.get(index).trim();
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        Product next() throws IOException;
+    }
+}
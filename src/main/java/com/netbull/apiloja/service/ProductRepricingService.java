@@ -0,0 +1,247 @@
+package com.netbull.apiloja.service;
+
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.change.ProductChangeType;
+import com.netbull.apiloja.domain.product.price.*;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.utility.AfterCommit;
+import com.netbull.apiloja.utility.CatalogVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.transaction.Transactional;
+import javax.ws.rs.NotFoundException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reajuste de preços em lote. Os preços atuais são lidos e gravados em blocos, com um select e
+ * um único update por bloco, e cada bloco gera um product.price.updated só com os preços
+ * alterados. O reajuste inteiro roda em uma transação e os eventos só são publicados depois
+ * do commit.
+ *
+ * <p>Cada bloco é lido com {@code select ... for update} e o novo preço é calculado a partir do
+ * valor bloqueado, então uma alteração de preço concorrente ou espera o reajuste terminar (e
+ * falha na versão, sendo repetida) ou já está gravada quando o bloco é lido; nunca é sobrescrita.
+ * Os produtos são bloqueados em ordem de id, nos dois modos, para que dois reajustes da mesma
+ * loja bloqueiem as linhas na mesma ordem e um espere o outro em vez de travarem.</p>
+ */
+@Service
+@Slf4j
+public class ProductRepricingService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private ProductRepository productRepository;
+
+    private StoreRepository storeRepository;
+
+    private EntityManager entityManager;
+
+    private RabbitTemplate rabbitTemplate;
+
+    private CatalogVersion catalogVersion;
+
+    private ProductChangeLog productChangeLog;
+
+    @Value("${product.price-update.chunk-size}")
+    private int chunkSize;
+
+    @Value("${product.price-update.max-items}")
+    private int maxItems;
+
+    public ProductRepricingService(ProductRepository productRepository, StoreRepository storeRepository,
+                                   EntityManager entityManager, RabbitTemplate rabbitTemplate,
+                                   CatalogVersion catalogVersion, ProductChangeLog productChangeLog) {
+        this.productRepository = productRepository;
+        this.storeRepository = storeRepository;
+        this.entityManager = entityManager;
+        this.rabbitTemplate = rabbitTemplate;
+        this.catalogVersion = catalogVersion;
+        this.productChangeLog = productChangeLog;
+    }
+
+    @Transactional
+    public ProductPriceUpdateReport updatePrices(String userEmail, ProductPriceUpdate update) {
+        Optional.ofNullable(update).orElseThrow(
+                () -> new IllegalArgumentException("Nenhum preço foi informado."));
+
+        Store store = storeRepository.findByEmail(userEmail).orElseThrow(
+                () -> new NotFoundException("Loja não encontrada."));
+
+        List<ProductPriceUpdateItem> items = Optional.ofNullable(update.getItems()).orElse(List.of());
+        List<String> notFound = new ArrayList<>();
+        List<ProductPriceChanged> events = new ArrayList<>();
+        long updated = 0;
+
+        if (items.isEmpty()) {
+            BigDecimal percentage = Optional.ofNullable(update.getPercentage()).orElseThrow(
+                    () -> new IllegalArgumentException("Nenhum preço foi informado."));
+            validatePercentage(percentage);
+
+            List<ProductPrice> prices = productRepository.findPricesByStoreAfterForUpdate(store, BigInteger.ZERO,
+                    PageRequest.of(0, chunkSize));
+            while (!prices.isEmpty()) {
+                updated += apply(store, prices, events, price -> applyPercentage(price.getPrice(), percentage));
+                BigInteger after = prices.get(prices.size() - 1).getId();
+                prices = productRepository.findPricesByStoreAfterForUpdate(store, after, PageRequest.of(0, chunkSize));
+            }
+        } else {
+            if (items.size() > maxItems) {
+                throw new IllegalArgumentException("O reajuste pode ter no máximo " + maxItems + " produtos.");
+            }
+
+            Map<BigInteger, ProductPriceUpdateItem> byId = new LinkedHashMap<>();
+            Map<String, ProductPriceUpdateItem> byCode = new LinkedHashMap<>();
+            for (ProductPriceUpdateItem item : items) {
+                validateItem(item);
+                if (item.getId() != null) {
+                    byId.put(item.getId(), item);
+                } else {
+                    byCode.put(item.getCode(), item);
+                }
+            }
+
+            // Resolve os códigos antes de bloquear, para bloquear e gravar em ordem de id mesmo com itens por código
+            Map<BigInteger, ProductPriceUpdateItem> itemsByProductId = new TreeMap<>(byId);
+
+            for (List<String> codes : chunks(byCode.keySet())) {
+                List<ProductPrice> found = productRepository.findPricesByStoreAndCodeIn(store, codes);
+                found.forEach(price -> itemsByProductId.put(price.getId(), byCode.get(price.getCode())));
+                notFound.addAll(missing(codes, found, ProductPrice::getCode));
+            }
+
+            for (List<BigInteger> ids : chunks(itemsByProductId.keySet())) {
+                List<ProductPrice> prices = productRepository.findPricesByStoreAndIdInForUpdate(store, ids);
+                updated += apply(store, prices, events,
+                        price -> newPrice(itemsByProductId.get(price.getId()), price.getPrice()));
+
+                // Um produto resolvido pelo código pode ter sido excluído antes do bloqueio
+                Set<BigInteger> locked = prices.stream().map(ProductPrice::getId).collect(Collectors.toSet());
+                ids.stream()
+                        .filter(id -> !locked.contains(id))
+                        .map(id -> key(itemsByProductId.get(id)))
+                        .forEach(notFound::add);
+            }
+        }
+
+        if (updated > 0) {
+            catalogVersion.bump(store.getId());
+            AfterCommit.run(() -> events.forEach(event ->
+                    this.rabbitTemplate.convertAndSend("product", "product.price.updated", event)));
+        }
+        log.info("Reajuste de preços da loja {}: {} produtos alterados, {} não encontrados.",
+                store.getId(), updated, notFound.size());
+
+        return new ProductPriceUpdateReport(updated, notFound);
+    }
+
+    private int apply(Store store, List<ProductPrice> prices, List<ProductPriceChanged> events,
+                      Function<ProductPrice, BigDecimal> newPrice) {
+        List<ProductPriceChanged.Change> changes = new ArrayList<>(prices.size());
+        Map<BigInteger, String> codes = new LinkedHashMap<>();
+
+        for (ProductPrice price : prices) {
+            BigDecimal value = newPrice.apply(price);
+            if (price.getPrice() != null && price.getPrice().compareTo(value) == 0) {
+                continue;
+            }
+            changes.add(new ProductPriceChanged.Change(price.getId(), price.getCode(), price.getPrice(), value));
+            codes.put(price.getId(), price.getCode());
+        }
+
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        executeUpdate(changes);
+        productChangeLog.recordAll(store.getId(), ProductChangeType.UPDATED, codes);
+        events.add(new ProductPriceChanged(store.getId(), changes));
+
+        return changes.size();
+    }
+
+    /**
+     * Um update com case por id para o bloco inteiro. Os parâmetros são completados até o tamanho
+     * do bloco repetindo o último item, assim todos os blocos usam a mesma consulta.
+     */
+    private void executeUpdate(List<ProductPriceChanged.Change> changes) {
+        StringBuilder jpql = new StringBuilder("update Product p set p.version = p.version + 1, p.price = case");
+        for (int i = 0; i < chunkSize; i++) {
+            jpql.append(" when p.id = :id").append(i).append(" then :price").append(i);
+        }
+        jpql.append(" else p.price end where p.id in :ids");
+
+        Query query = entityManager.createQuery(jpql.toString());
+        List<BigInteger> ids = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+            ProductPriceChanged.Change change = changes.get(Math.min(i, changes.size() - 1));
+            query.setParameter("id" + i, change.getId());
+            query.setParameter("price" + i, change.getNewPrice());
+            ids.add(change.getId());
+        }
+        query.setParameter("ids", ids);
+        query.executeUpdate();
+    }
+
+    private String key(ProductPriceUpdateItem item) {
+        return item.getId() != null ? String.valueOf(item.getId()) : item.getCode();
+    }
+
+    private BigDecimal newPrice(ProductPriceUpdateItem item, BigDecimal current) {
+        return item.getPrice() != null ? item.getPrice() : applyPercentage(current, item.getPercentage());
+    }
+
+    private BigDecimal applyPercentage(BigDecimal price, BigDecimal percentage) {
+        return price.multiply(HUNDRED.add(percentage))
+                .divide(HUNDRED, 2, RoundingMode.HALF_EVEN);
+    }
+
+    private void validateItem(ProductPriceUpdateItem item) {
+        if (item == null || (item.getId() == null) == (item.getCode() == null)) {
+            throw new IllegalArgumentException("Informe o id ou o código de cada produto.");
+        }
+        if ((item.getPrice() == null) == (item.getPercentage() == null)) {
+            throw new IllegalArgumentException("Informe o preço ou o percentual de cada produto.");
+        }
+        if (item.getPrice() != null && BigDecimal.ZERO.compareTo(item.getPrice()) == 1) {
+            throw new IllegalArgumentException("O preço não pode ser negativo.");
+        }
+        if (item.getPercentage() != null) {
+            validatePercentage(item.getPercentage());
+        }
+    }
+
+    private void validatePercentage(BigDecimal percentage) {
+        if (HUNDRED.negate().compareTo(percentage) == 1) {
+            throw new IllegalArgumentException("O percentual não pode ser menor que -100.");
+        }
+    }
+
+    private <T> List<List<T>> chunks(Collection<T> keys) {
+        List<T> list = new ArrayList<>(keys);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += chunkSize) {
+            chunks.add(list.subList(i, Math.min(i + chunkSize, list.size())));
+        }
+        return chunks;
+    }
+
+    private <T> List<String> missing(List<T> keys, List<ProductPrice> found, Function<ProductPrice, T> key) {
+        Set<T> foundKeys = found.stream().map(key).collect(Collectors.toSet());
+        return keys.stream()
+                .filter(k -> !foundKeys.contains(k))
+                .map(String::valueOf)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,255 @@
+package com.netbull.apiloja.service;
+
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigInteger;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Índice invertido em memória dos produtos de cada loja, sobre código, nome e descrição.
+ * Os termos são normalizados sem acento e em minúsculas, e ficam ordenados para que a busca
+ * por prefixo seja um intervalo do mapa. Todos os termos da busca precisam aparecer no
+ * produto; a pontuação soma o peso do campo, a raridade do termo e um bônus para o termo exato.
+ *
+ * <p>As escritas só entram no índice depois do commit, como em {@code CatalogVersion}, e o
+ * índice é reconstruído a partir do banco quando a aplicação sobe. Como o cache de segundo
+ * nível, ele assume uma instância só.</p>
+ */
+@Service
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final float CODE_WEIGHT = 4f;
+
+    private static final float NAME_WEIGHT = 2f;
+
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float PREFIX_FACTOR = 0.5f;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private static final Set<String> STOPWORDS = Set.of("a", "o", "as", "os", "e", "de", "da", "do", "das",
+            "dos", "em", "na", "no", "nas", "nos", "um", "uma", "para", "por", "com");
+
+    private final Map<BigInteger, StoreIndex> stores = new ConcurrentHashMap<>();
+
+    private ProductRepository productRepository;
+
+    @Value("${product.search.rebuild-page-size}")
+    private int rebuildPageSize;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        stores.clear();
+
+        long indexed = 0;
+        List<Product> products = productRepository.findProductsAfter(BigInteger.ZERO,
+                PageRequest.of(0, rebuildPageSize));
+        while (!products.isEmpty()) {
+            for (Product product : products) {
+                put(product.getStore().getId(), product.getId(), product.getVersion(), product.getCode(),
+                        product.getName(), product.getDescription());
+            }
+            indexed += products.size();
+            BigInteger after = products.get(products.size() - 1).getId();
+            products = productRepository.findProductsAfter(after, PageRequest.of(0, rebuildPageSize));
+        }
+
+        log.info("Índice de busca reconstruído: {} produtos em {} ms.", indexed,
+                System.currentTimeMillis() - start);
+    }
+
+    public void index(Product product) {
+        BigInteger storeId = product.getStore().getId();
+        BigInteger id = product.getId();
+        Long version = product.getVersion();
+        String code = product.getCode();
+        String name = product.getName();
+        String description = product.getDescription();
+
+        afterCommit(() -> put(storeId, id, version, code, name, description));
+    }
+
+    public void remove(BigInteger storeId, BigInteger productId) {
+        afterCommit(() -> {
+            StoreIndex index = stores.get(storeId);
+            if (index != null) {
+                index.remove(productId);
+            }
+        });
+    }
+
+    public void removeStore(BigInteger storeId) {
+        afterCommit(() -> stores.remove(storeId));
+    }
+
+    /**
+     * Ids dos produtos da loja que contêm todos os termos da busca, do mais relevante para o menos.
+     */
+    public List<BigInteger> search(BigInteger storeId, String query, int limit) {
+        StoreIndex index = stores.get(storeId);
+        List<String> tokens = tokenize(query).stream().distinct().collect(Collectors.toList());
+
+        if (index == null || tokens.isEmpty()) {
+            return List.of();
+        }
+
+        Map<BigInteger, Float> scores = null;
+        for (String token : tokens) {
+            Map<BigInteger, Float> tokenScores = index.match(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        Comparator<Map.Entry<BigInteger, Float>> ranking = Map.Entry.<BigInteger, Float>comparingByValue()
+                .thenComparing(Map.Entry.<BigInteger, Float>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<BigInteger, Float>> top = new PriorityQueue<>(limit + 1, ranking);
+        for (Map.Entry<BigInteger, Float> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        LinkedList<BigInteger> ids = new LinkedList<>();
+        while (!top.isEmpty()) {
+            ids.addFirst(top.poll().getKey());
+        }
+        return ids;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        return Arrays.stream(SEPARATORS.split(normalized))
+                .filter(token -> !token.isEmpty() && !STOPWORDS.contains(token))
+                .collect(Collectors.toList());
+    }
+
+    private void put(BigInteger storeId, BigInteger id, Long version, String code, String name,
+                     String description) {
+        Map<String, Float> terms = new HashMap<>();
+        tokenize(code).forEach(term -> terms.merge(term, CODE_WEIGHT, Float::sum));
+        tokenize(name).forEach(term -> terms.merge(term, NAME_WEIGHT, Float::sum));
+        tokenize(description).forEach(term -> terms.merge(term, DESCRIPTION_WEIGHT, Float::sum));
+
+        stores.computeIfAbsent(storeId, key -> new StoreIndex()).put(id, version, terms);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class StoreIndex {
+
+        private final Map<BigInteger, Document> documents = new ConcurrentHashMap<>();
+
+        private final ConcurrentSkipListMap<String, Map<BigInteger, Float>> postings = new ConcurrentSkipListMap<>();
+
+        synchronized void put(BigInteger id, Long version, Map<String, Float> terms) {
+            Document old = documents.get(id);
+            if (old != null && old.version != null && version != null && old.version > version) {
+                return;
+            }
+            if (old != null) {
+                unlink(id, old);
+            }
+
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>())
+                    .put(id, weight));
+            documents.put(id, new Document(version, terms.keySet()));
+        }
+
+        synchronized void remove(BigInteger id) {
+            Document old = documents.remove(id);
+            if (old != null) {
+                unlink(id, old);
+            }
+        }
+
+        /**
+         * Pontuação de cada produto para um termo da busca. Termos que só casam pelo prefixo valem
+         * menos que o termo exato, e um produto conta só o melhor termo que casou.
+         */
+        Map<BigInteger, Float> match(String token) {
+            Map<String, Map<BigInteger, Float>> matches = token.length() < MIN_PREFIX_LENGTH
+                    ? Optional.ofNullable(postings.get(token)).map(p -> Map.of(token, p)).orElse(Map.of())
+                    : postings.subMap(token, true, token + Character.MAX_VALUE, true);
+
+            int total = Math.max(documents.size(), 1);
+            Map<BigInteger, Float> scores = new HashMap<>();
+            matches.forEach((term, products) -> {
+                float idf = (float) Math.log(1 + (double) total / Math.max(products.size(), 1));
+                float factor = term.length() == token.length() ? 1f : PREFIX_FACTOR;
+                products.forEach((id, weight) -> scores.merge(id, weight * idf * factor, Math::max));
+            });
+            return scores;
+        }
+
+        private void unlink(BigInteger id, Document document) {
+            for (String term : document.terms) {
+                postings.computeIfPresent(term, (key, products) -> {
+                    products.remove(id);
+                    return products.isEmpty() ? null : products;
+                });
+            }
+        }
+    }
+
+    private static class Document {
+
+        private final Long version;
+
+        private final Set<String> terms;
+
+        Document(Long version, Set<String> terms) {
+            this.version = version;
+            this.terms = terms;
+        }
+    }
+}
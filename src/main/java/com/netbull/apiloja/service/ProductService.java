@@ -1,13 +1,27 @@
 package com.netbull.apiloja.service;
 
 import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductBatchCreated;
+import com.netbull.apiloja.domain.product.ProductBatchGet;
+import com.netbull.apiloja.domain.product.ProductBatchGetResult;
+import com.netbull.apiloja.domain.product.ProductFacets;
+import com.netbull.apiloja.domain.product.ProductField;
+import com.netbull.apiloja.domain.product.ProductFilter;
 import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.ProductSpecifications;
+import com.netbull.apiloja.domain.product.change.ProductChangeType;
 import com.netbull.apiloja.domain.store.Store;
 import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.utility.AfterCommit;
+import com.netbull.apiloja.utility.CatalogVersion;
+import com.netbull.apiloja.utility.RetryOnOptimisticLock;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
@@ -17,8 +31,15 @@ import javax.validation.Validator;
 import javax.ws.rs.NotFoundException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -32,12 +53,31 @@ public class ProductService {
 
     private RabbitTemplate rabbitTemplate;
 
+    private CatalogVersion catalogVersion;
+
+    private ProductChangeLog productChangeLog;
+
+    private ProductSearchIndex productSearchIndex;
+
+    @Value("${product.search.max-results}")
+    private int searchMaxResults;
+
+    @Value("${product.facets.price-buckets}")
+    private BigDecimal[] priceBuckets;
+
+    @Value("${product.batch-get.max-keys}")
+    private int batchGetMaxKeys;
+
     public ProductService(ProductRepository productRepository, StoreRepository storeRepository,
-                          Validator validator, RabbitTemplate rabbitTemplate) {
+                          Validator validator, RabbitTemplate rabbitTemplate, CatalogVersion catalogVersion,
+                          ProductChangeLog productChangeLog, ProductSearchIndex productSearchIndex) {
         this.productRepository = productRepository;
         this.storeRepository = storeRepository;
         this.validator = validator;
         this.rabbitTemplate = rabbitTemplate;
+        this.catalogVersion = catalogVersion;
+        this.productChangeLog = productChangeLog;
+        this.productSearchIndex = productSearchIndex;
     }
 
     @Transactional
@@ -64,9 +104,29 @@ public class ProductService {
         if (productRepository.save(product) != null) {
             log.info("Produto criado: {}", product.getId());
         }
+        productChangeLog.record(store.getId(), ProductChangeType.CREATED, product);
+        productSearchIndex.index(product);
+        catalogVersion.bump(store.getId());
         this.rabbitTemplate.convertAndSend("product", "product.created" ,product);
     }
 
+    /**
+     * Grava um bloco da importação em lote. Os produtos já foram validados e os códigos já foram
+     * conferidos pelo {@link ProductImportService}; os inserts saem em batch pelo Hibernate e o
+     * evento do bloco só é publicado depois do commit.
+     */
+    @Transactional
+    public void persistImportedProducts(Store store, List<Product> products) {
+        productRepository.saveAll(products);
+        log.info("Produtos importados na loja {}: {}", store.getId(), products.size());
+
+        productChangeLog.record(store.getId(), ProductChangeType.CREATED, products);
+        products.forEach(productSearchIndex::index);
+        catalogVersion.bump(store.getId());
+        ProductBatchCreated event = new ProductBatchCreated(store.getId(), products);
+        AfterCommit.run(() -> this.rabbitTemplate.convertAndSend("product", "product.created.batch", event));
+    }
+
     public Product getProductById(BigInteger id, String userEmail) {
 
         Product product = productRepository.findById(id).orElseThrow(
@@ -79,12 +139,72 @@ public class ProductService {
         return product;
     }
 
-    public Page<Product> getProductsByStoreEmail(Pageable pageable, String userEmail) {
+    /**
+     * Produtos da loja logada pelos ids e códigos informados, numa consulta só. Com campos
+     * pedidos, só essas colunas são lidas; id e código são lidos sempre para achar os que faltam.
+     */
+    public ProductBatchGetResult getProductsByKeys(String userEmail, ProductBatchGet request) {
+        Optional.ofNullable(request).orElseThrow(
+                () -> new IllegalArgumentException("Informe ao menos um id ou código."));
+
+        Set<BigInteger> ids = Optional.ofNullable(request.getIds()).orElse(List.of()).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> codes = Optional.ofNullable(request.getCodes()).orElse(List.of()).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (ids.isEmpty() && codes.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um id ou código.");
+        }
+        if (ids.size() + codes.size() > batchGetMaxKeys) {
+            throw new IllegalArgumentException("Informe no máximo " + batchGetMaxKeys + " ids ou códigos.");
+        }
+
+        List<ProductField> fields = ProductField.parse(Optional.ofNullable(request.getFields()).orElse(List.of()));
+
+        Store store = storeRepository.findByEmail(userEmail).orElseThrow(
+                () -> new NotFoundException("Loja não encontrada."));
+
+        Specification<Product> specification = ProductSpecifications.byStoreAndKeys(store, ids, codes);
+        Set<BigInteger> foundIds = new HashSet<>();
+        Set<String> foundCodes = new HashSet<>();
+        List<?> products;
+
+        if (fields.isEmpty()) {
+            List<Product> entities = productRepository.findAll(specification, Sort.by("id"));
+            entities.forEach(product -> {
+                foundIds.add(product.getId());
+                foundCodes.add(product.getCode());
+            });
+            products = entities;
+        } else {
+            Set<ProductField> selected = new LinkedHashSet<>(fields);
+            selected.add(ProductField.ID);
+            selected.add(ProductField.CODE);
+
+            Set<String> requested = fields.stream().map(ProductField::getAttribute).collect(Collectors.toSet());
+            List<Map<String, Object>> rows = productRepository.findFields(specification, List.copyOf(selected));
+            rows.forEach(row -> {
+                foundIds.add((BigInteger) row.get(ProductField.ID.getAttribute()));
+                foundCodes.add((String) row.get(ProductField.CODE.getAttribute()));
+                row.keySet().retainAll(requested);
+            });
+            products = rows;
+        }
+
+        return new ProductBatchGetResult(products,
+                ids.stream().filter(id -> !foundIds.contains(id)).collect(Collectors.toList()),
+                codes.stream().filter(code -> !foundCodes.contains(code)).collect(Collectors.toList()));
+    }
+
+    public Page<Product> getProductsByStoreEmail(Pageable pageable, String userEmail, ProductFilter filter) {
+        validateFilter(filter);
 
         Store store = storeRepository.findByEmail(userEmail).orElseThrow(
                 () -> new NotFoundException("Loja não encontrada."));
 
-        Page<Product> products = productRepository.findProductsByStorePage(pageable, store);
+        Page<Product> products = productRepository.findAll(ProductSpecifications.byStore(store, filter), pageable);
 
         if(products.isEmpty()) {
             throw new NotFoundException("Nenhum produto foi encontrado.");
@@ -93,12 +213,13 @@ public class ProductService {
         return products;
     }
 
-    public Page<Product> getProductsByStoreId(Pageable pageable, BigInteger id) {
+    public Page<Product> getProductsByStoreId(Pageable pageable, BigInteger storeId, ProductFilter filter) {
+        validateFilter(filter);
 
-        Store store = storeRepository.findById(id).orElseThrow(
+        Store store = storeRepository.findById(storeId).orElseThrow(
                 () -> new NotFoundException("Loja não encontrada."));
 
-        Page<Product> products = productRepository.findProductsByStorePage(pageable, store);
+        Page<Product> products = productRepository.findAll(ProductSpecifications.byStore(store, filter), pageable);
 
         if(products.isEmpty()) {
             throw new NotFoundException("Nenhum produto foi encontrado.");
@@ -107,6 +228,95 @@ public class ProductService {
         return products;
     }
 
+    public Page<Map<String, Object>> getProductFieldsByStoreEmail(Pageable pageable, String userEmail,
+                                                                  ProductFilter filter, List<ProductField> fields) {
+        validateFilter(filter);
+
+        Store store = storeRepository.findByEmail(userEmail).orElseThrow(
+                () -> new NotFoundException("Loja não encontrada."));
+
+        return findProductFields(pageable, store, filter, fields);
+    }
+
+    public Page<Map<String, Object>> getProductFieldsByStoreId(Pageable pageable, BigInteger storeId,
+                                                               ProductFilter filter, List<ProductField> fields) {
+        validateFilter(filter);
+
+        Store store = storeRepository.findById(storeId).orElseThrow(
+                () -> new NotFoundException("Loja não encontrada."));
+
+        return findProductFields(pageable, store, filter, fields);
+    }
+
+    private Page<Map<String, Object>> findProductFields(Pageable pageable, Store store, ProductFilter filter,
+                                                        List<ProductField> fields) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um campo.");
+        }
+
+        Page<Map<String, Object>> products = productRepository.findFields(
+                ProductSpecifications.byStore(store, filter), fields, pageable);
+
+        if(products.isEmpty()) {
+            throw new NotFoundException("Nenhum produto foi encontrado.");
+        }
+
+        return products;
+    }
+
+    public ProductFacets getProductFacetsByStoreEmail(String userEmail, ProductFilter filter) {
+        validateFilter(filter);
+
+        Store store = storeRepository.findByEmail(userEmail).orElseThrow(
+                () -> new NotFoundException("Loja não encontrada."));
+
+        return productRepository.findFacets(ProductSpecifications.byStore(store, filter), List.of(priceBuckets));
+    }
+
+    public ProductFacets getProductFacetsByStoreId(BigInteger storeId, ProductFilter filter) {
+        validateFilter(filter);
+
+        Store store = storeRepository.findById(storeId).orElseThrow(
+                () -> new NotFoundException("Loja não encontrada."));
+
+        return productRepository.findFacets(ProductSpecifications.byStore(store, filter), List.of(priceBuckets));
+    }
+
+    private void validateFilter(ProductFilter filter) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("O preço mínimo não pode ser maior que o preço máximo.");
+        }
+    }
+
+    public List<Product> searchProducts(BigInteger storeId, String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Informe o termo da busca.");
+        }
+
+        if (!storeRepository.existsById(storeId)) {
+            throw new NotFoundException("Loja não encontrada.");
+        }
+
+        List<BigInteger> ids = productSearchIndex.search(storeId, query,
+                Math.max(1, Math.min(limit, searchMaxResults)));
+
+        Map<BigInteger, Product> products = new HashMap<>();
+        productRepository.findAllById(ids).forEach(product -> products.put(product.getId(), product));
+
+        List<Product> ranked = ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        if (ranked.isEmpty()) {
+            throw new NotFoundException("Nenhum produto foi encontrado.");
+        }
+
+        return ranked;
+    }
+
+    @RetryOnOptimisticLock
     @Transactional
     public void patchProductPrice(BigInteger id, String userEmail, BigDecimal price) {
         if(BigDecimal.ZERO.compareTo(price) == 1) {
@@ -128,9 +338,12 @@ public class ProductService {
         if (productRepository.save(product) != null) {
             log.info("Produto alterado: {}", product.getId());
         }
-        this.rabbitTemplate.convertAndSend("product", "product.updated" ,product);
+        productChangeLog.record(store.getId(), ProductChangeType.UPDATED, product);
+        catalogVersion.bump(store.getId());
+        AfterCommit.run(() -> this.rabbitTemplate.convertAndSend("product", "product.updated" ,product));
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public void putProduct(BigInteger id, String userEmail, Product newProduct) {
         Store store = storeRepository.findByEmail(userEmail).orElseThrow(
@@ -160,7 +373,10 @@ public class ProductService {
         if (productRepository.save(oldProduct) != null) {
             log.info("Produto alterado: {}", oldProduct.getId());
         }
-        this.rabbitTemplate.convertAndSend("product", "product.updated" , oldProduct);
+        productChangeLog.record(store.getId(), ProductChangeType.UPDATED, oldProduct);
+        productSearchIndex.index(oldProduct);
+        catalogVersion.bump(store.getId());
+        AfterCommit.run(() -> this.rabbitTemplate.convertAndSend("product", "product.updated" , oldProduct));
     }
 
     @Transactional
@@ -178,5 +394,8 @@ public class ProductService {
         this.rabbitTemplate.convertAndSend("product", "product.deleted" ,product);
         productRepository.deleteById(id);
         log.info("Produto deletado: {}", id);
+        productChangeLog.record(store.getId(), ProductChangeType.DELETED, product);
+        productSearchIndex.remove(store.getId(), id);
+        catalogVersion.bump(store.getId());
     }
 }
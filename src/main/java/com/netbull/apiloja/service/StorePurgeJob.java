@@ -0,0 +1,125 @@
+package com.netbull.apiloja.service;
+
+import com.netbull.apiloja.domain.address.addressStore.AddressStoreRepository;
+import com.netbull.apiloja.domain.product.CatalogTombstone;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.StorePurgeProgress;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.domain.store.refreshToken.RefreshTokenRepository;
+import com.netbull.apiloja.utility.CatalogVersion;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exclusão de lojas com catálogo grande. Os produtos são removidos em blocos, cada bloco
+ * na sua própria transação, e a loja só é removida depois do último bloco. O andamento das
+ * exclusões em curso fica em {@link #getProgress()} e nas métricas {@code store.purge.running}
+ * e {@code store.purge.products.remaining}.
+ */
+@Service
+@Slf4j
+public class StorePurgeJob {
+
+    private StoreRepository storeRepository;
+
+    private ProductRepository productRepository;
+
+    private AddressStoreRepository addressStoreRepository;
+
+    private RabbitTemplate rabbitTemplate;
+
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private CatalogVersion catalogVersion;
+
+    private ProductChangeLog productChangeLog;
+
+    private ProductSearchIndex productSearchIndex;
+
+    private final Map<BigInteger, StorePurgeProgress> running = new ConcurrentHashMap<>();
+
+    @Value("${store.purge.chunk-size}")
+    private int chunkSize;
+
+    public StorePurgeJob(StoreRepository storeRepository, ProductRepository productRepository,
+                         AddressStoreRepository addressStoreRepository, RabbitTemplate rabbitTemplate,
+                         RefreshTokenRepository refreshTokenRepository, CatalogVersion catalogVersion,
+                         ProductChangeLog productChangeLog, ProductSearchIndex productSearchIndex,
+                         MeterRegistry meterRegistry) {
+        this.storeRepository = storeRepository;
+        this.productRepository = productRepository;
+        this.addressStoreRepository = addressStoreRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.catalogVersion = catalogVersion;
+        this.productChangeLog = productChangeLog;
+        this.productSearchIndex = productSearchIndex;
+
+        Gauge.builder("store.purge.running", running, Map::size)
+                .description("Exclusões de loja em andamento")
+                .register(meterRegistry);
+        Gauge.builder("store.purge.products.remaining", running,
+                        purges -> purges.values().stream().mapToLong(StorePurgeProgress::getRemainingProducts).sum())
+                .description("Produtos que ainda faltam remover nas exclusões em andamento")
+                .register(meterRegistry);
+    }
+
+    public List<StorePurgeProgress> getProgress() {
+        return new ArrayList<>(running.values());
+    }
+
+    public Optional<StorePurgeProgress> getProgress(BigInteger storeId) {
+        return Optional.ofNullable(running.get(storeId));
+    }
+
+    @Async
+    public void purge(Store store, long totalProducts) {
+        StorePurgeProgress progress = new StorePurgeProgress(store.getId(), totalProducts);
+
+        if (running.putIfAbsent(store.getId(), progress) != null) {
+            log.info("Exclusão da loja {} já está em andamento.", store.getId());
+            return;
+        }
+
+        try {
+            List<BigInteger> ids = productRepository.findProductIdsByStore(store, PageRequest.of(0, chunkSize));
+
+            while (!ids.isEmpty()) {
+                long deleted = progress.addDeleted(productRepository.deleteProductsByIdIn(ids));
+                log.info("Exclusão da loja {}: {} de {} produtos removidos.", store.getId(), deleted, totalProducts);
+                catalogVersion.bump(store.getId());
+                ids = productRepository.findProductIdsByStore(store, PageRequest.of(0, chunkSize));
+            }
+
+            refreshTokenRepository.deleteTokensByStore(store);
+            productChangeLog.deleteFeed(store.getId());
+            productSearchIndex.removeStore(store.getId());
+            addressStoreRepository.deleteAddressesByStore(store);
+            storeRepository.delete(store);
+            log.info("Loja deletada: {}", store.getId());
+            catalogVersion.bump(store.getId());
+
+            this.rabbitTemplate.convertAndSend("store", "store.deleted", store);
+            this.rabbitTemplate.convertAndSend("product", "product.deleted.catalog",
+                    new CatalogTombstone(store.getId(), progress.getDeletedProducts()));
+        } catch (RuntimeException e) {
+            log.error("Falha na exclusão da loja {}.", store.getId(), e);
+        } finally {
+            running.remove(store.getId());
+        }
+    }
+}
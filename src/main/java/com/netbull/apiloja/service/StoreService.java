@@ -1,12 +1,18 @@
 package com.netbull.apiloja.service;
 
 import com.netbull.apiloja.domain.address.addressStore.AddressStoreRepository;
+import com.netbull.apiloja.domain.product.CatalogTombstone;
 import com.netbull.apiloja.domain.product.ProductRepository;
 import com.netbull.apiloja.domain.store.Store;
 import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.domain.store.refreshToken.RefreshTokenRepository;
+import com.netbull.apiloja.utility.AfterCommit;
+import com.netbull.apiloja.utility.CatalogVersion;
 import com.netbull.apiloja.utility.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -19,12 +25,19 @@ import javax.validation.Validator;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.NotFoundException;
 import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
 @Slf4j
 public class StoreService {
 
+    private static final Map<String, String> DUPLICATE_MESSAGES = Map.of(
+            Store.UK_CNPJ, "O CNPJ já está sendo utilizado",
+            Store.UK_EMAIL, "O e-mail já está sendo utilizado",
+            Store.UK_PHONE, "O telefone já está sendo utilizado");
+
     private StoreRepository storeRepository;
 
     private ProductRepository productRepository;
@@ -33,50 +46,104 @@ public class StoreService {
 
     private Validator validator;
 
-    private StringUtils stringUtils;
-
     private RabbitTemplate rabbitTemplate;
 
+    private StorePurgeJob storePurgeJob;
+
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private CatalogVersion catalogVersion;
+
+    private ProductChangeLog productChangeLog;
+
+    private ProductSearchIndex productSearchIndex;
+
+    @Value("${store.purge.chunk-size}")
+    private int purgeChunkSize;
+
     public StoreService(Validator validator, StoreRepository storeRepository,
                         ProductRepository productRepository, AddressStoreRepository addressStoreRepository,
-                        StringUtils stringUtils, RabbitTemplate rabbitTemplate) {
+                        RabbitTemplate rabbitTemplate, StorePurgeJob storePurgeJob,
+                        RefreshTokenRepository refreshTokenRepository, CatalogVersion catalogVersion,
+                        ProductChangeLog productChangeLog, ProductSearchIndex productSearchIndex) {
         this.validator = validator;
         this.storeRepository = storeRepository;
         this.productRepository = productRepository;
         this.addressStoreRepository = addressStoreRepository;
-        this.stringUtils = stringUtils;
         this.rabbitTemplate = rabbitTemplate;
+        this.storePurgeJob = storePurgeJob;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.catalogVersion = catalogVersion;
+        this.productChangeLog = productChangeLog;
+        this.productSearchIndex = productSearchIndex;
     }
 
-    @Transactional
-    public void persistStore(@NotNull(message = "Loja não pode ser nula.") Store store) {
-
+    /**
+     * Valida os campos da loja. O controller chama antes de gerar o hash da senha, para não
+     * gastar o BCrypt com um cadastro que seria recusado.
+     */
+    public void validateStore(@NotNull(message = "Loja não pode ser nula.") Store store) {
         Set<ConstraintViolation<Store>> validator = this.validator.validate(store);
 
         if(!validator.isEmpty()) {
             throw new ConstraintViolationException("Loja inválida.", validator);
         }
+    }
 
-        if(storeRepository.findByCnpj(store.getCnpj()).isPresent()) {
-            throw new DuplicateKeyException("O CNPJ já está sendo utilizado");
-        }
+    /**
+     * Grava uma loja nova. A senha já deve vir com hash ({@link StringUtils#encryptPassword}),
+     * gerado fora da transação e da thread da requisição.
+     */
+    @Transactional
+    public void persistStore(@NotNull(message = "Loja não pode ser nula.") Store store) {
+        validateStore(store);
 
-        if(storeRepository.findByEmail(store.getEmail()).isPresent()) {
-            throw new DuplicateKeyException("O e-mail já está sendo utilizado");
+        List<Store> conflicts = storeRepository.findByCnpjOrEmailOrPhone(
+                store.getCnpj(), store.getEmail(), store.getPhone());
+
+        if(conflicts.stream().anyMatch(other -> store.getCnpj().equals(other.getCnpj()))) {
+            throw new DuplicateKeyException(DUPLICATE_MESSAGES.get(Store.UK_CNPJ));
         }
 
-        if(storeRepository.findByPhone(store.getPhone()).isPresent()) {
-            throw new DuplicateKeyException("O telefone já está sendo utilizado");
+        if(conflicts.stream().anyMatch(other -> store.getEmail().equals(other.getEmail()))) {
+            throw new DuplicateKeyException(DUPLICATE_MESSAGES.get(Store.UK_EMAIL));
         }
 
-        store.setPassword(stringUtils.encryptPassword(store.getPassword()));
+        if(conflicts.stream().anyMatch(other -> store.getPhone().equals(other.getPhone()))) {
+            throw new DuplicateKeyException(DUPLICATE_MESSAGES.get(Store.UK_PHONE));
+        }
 
-        if (this.storeRepository.save(store) != null) {
-            log.info("Loja criada: {}", store.getId());
+        try {
+            if (this.storeRepository.saveAndFlush(store) != null) {
+                log.info("Loja criada: {}", store.getId());
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw toDuplicateKey(e);
         }
+        productChangeLog.openFeed(store.getId());
         this.rabbitTemplate.convertAndSend("store", "store.created" ,store);
     }
 
+    /**
+     * Traduz a violação de uma das chaves únicas da loja, que acontece quando dois cadastros
+     * concorrentes passam pela consulta de duplicidade, para a mesma mensagem da consulta.
+     */
+    private RuntimeException toDuplicateKey(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof org.hibernate.exception.ConstraintViolationException
+                ? ((org.hibernate.exception.ConstraintViolationException) e.getCause()).getConstraintName()
+                : e.getMostSpecificCause().getMessage();
+
+        if (constraint != null) {
+            String lowerCaseConstraint = constraint.toLowerCase();
+            for (Map.Entry<String, String> duplicate : DUPLICATE_MESSAGES.entrySet()) {
+                if (lowerCaseConstraint.contains(duplicate.getKey())) {
+                    return new DuplicateKeyException(duplicate.getValue(), e);
+                }
+            }
+        }
+        return e;
+    }
+
     public Page<Store> getAllStores(Pageable pageable) {
         Page<Store> stores = storeRepository.findAll(pageable);
 
@@ -87,24 +154,24 @@ public class StoreService {
         return stores;
     }
 
-    public Store getStoreByID(BigInteger id) {
-        return storeRepository.findById(id).orElseThrow(() -> new NotFoundException("Nenhuma loja foi encontrada."));
+    public Store getStoreByID(BigInteger storeId) {
+        return storeRepository.findById(storeId).orElseThrow(() -> new NotFoundException("Nenhuma loja foi encontrada."));
     }
 
     public Store getStoreByEmail(String email) {
         return storeRepository.findByEmail(email).orElseThrow(() -> new NotFoundException("Nenhuma loja foi encontrada."));
     }
 
+    /**
+     * Altera os dados da loja. Assim como em {@link #persistStore}, a senha já deve vir com hash
+     * e um CNPJ, e-mail ou telefone de outra loja resulta em {@link DuplicateKeyException}.
+     */
     @Transactional
     public void putStore(String userEmail, Store newStore) {
         Store oldStore = storeRepository.findByEmail(userEmail).orElseThrow(
                 () -> new NotFoundException("Nenhuma loja foi encontrada."));
 
-        Set<ConstraintViolation<Store>> validator = this.validator.validate(newStore);
-
-        if(!validator.isEmpty()) {
-            throw new ConstraintViolationException("Loja inválida.", validator);
-        }
+        validateStore(newStore);
 
         oldStore.setCorporateName(newStore.getCorporateName());
         oldStore.setPhone(newStore.getPhone());
@@ -114,25 +181,50 @@ public class StoreService {
 
         newStore.setId(oldStore.getId());
 
-        if (this.storeRepository.save(oldStore) != null) {
-            log.info("Loja alterada: {}", oldStore.getId());
+        try {
+            if (this.storeRepository.saveAndFlush(oldStore) != null) {
+                log.info("Loja alterada: {}", oldStore.getId());
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw toDuplicateKey(e);
         }
+        refreshTokenRepository.revokeTokensByStore(oldStore);
+        catalogVersion.bump(oldStore.getId());
         this.rabbitTemplate.convertAndSend("store", "store.updated", oldStore);
     }
 
+    /**
+     * Remove a loja, seus endereços e produtos. Lojas com mais produtos do que um bloco
+     * são removidas em segundo plano pelo {@link StorePurgeJob}, que só começa depois do commit.
+     *
+     * @return true se a loja foi removida, false se a exclusão foi agendada.
+     */
     @Transactional
-    public void deleteStore(String userEmail) {
+    public boolean deleteStore(String userEmail) {
         Store store = storeRepository.findByEmail(userEmail).orElseThrow(
                 () -> new NotFoundException("Loja não encontrada."));
 
-        addressStoreRepository.findAddressesByStore(store)
-                        .ifPresent(setAddress -> setAddress.forEach(addressStoreRepository::delete));
+        long products = productRepository.countProductsByStore(store);
+
+        if (products > purgeChunkSize) {
+            refreshTokenRepository.revokeTokensByStore(store);
+            AfterCommit.run(() -> storePurgeJob.purge(store, products));
+            log.info("Exclusão da loja agendada: {}", store.getId());
+            return false;
+        }
 
-        productRepository.findProductsByStore(store)
-                        .ifPresent(setProducts -> setProducts.forEach(productRepository::delete));
+        refreshTokenRepository.deleteTokensByStore(store);
+        productChangeLog.deleteFeed(store.getId());
+        productSearchIndex.removeStore(store.getId());
+        addressStoreRepository.deleteAddressesByStore(store);
+        long deleted = productRepository.deleteProductsByStore(store);
 
         storeRepository.delete(store);
         log.info("Loja deletada: {}", store.getId());
+        catalogVersion.bump(store.getId());
         this.rabbitTemplate.convertAndSend("store", "store.deleted" ,store);
+        this.rabbitTemplate.convertAndSend("product", "product.deleted.catalog",
+                new CatalogTombstone(store.getId(), deleted));
+        return true;
     }
 }
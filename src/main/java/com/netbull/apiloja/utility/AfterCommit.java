@@ -0,0 +1,28 @@
+package com.netbull.apiloja.utility;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia uma ação (normalmente a publicação de um evento) para depois do commit da transação
+ * corrente. Se a transação fizer rollback, ou for repetida pelo {@link OptimisticLockRetryAspect},
+ * a ação das tentativas que falharam é descartada. Sem transação ativa, executa na hora.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.netbull.apiloja.utility;
+
+import com.netbull.apiloja.config.BulkheadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Isola os grupos de rotas (catálogo público, login e API da loja) com um semáforo por
+ * grupo, para que uma rajada em um grupo não ocupe todas as threads do Tomcat e conexões
+ * do banco. A requisição espera uma vaga até o queue-timeout do grupo e depois recebe 503.
+ * Nas respostas assíncronas a vaga só é devolvida quando o processamento assíncrono termina.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final BulkheadProperties properties;
+
+    private final List<Bulkhead> bulkheads;
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public BulkheadFilter(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.bulkheads = properties.getGroups().stream()
+                .map(group -> new Bulkhead(group, meterRegistry))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        Bulkhead bulkhead = properties.isEnabled() ? findBulkhead(request) : null;
+
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!bulkhead.acquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.getWriter().print("Servidor ocupado, tente novamente em instantes.");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnAsyncEnd(bulkhead));
+            } else {
+                bulkhead.release();
+            }
+        }
+    }
+
+    private Bulkhead findBulkhead(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+
+        for (Bulkhead bulkhead : bulkheads) {
+            BulkheadProperties.Group group = bulkhead.group;
+            if ((group.getMethod() == null || group.getMethod().isBlank()
+                    || group.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && group.getPatterns().stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+                return bulkhead;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Devolve a vaga no fim do processamento assíncrono. O container pode chamar onError ou
+     * onTimeout e depois onComplete, por isso a vaga só é devolvida uma vez.
+     */
+    private static class ReleaseOnAsyncEnd implements AsyncListener {
+
+        private final Bulkhead bulkhead;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleaseOnAsyncEnd(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    private static class Bulkhead {
+
+        private final BulkheadProperties.Group group;
+
+        private final Semaphore permits;
+
+        private final AtomicInteger waiting = new AtomicInteger();
+
+        private final Timer waitTimer;
+
+        private final Counter rejected;
+
+        private Bulkhead(BulkheadProperties.Group group, MeterRegistry meterRegistry) {
+            this.group = group;
+            this.permits = new Semaphore(group.getMaxConcurrent());
+            this.waitTimer = Timer.builder("bulkhead.wait").tag("group", group.getName()).register(meterRegistry);
+            this.rejected = Counter.builder("bulkhead.rejected").tag("group", group.getName()).register(meterRegistry);
+
+            meterRegistry.gauge("bulkhead.active", List.of(Tag.of("group", group.getName())),
+                    permits, semaphore -> group.getMaxConcurrent() - semaphore.availablePermits());
+            meterRegistry.gauge("bulkhead.waiting", List.of(Tag.of("group", group.getName())),
+                    waiting, AtomicInteger::get);
+        }
+
+        private boolean acquire() {
+            if (permits.tryAcquire()) {
+                return true;
+            }
+
+            if (waiting.incrementAndGet() > group.getMaxWaiting()) {
+                waiting.decrementAndGet();
+                rejected.increment();
+                return false;
+            }
+
+            long start = System.nanoTime();
+            try {
+                boolean acquired = permits.tryAcquire(group.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+                if (!acquired) {
+                    rejected.increment();
+                }
+                return acquired;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.increment();
+                return false;
+            } finally {
+                waiting.decrementAndGet();
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void release() {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.netbull.apiloja.utility;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão do catálogo (loja e produtos) de cada loja, usada para gerar ETags sem consultar o
+ * banco. Toda escrita que muda o que os endpoints de catálogo devolvem chama {@link #bump},
+ * que só incrementa depois do commit: assim quem leu a versão antes da escrita nunca recebe
+ * a versão nova com os dados antigos.
+ *
+ * <p>Os contadores ficam em memória e só valem para uma instância: com mais de uma, a escrita
+ * em um nó não muda a versão dos outros, que continuariam respondendo 304 com dados antigos.
+ * Por isso {@code catalog.etag.enabled} vem desligado e os endpoints respondem sem ETag; só os
+ * profiles de uma instância ligam. O prefixo com o instante da subida invalida todas as ETags quando a aplicação reinicia.</p>
+ */
+@Component
+public class CatalogVersion {
+
+    @Value("${catalog.etag.enabled}")
+    private boolean etagEnabled;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<BigInteger, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * @return a ETag do catálogo da loja, vazia quando as ETags estão desligadas.
+     */
+    public Optional<String> etag(BigInteger storeId) {
+        if (!etagEnabled) {
+            return Optional.empty();
+        }
+
+        AtomicLong version = versions.get(storeId);
+        return Optional.of("\"" + epoch + "-" + storeId + "-" + (version != null ? version.get() : 0) + "\"");
+    }
+
+    public void bump(BigInteger storeId) {
+        if (storeId == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(storeId);
+                }
+            });
+        } else {
+            increment(storeId);
+        }
+    }
+
+    private void increment(BigInteger storeId) {
+        versions.computeIfAbsent(storeId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
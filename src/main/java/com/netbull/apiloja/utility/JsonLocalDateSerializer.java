@@ -1,27 +0,0 @@
-package com.netbull.apiloja.utility;
-
-import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.databind.SerializerProvider;
-import com.fasterxml.jackson.databind.ser.std.StdSerializer;
-
-import java.io.IOException;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-
-public class JsonLocalDateSerializer extends StdSerializer<LocalDate> {
-
-    private DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
-    protected JsonLocalDateSerializer(Class<LocalDate> t) {
-        super(t);
-    }
-
-    public JsonLocalDateSerializer() {
-        this(null);
-    }
-
-    @Override
-    public void serialize(LocalDate localDate, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
-        jsonGenerator.writeString(formatter.format(localDate));
-    }
-}
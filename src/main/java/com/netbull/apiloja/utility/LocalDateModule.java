@@ -0,0 +1,151 @@
+package com.netbull.apiloja.utility;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Datas no formato dd/MM/yyyy, registrado uma vez no ObjectMapper da aplicação e no conversor
+ * do RabbitMQ. O serializador e o desserializador são instâncias únicas e sem estado; o caminho
+ * rápido lê e escreve os dígitos direto, o {@link DateTimeFormatter} só é usado fora do layout fixo.
+ */
+public class LocalDateModule extends SimpleModule {
+
+    public static final String PATTERN = "dd/MM/yyyy";
+
+    static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+
+    public static final Serializer SERIALIZER = new Serializer();
+
+    public static final Deserializer DESERIALIZER = new Deserializer();
+
+    public LocalDateModule() {
+        super(LocalDateModule.class.getSimpleName());
+        addSerializer(LocalDate.class, SERIALIZER);
+        addDeserializer(LocalDate.class, DESERIALIZER);
+    }
+
+    public static final class Serializer extends StdScalarSerializer<LocalDate> {
+
+        private Serializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public void serialize(LocalDate date, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            int year = date.getYear();
+
+            if (year < 1 || year > 9999) {
+                generator.writeString(FORMATTER.format(date));
+                return;
+            }
+
+            char[] text = new char[10];
+            writeTwoDigits(text, 0, date.getDayOfMonth());
+            text[2] = '/';
+            writeTwoDigits(text, 3, date.getMonthValue());
+            text[5] = '/';
+            writeTwoDigits(text, 6, year / 100);
+            writeTwoDigits(text, 8, year % 100);
+
+            generator.writeString(text, 0, text.length);
+        }
+
+        private static void writeTwoDigits(char[] text, int offset, int value) {
+            text[offset] = (char) ('0' + value / 10);
+            text[offset + 1] = (char) ('0' + value % 10);
+        }
+    }
+
+    public static final class Deserializer extends StdScalarDeserializer<LocalDate> {
+
+        private Deserializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public LocalDate deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.hasToken(JsonToken.VALUE_STRING)) {
+                return (LocalDate) context.handleUnexpectedToken(LocalDate.class, parser);
+            }
+
+            LocalDate date = parseFixed(parser.getTextCharacters(), parser.getTextOffset(),
+                    parser.getTextLength());
+
+            if (date != null) {
+                return date;
+            }
+
+            String text = parser.getText();
+
+            try {
+                return LocalDate.parse(text, FORMATTER);
+            } catch (DateTimeException e) {
+                throw context.weirdStringException(text, LocalDate.class, "Erro na deserialização da data");
+            }
+        }
+
+        /**
+         * Lê dd/MM/yyyy direto dos caracteres. Devolve null quando o texto foge do layout ou a data
+         * não existe, para que o formatter decida com as mesmas regras de antes.
+         */
+        static LocalDate parseFixed(char[] text, int offset, int length) {
+            if (length != 10 || text[offset + 2] != '/' || text[offset + 5] != '/') {
+                return null;
+            }
+
+            int day = twoDigits(text, offset);
+            int month = twoDigits(text, offset + 3);
+            int century = twoDigits(text, offset + 6);
+            int yearOfCentury = twoDigits(text, offset + 8);
+
+            if (day < 0 || month < 0 || century < 0 || yearOfCentury < 0) {
+                return null;
+            }
+
+            int year = century * 100 + yearOfCentury;
+
+            if (year < 1 || month < 1 || month > 12 || day < 1 || day > 28 && day > lengthOfMonth(year, month)) {
+                return null;
+            }
+
+            return LocalDate.of(year, month, day);
+        }
+
+        private static int twoDigits(char[] text, int offset) {
+            int tens = text[offset] - '0';
+            int units = text[offset + 1] - '0';
+
+            if (tens < 0 || tens > 9 || units < 0 || units > 9) {
+                return -1;
+            }
+
+            return tens * 10 + units;
+        }
+
+        private static int lengthOfMonth(int year, int month) {
+            switch (month) {
+                case 2:
+                    return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+                case 4:
+                case 6:
+                case 9:
+                case 11:
+                    return 30;
+                default:
+                    return 31;
+            }
+        }
+    }
+}
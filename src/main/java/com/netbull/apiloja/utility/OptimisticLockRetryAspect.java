@@ -0,0 +1,60 @@
+package com.netbull.apiloja.utility;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Executa antes do interceptor de transação, assim cada nova tentativa roda em uma transação nova.
+ * Não pode usar {@code HIGHEST_PRECEDENCE}: o ExposeInvocationInterceptor, necessário para o bind
+ * da anotação no advice, precisa ficar antes no encadeamento.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@Slf4j
+public class OptimisticLockRetryAspect {
+
+    private static final long BACKOFF_MILLIS = 10;
+
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticLockRetryAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(retryOnOptimisticLock)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnOptimisticLock retryOnOptimisticLock) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().toShortString();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("optimistic.lock.conflicts", "method", method).increment();
+
+                if (attempt >= retryOnOptimisticLock.maxAttempts()) {
+                    meterRegistry.counter("optimistic.lock.exhausted", "method", method).increment();
+                    throw e;
+                }
+
+                log.info("Conflito de versão em {}, tentativa {} de {}.",
+                        method, attempt, retryOnOptimisticLock.maxAttempts());
+                Thread.sleep(ThreadLocalRandom.current().nextLong(BACKOFF_MILLIS * attempt, BACKOFF_MILLIS * attempt * 2));
+            }
+        }
+    }
+}
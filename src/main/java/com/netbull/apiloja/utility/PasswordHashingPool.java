@@ -0,0 +1,64 @@
+package com.netbull.apiloja.utility;
+
+import com.netbull.apiloja.monitoring.tracing.Tracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pool dedicado ao BCrypt (geração e verificação de senha), para que rajadas de login não
+ * ocupem as threads do Tomcat. A fila é limitada: quando está cheia a tarefa é recusada na
+ * hora com {@link RejectedExecutionException}, devolvida ao cliente como 503.
+ */
+@Component
+@Slf4j
+public class PasswordHashingPool {
+
+    private final ThreadPoolExecutor executor;
+
+    private final Counter rejected;
+
+    public PasswordHashingPool(MeterRegistry meterRegistry,
+                               @Value("${security.password.pool-size}") int poolSize,
+                               @Value("${security.password.queue-capacity}") int queueCapacity) {
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Tarefas de BCrypt recusadas por fila cheia")
+                .register(meterRegistry);
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Fila de verificação de senha cheia.");
+                });
+
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Submete a tarefa no pool; ela e o que for encadeado no future continuam o trace de quem submeteu.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, command -> executor.execute(Tracer.propagate(command)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        log.info("Pool de senha finalizado.");
+    }
+}
@@ -1,6 +1,8 @@
 package com.netbull.apiloja.utility;
 
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -9,9 +11,11 @@ import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
+import javax.ws.rs.ClientErrorException;
 import javax.ws.rs.NotFoundException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class RestResponseExceptionHandler {
@@ -32,11 +36,28 @@ public class RestResponseExceptionHandler {
         return ResponseEntity.badRequest().body(exMethod.getMessage());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLocking(OptimisticLockingFailureException exMethod, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("O registro foi alterado por outra requisição, tente novamente.");
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecution(RejectedExecutionException exMethod, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Servidor ocupado, tente novamente em instantes.");
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<String> handleNotFound(NotFoundException exMethod, WebRequest request) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exMethod.getMessage());
     }
 
+    @ExceptionHandler(ClientErrorException.class)
+    public ResponseEntity<String> handleClientError(ClientErrorException exMethod, WebRequest request) {
+        return ResponseEntity.status(exMethod.getResponse().getStatus()).body(exMethod.getMessage());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException exMethod, WebRequest request) {
         return ResponseEntity.badRequest().body(exMethod.getMessage());
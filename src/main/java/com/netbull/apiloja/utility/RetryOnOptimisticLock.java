@@ -0,0 +1,18 @@
+package com.netbull.apiloja.utility;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Executa o método novamente, em uma nova transação, quando a escrita falha por conflito
+ * de versão (@Version). Só tem efeito quando o método abre a transação, se for chamado
+ * dentro de uma transação existente o conflito é repassado para quem a abriu.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnOptimisticLock {
+
+    int maxAttempts() default 3;
+}
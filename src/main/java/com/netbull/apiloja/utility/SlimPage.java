@@ -0,0 +1,31 @@
+package com.netbull.apiloja.utility;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Envelope enxuto de página: só o conteúdo e os números da paginação, sem os objetos
+ * {@code Pageable} e {@code Sort} que o {@link Page} serializa.
+ */
+@Getter
+@AllArgsConstructor
+public class SlimPage<T> {
+
+    private final List<T> content;
+
+    private final int page;
+
+    private final int size;
+
+    private final long totalElements;
+
+    private final int totalPages;
+
+    public static <T> SlimPage<T> of(Page<T> page) {
+        return new SlimPage<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -4,16 +4,29 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Component
 public class StringUtils {
 
     private final PasswordEncoder encoder = new BCryptPasswordEncoder();
 
+    private final PasswordHashingPool passwordHashingPool;
+
+    public StringUtils(PasswordHashingPool passwordHashingPool) {
+        this.passwordHashingPool = passwordHashingPool;
+    }
+
     public PasswordEncoder getEncoder() {
         return encoder;
     }
 
-    public String encryptPassword(String password) {
-        return encoder.encode(password);
+    /**
+     * Gera o hash no {@link PasswordHashingPool}, como a verificação do /authenticate. Com a fila
+     * cheia lança {@link java.util.concurrent.RejectedExecutionException} na hora, ainda na thread
+     * da requisição, e o cliente recebe 503 com Retry-After.
+     */
+    public CompletableFuture<String> encryptPassword(String password) {
+        return passwordHashingPool.submit(() -> encoder.encode(password));
     }
 }
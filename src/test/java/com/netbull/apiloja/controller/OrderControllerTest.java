@@ -16,7 +16,10 @@ import com.netbull.apiloja.domain.product.Product;
 import com.netbull.apiloja.domain.product.ProductRepository;
 import com.netbull.apiloja.domain.store.Store;
 import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.monitoring.QueryBudget;
 import com.netbull.apiloja.security.model.JwtRequest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,11 +29,14 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import javax.persistence.EntityManagerFactory;
 import java.lang.annotation.Annotation;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -43,7 +49,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -67,6 +75,9 @@ class OrderControllerTest {
     @Autowired
     private StoreRepository storeRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Autowired
     private WebApplicationContext wac;
 
@@ -119,7 +130,7 @@ class OrderControllerTest {
 
         logger = store;
 
-        ResultActions resultCreated = this.mvc.perform(
+        ResultActions resultCreated = performAsync(
                         MockMvcRequestBuilders.post(URI_STORE)
                                 .accept(javax.ws.rs.core.MediaType.APPLICATION_JSON)
                                 .contentType(javax.ws.rs.core.MediaType.APPLICATION_JSON)
@@ -133,12 +144,16 @@ class OrderControllerTest {
 
         JwtRequest jwtRequest = new JwtRequest(store.getEmail(), store.getPassword());
 
-        ResultActions resultActions = this.mvc.perform(
+        MvcResult authResult = this.mvc.perform(
                         MockMvcRequestBuilders.post(URI_AUTH)
                                 .accept(javax.ws.rs.core.MediaType.APPLICATION_JSON)
                                 .contentType(javax.ws.rs.core.MediaType.APPLICATION_JSON)
                                 .content(mapper.writeValueAsString(jwtRequest))
-                ).andDo(print())
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+
+        ResultActions resultActions = this.mvc.perform(asyncDispatch(authResult))
+                .andDo(print())
                 .andExpect(status().isOk());
 
         HashMap<String, String> jwtResponse = mapper.readValue(resultActions
@@ -147,7 +162,7 @@ class OrderControllerTest {
                 .getContentAsString(), HashMap.class);
 
         bearerToken = new StringBuilder();
-        jwtResponse.values().stream().forEach(token -> bearerToken.append("Bearer " + token));
+        bearerToken.append("Bearer " + jwtResponse.get("jwtToken"));
         assertTrue(jwtResponse.containsKey("jwtToken"));
 
         Order order = new Order();
@@ -197,6 +212,7 @@ class OrderControllerTest {
     }
 
     @Test
+    @QueryBudget(4)
     @DisplayName("Testa busca dos pedidos da loja logada.")
     public void test_buscaPedidoDaLojaLogada_retorna200() throws Exception {
 
@@ -271,6 +287,7 @@ class OrderControllerTest {
     }
 
     @Test
+    @QueryBudget(3)
     @DisplayName("Testa alteração do estado do pedido para ENTREGUE.")
     public void test_alteracaoDoEstadoDoPedidoParaEntregue_retorna200() throws Exception {
 
@@ -289,4 +306,71 @@ class OrderControllerTest {
         assertEquals("Pedido alterado para enviado.",
                 resultpatch.andReturn().getResponse().getContentAsString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Testa quantidade de comandos SQL na busca e no envio dos pedidos, " +
+            "que não deve crescer com o número de pedidos.")
+    public void test_quantidadeDeComandosSqlPorEndpoint() throws Exception {
+        Store store = storeRepository.findByEmail(logger.getEmail()).get();
+        Order template = orderRepository.findDetailedById(BigInteger.ONE).get();
+
+        for (int x = 0; x < 5; x++) {
+            Order order = new Order();
+            order.setId(BigInteger.valueOf(1000L + x));
+            order.setStore(store);
+            order.setClient(template.getClient());
+            order.setAddress(template.getAddress());
+            order.setOrderCreated(LocalDate.now());
+            order.setState(OrderState.CRIADO);
+            order.setTotalValue(BigDecimal.TEN);
+
+            ProductOrder product = new ProductOrder();
+            product.setId(BigInteger.valueOf(1000L + x));
+            product.setCode("SQL" + x);
+            product.setQuantity(BigInteger.ONE);
+            product.setPrice(BigDecimal.TEN);
+            product.setOrder(order);
+            order.setProducts(List.of(product));
+
+            orderRepository.save(order);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        mvc.perform(
+                MockMvcRequestBuilders.get(URI_ORDER)
+                        .header("Authorization", bearerToken.toString())
+                        .accept(MediaType.APPLICATION_JSON)
+        ).andExpect(status().isOk());
+
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "Listagem executou " + statistics.getPrepareStatementCount() + " comandos SQL.");
+
+        Order orderEnviado = new Order();
+        orderEnviado.setState(OrderState.ENVIADO);
+
+        statistics.clear();
+        mvc.perform(
+                MockMvcRequestBuilders.patch(URI_ORDER.concat("/{id}"), 1)
+                        .header("Authorization", bearerToken.toString())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(orderEnviado))
+        ).andExpect(status().isOk());
+
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Envio executou " + statistics.getPrepareStatementCount() + " comandos SQL.");
+    }
+
+    /**
+     * Cadastro e alteração de loja respondem de forma assíncrona (o hash da senha roda no pool do BCrypt).
+     */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult asyncResult = this.mvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return this.mvc.perform(asyncDispatch(asyncResult));
+    }
+}
@@ -17,6 +17,8 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -30,7 +32,9 @@ import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -75,7 +79,7 @@ class ProductControllerTest {
         store.setPhone("11155511111");
         store.setPassword("abc");
 
-        ResultActions resultActions = this.mvc.perform(
+        ResultActions resultActions = performAsync(
                         MockMvcRequestBuilders.post(URI_STORE)
                                 .accept(MediaType.APPLICATION_JSON)
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -195,7 +199,7 @@ class ProductControllerTest {
         store.setPhone("11155591111");
         store.setPassword("abc");
 
-        ResultActions resultActions = this.mvc.perform(
+        ResultActions resultActions = performAsync(
                         MockMvcRequestBuilders.post(URI_STORE)
                                 .accept(MediaType.APPLICATION_JSON)
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -533,4 +537,15 @@ class ProductControllerTest {
         assertEquals("O produto não foi encontrado.",
                 resultActionsPut.andReturn().getResponse().getContentAsString());
     }
-}
\ No newline at end of file
+
+    /**
+     * Cadastro e alteração de loja respondem de forma assíncrona (o hash da senha roda no pool do BCrypt).
+     */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult asyncResult = this.mvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return this.mvc.perform(asyncDispatch(asyncResult));
+    }
+}
@@ -16,6 +16,8 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -25,7 +27,10 @@ import java.lang.annotation.Annotation;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -87,7 +92,7 @@ class StoreControllerTest {
         store.setPhone("11111111111");
         store.setPassword("abc");
 
-        ResultActions resultActions = this.mvc.perform(
+        ResultActions resultActions = performAsync(
                 MockMvcRequestBuilders.post(URI_STORE)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -108,7 +113,7 @@ class StoreControllerTest {
         store.setPhone("11111111112");
         store.setPassword("abc");
 
-        ResultActions resultActions = this.mvc.perform(
+        ResultActions resultActions = performAsync(
                         MockMvcRequestBuilders.post(URI_STORE)
                                 .accept(MediaType.APPLICATION_JSON)
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -131,6 +136,16 @@ class StoreControllerTest {
 
         assertEquals(store.getCnpj(), storeResult.getCnpj());
         assertEquals(store.getEmail(), storeResult.getEmail());
+
+        String etag = resultActionsBusca.andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        this.mvc.perform(
+                        MockMvcRequestBuilders.get(resultActions.andReturn().getResponse().getHeader("Location"))
+                                .accept(MediaType.APPLICATION_JSON)
+                                .header("If-None-Match", etag)
+                ).andDo(print())
+                .andExpect(status().isNotModified());
     }
 
     @Test
@@ -157,7 +172,7 @@ class StoreControllerTest {
         store.setPhone("11111111113");
         store.setPassword("abc");
 
-        ResultActions resultActions = this.mvc.perform(
+        ResultActions resultActions = performAsync(
                         MockMvcRequestBuilders.post(URI_STORE)
                                 .accept(MediaType.APPLICATION_JSON)
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -184,7 +199,7 @@ class StoreControllerTest {
         store.setPhone("11111111114");
         store.setPassword("abc");
 
-        ResultActions resultActions = this.mvc.perform(
+        ResultActions resultActions = performAsync(
                         MockMvcRequestBuilders.post(URI_STORE)
                                 .accept(MediaType.APPLICATION_JSON)
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -234,7 +249,7 @@ class StoreControllerTest {
         store.setPhone("11111111115");
         store.setPassword("abc");
 
-        ResultActions resultActions = this.mvc.perform(
+        ResultActions resultActions = performAsync(
                         MockMvcRequestBuilders.post(URI_STORE)
                                 .accept(MediaType.APPLICATION_JSON)
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -251,7 +266,7 @@ class StoreControllerTest {
         newStore.setPhone("11111111815");
         newStore.setPassword("abc");
 
-        ResultActions resultActionsPut = this.mvc.perform(
+        ResultActions resultActionsPut = performAsync(
                         MockMvcRequestBuilders.put(URI_STORE)
                                 .accept(MediaType.APPLICATION_JSON)
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -288,7 +303,7 @@ class StoreControllerTest {
         store.setPhone("11111111117");
         store.setPassword("abc");
 
-        ResultActions resultActions = this.mvc.perform(
+        ResultActions resultActions = performAsync(
                         MockMvcRequestBuilders.post(URI_STORE)
                                 .accept(MediaType.APPLICATION_JSON)
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -306,4 +321,15 @@ class StoreControllerTest {
 
         assertEquals("Loja deletada.", resultActionsDelete.andReturn().getResponse().getContentAsString());
     }
-}
\ No newline at end of file
+
+    /**
+     * Cadastro e alteração de loja respondem de forma assíncrona (o hash da senha roda no pool do BCrypt).
+     */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult asyncResult = this.mvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return this.mvc.perform(asyncDispatch(asyncResult));
+    }
+}
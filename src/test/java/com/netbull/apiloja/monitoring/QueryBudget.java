@@ -0,0 +1,20 @@
+package com.netbull.apiloja.monitoring;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limite de comandos SQL que o método de teste pode executar. Só é contado o corpo do
+ * teste, os métodos @BeforeEach e @AfterEach ficam de fora.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    long value();
+}
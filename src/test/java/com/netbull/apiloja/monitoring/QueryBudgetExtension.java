@@ -0,0 +1,35 @@
+package com.netbull.apiloja.monitoring;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), QueryCountHolder.start());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCountHolder.Scope scope = context.getStore(NAMESPACE)
+                .remove(context.getUniqueId(), QueryCountHolder.Scope.class);
+        scope.close();
+
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+
+        long budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class).value();
+        long statements = scope.getCount().getStatements();
+
+        assertTrue(statements <= budget,
+                "O teste executou " + statements + " comandos SQL, o limite é " + budget + ".");
+    }
+}
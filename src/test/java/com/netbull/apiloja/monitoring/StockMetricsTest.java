@@ -0,0 +1,65 @@
+package com.netbull.apiloja.monitoring;
+
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.stock.StockLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+class StockMetricsTest {
+
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StockMetrics stockMetrics;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        MetricsProperties properties = new MetricsProperties();
+        properties.setStoreBuckets(4);
+        properties.setLowStock(5);
+
+        this.productRepository = Mockito.mock(ProductRepository.class);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.stockMetrics = new StockMetrics(productRepository, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Testa métricas de estoque somando as lojas da mesma faixa.")
+    public void test_refreshAgrupaLojasPorFaixa() {
+        when(productRepository.findStockLevels(BigInteger.valueOf(5))).thenReturn(List.of(
+                new StockLevel(BigInteger.valueOf(1), 10L, BigInteger.valueOf(100), 1L, 3L),
+                new StockLevel(BigInteger.valueOf(5), 2L, BigInteger.valueOf(7), 0L, 1L),
+                new StockLevel(BigInteger.valueOf(2), 4L, BigInteger.ZERO, 4L, 4L)));
+
+        stockMetrics.refresh();
+
+        assertEquals(12, meterRegistry.get("product.stock.products").tag("store", "1").gauge().value());
+        assertEquals(107, meterRegistry.get("product.stock.units").tag("store", "1").gauge().value());
+        assertEquals(4, meterRegistry.get("product.stock.low").tag("store", "1").gauge().value());
+        assertEquals(4, meterRegistry.get("product.stock.out").tag("store", "2").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Testa métricas de estoque removendo faixas que ficaram vazias.")
+    public void test_refreshRemoveFaixasVazias() {
+        when(productRepository.findStockLevels(BigInteger.valueOf(5))).thenReturn(List.of(
+                new StockLevel(BigInteger.valueOf(3), 1L, BigInteger.ONE, 0L, 1L)));
+        stockMetrics.refresh();
+
+        when(productRepository.findStockLevels(BigInteger.valueOf(5))).thenReturn(List.of());
+        stockMetrics.refresh();
+
+        assertNull(meterRegistry.find("product.stock.products").tag("store", "3").gauge());
+    }
+}
@@ -0,0 +1,92 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+class RabbitTracingTest {
+
+    private SpanReporter spanReporter;
+
+    private Tracer tracer;
+
+    private RabbitTracing rabbitTracing;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        TracingProperties properties = new TracingProperties();
+        properties.getSampler().setProbability(1);
+
+        this.spanReporter = Mockito.mock(SpanReporter.class);
+        this.tracer = new Tracer(properties, spanReporter);
+        this.rabbitTracing = new RabbitTracing(tracer);
+    }
+
+    @Test
+    @DisplayName("Testa propagação do trace da requisição até o listener pelos headers da mensagem.")
+    public void test_publishEConsume_continuaOTrace() {
+        Span request = tracer.startSpan("PATCH /v1/stores/orders/{id}", Span.Kind.SERVER);
+        Message message = new Message("{}".getBytes(), new MessageProperties());
+        List<Span> sending = new ArrayList<>();
+
+        tracer.within(request, () -> {
+            rabbitTracing.publish("order-client", "order.client.updated.dispatched", message, () -> {
+                sending.add(Tracer.current());
+                then(spanReporter).should(never()).report(any());
+                return null;
+            });
+            return null;
+        });
+
+        assertEquals(Span.Kind.PRODUCER, sending.get(0).getKind());
+        assertEquals("publish order-client order.client.updated.dispatched", sending.get(0).getName());
+
+        TraceContext published = TraceContext.parse(
+                (String) message.getMessageProperties().getHeaders().get(TraceContext.HEADER));
+        assertEquals(request.getContext().getTraceId(), published.getTraceId());
+
+        message.getMessageProperties().setConsumerQueue("order-store-created");
+        Span consumer = rabbitTracing.consume(message, Tracer::current);
+
+        assertEquals(published.getTraceId(), consumer.getContext().getTraceId());
+        assertEquals(published.getSpanId(), consumer.getParentId());
+        assertEquals("consume order-store-created", consumer.getName());
+        assertNull(Tracer.current());
+
+        ArgumentCaptor<Span> reported = ArgumentCaptor.forClass(Span.class);
+        then(spanReporter).should(times(3)).report(reported.capture());
+        assertEquals(List.of(Span.Kind.PRODUCER, Span.Kind.SERVER, Span.Kind.CONSUMER),
+                List.of(reported.getAllValues().get(0).getKind(), reported.getAllValues().get(1).getKind(),
+                        reported.getAllValues().get(2).getKind()));
+    }
+
+    @Test
+    @DisplayName("Testa span de consumo quando o listener falha.")
+    public void test_consumeQuandoListenerFalha_marcaErro() {
+        Message message = new Message("{}".getBytes(), new MessageProperties());
+
+        assertThrows(IllegalArgumentException.class, () -> rabbitTracing.consume(message, () -> {
+            throw new IllegalArgumentException("Pedido inválido.");
+        }));
+
+        ArgumentCaptor<Span> reported = ArgumentCaptor.forClass(Span.class);
+        then(spanReporter).should(times(1)).report(reported.capture());
+        assertEquals("IllegalArgumentException", reported.getValue().getTags().get("error"));
+        assertNull(Tracer.current());
+    }
+}
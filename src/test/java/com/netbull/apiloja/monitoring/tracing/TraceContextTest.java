@@ -0,0 +1,54 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceContextTest {
+
+    private static final String HEADER = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    @Test
+    @DisplayName("Testa leitura do traceparent.")
+    public void test_parse() {
+        TraceContext context = TraceContext.parse(HEADER);
+
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", context.getTraceId());
+        assertEquals("00f067aa0ba902b7", context.getSpanId());
+        assertTrue(context.isSampled());
+        assertEquals(HEADER, context.toHeader());
+
+        assertFalse(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00").isSampled());
+    }
+
+    @Test
+    @DisplayName("Testa leitura do traceparent fora do formato, que começa um trace novo.")
+    public void test_parseInvalido_retornaNull() {
+        assertNull(TraceContext.parse(null));
+        assertNull(TraceContext.parse(""));
+        assertNull(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7"));
+        assertNull(TraceContext.parse("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01"));
+        assertNull(TraceContext.parse("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse(HEADER + "-extra"));
+    }
+
+    @Test
+    @DisplayName("Testa span filho, que mantém o trace e a amostragem com um id novo.")
+    public void test_child() {
+        TraceContext parent = TraceContext.parse(HEADER);
+        TraceContext child = parent.child();
+
+        assertEquals(parent.getTraceId(), child.getTraceId());
+        assertNotEquals(parent.getSpanId(), child.getSpanId());
+        assertEquals(16, child.getSpanId().length());
+        assertTrue(child.isSampled());
+        assertEquals(child.toHeader(), TraceContext.parse(child.toHeader()).toHeader());
+    }
+}
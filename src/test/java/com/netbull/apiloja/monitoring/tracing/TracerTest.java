@@ -0,0 +1,64 @@
+package com.netbull.apiloja.monitoring.tracing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TracerTest {
+
+    private Tracer tracer;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        TracingProperties properties = new TracingProperties();
+        properties.getSampler().setProbability(1);
+
+        this.tracer = new Tracer(properties, Mockito.mock(SpanReporter.class));
+        this.executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDownAfterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Testa que a tarefa submetida a outra thread continua o span ativo de quem submeteu.")
+    public void test_propagate_continuaSpanEmOutraThread() throws Exception {
+        Span request = tracer.startSpan("POST /v1/stores", Span.Kind.SERVER);
+        AtomicReference<Span> active = new AtomicReference<>();
+        AtomicReference<Span> published = new AtomicReference<>();
+
+        Runnable task = tracer.within(request, () -> Tracer.propagate(() -> {
+            active.set(Tracer.current());
+            published.set(tracer.startSpan("publish store store.created", Span.Kind.PRODUCER));
+        }));
+        executor.submit(task).get(5, TimeUnit.SECONDS);
+
+        assertSame(request, active.get());
+        assertEquals(request.getContext().getTraceId(), published.get().getContext().getTraceId());
+        assertEquals(request.getContext().getSpanId(), published.get().getParentId());
+        assertNull(executor.submit(Tracer::current).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Testa que sem span ativo a tarefa é executada como está.")
+    public void test_propagateSemSpanAtivo_devolveTarefa() {
+        Runnable task = () -> { };
+
+        assertSame(task, Tracer.propagate(task));
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.introspect.Annotated;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.netbull.apiloja.domain.store.Store;
 import com.netbull.apiloja.security.model.JwtRequest;
+import com.netbull.apiloja.security.model.RefreshRequest;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +14,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -24,9 +27,12 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -36,6 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class JwtAuthenticationControllerTest {
 
     private static final String URI_AUTH = "/authenticate";
+    private static final String URI_REFRESH = "/authenticate/refresh";
     private static final String URI_STORE = "/v1/stores";
 
     @Autowired
@@ -72,7 +79,7 @@ class JwtAuthenticationControllerTest {
         store.setPassword("123");
         store.setCorporateName("CRIS");
 
-        ResultActions resultCreated = this.mvc.perform(
+        ResultActions resultCreated = performAsync(
                         MockMvcRequestBuilders.post(URI_STORE)
                                 .accept(javax.ws.rs.core.MediaType.APPLICATION_JSON)
                                 .contentType(javax.ws.rs.core.MediaType.APPLICATION_JSON)
@@ -85,16 +92,23 @@ class JwtAuthenticationControllerTest {
         assertEquals("Loja criada.", messageResultCreated);
     }
 
+    private ResultActions authenticate(JwtRequest jwtRequest) throws Exception {
+        MvcResult asyncResult = this.mvc.perform(
+                        MockMvcRequestBuilders.post(URI_AUTH)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(jwtRequest))
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+
+        return this.mvc.perform(asyncDispatch(asyncResult)).andDo(print());
+    }
+
     @Test
     @DisplayName("Testa autenticação sem dados para login")
     public void test_envioCamposSemDados_retona400() throws Exception {
 
-        ResultActions resultActions = this.mvc.perform(
-                        MockMvcRequestBuilders.post(URI_AUTH)
-                                .accept(MediaType.APPLICATION_JSON)
-                                .contentType(MediaType.APPLICATION_JSON)
-                                .content(mapper.writeValueAsString(new JwtRequest()))
-                ).andDo(print())
+        ResultActions resultActions = authenticate(new JwtRequest())
                 .andExpect(status().isBadRequest());
 
         assertEquals("Credencial inválida.", resultActions.andReturn().getResponse().getContentAsString());
@@ -107,12 +121,7 @@ class JwtAuthenticationControllerTest {
 
         JwtRequest jwtRequest = new JwtRequest("cris@dewes", "admin");
 
-        ResultActions resultActionsPasswordIncorret = this.mvc.perform(
-                        MockMvcRequestBuilders.post(URI_AUTH)
-                                .accept(MediaType.APPLICATION_JSON)
-                                .contentType(MediaType.APPLICATION_JSON)
-                                .content(mapper.writeValueAsString(jwtRequest))
-                ).andDo(print())
+        ResultActions resultActionsPasswordIncorret = authenticate(jwtRequest)
                 .andExpect(status().isBadRequest());
 
         assertEquals("Credencial inválida.", resultActionsPasswordIncorret
@@ -123,12 +132,7 @@ class JwtAuthenticationControllerTest {
         jwtRequest.setPassword("abc");
         jwtRequest.setUsername("email@");
 
-        ResultActions resultActionsEmailIncorret = this.mvc.perform(
-                        MockMvcRequestBuilders.post(URI_AUTH)
-                                .accept(MediaType.APPLICATION_JSON)
-                                .contentType(MediaType.APPLICATION_JSON)
-                                .content(mapper.writeValueAsString(jwtRequest))
-                ).andDo(print())
+        ResultActions resultActionsEmailIncorret = authenticate(jwtRequest)
                 .andExpect(status().isBadRequest());
 
         assertEquals("Credencial inválida.", resultActionsEmailIncorret
@@ -139,12 +143,7 @@ class JwtAuthenticationControllerTest {
         jwtRequest.setPassword("abc");
         jwtRequest.setUsername("email@");
 
-        ResultActions resultActionsEmailANDPasswordIncorret = this.mvc.perform(
-                        MockMvcRequestBuilders.post(URI_AUTH)
-                                .accept(MediaType.APPLICATION_JSON)
-                                .contentType(MediaType.APPLICATION_JSON)
-                                .content(mapper.writeValueAsString(jwtRequest))
-                ).andDo(print())
+        ResultActions resultActionsEmailANDPasswordIncorret = authenticate(jwtRequest)
                 .andExpect(status().isBadRequest());
 
         assertEquals("Credencial inválida.", resultActionsEmailANDPasswordIncorret
@@ -159,19 +158,86 @@ class JwtAuthenticationControllerTest {
 
         JwtRequest jwtRequest = new JwtRequest("crisdewes25@dewes", "123");
 
+        ResultActions resultActions = authenticate(jwtRequest)
+                .andExpect(status().isOk());
+
+        HashMap<String, String> jwtResponse = mapper.readValue(resultActions
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), HashMap.class);
+
+        assertTrue(jwtResponse.containsKey("jwtToken"));
+        assertTrue(jwtResponse.containsKey("refreshToken"));
+    }
+
+    @Test
+    @DisplayName("Testa renovação do token com refresh token válido e reutilizado.")
+    public void test_renovacaoComRefreshToken() throws Exception {
+
+        HashMap<String, String> loginResponse = mapper.readValue(authenticate(
+                        new JwtRequest("crisdewes25@dewes", "123"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), HashMap.class);
+
+        RefreshRequest refreshRequest = new RefreshRequest(loginResponse.get("refreshToken"));
+
         ResultActions resultActions = this.mvc.perform(
-                        MockMvcRequestBuilders.post(URI_AUTH)
+                        MockMvcRequestBuilders.post(URI_REFRESH)
                                 .accept(MediaType.APPLICATION_JSON)
                                 .contentType(MediaType.APPLICATION_JSON)
-                                .content(mapper.writeValueAsString(jwtRequest))
+                                .content(mapper.writeValueAsString(refreshRequest))
                 ).andDo(print())
                 .andExpect(status().isOk());
 
-        HashMap<String, String> jwtResponse = mapper.readValue(resultActions
+        HashMap<String, String> refreshResponse = mapper.readValue(resultActions
                 .andReturn()
                 .getResponse()
                 .getContentAsString(), HashMap.class);
 
-        assertTrue(jwtResponse.containsKey("jwtToken"));
+        assertTrue(refreshResponse.containsKey("jwtToken"));
+        assertNotEquals(loginResponse.get("refreshToken"), refreshResponse.get("refreshToken"));
+
+        ResultActions resultActionsReused = this.mvc.perform(
+                        MockMvcRequestBuilders.post(URI_REFRESH)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(refreshRequest))
+                ).andDo(print())
+                .andExpect(status().isUnauthorized());
+
+        assertEquals("Token inválido.", resultActionsReused.andReturn().getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Testa renovação do token usando o token de acesso.")
+    public void test_renovacaoComTokenDeAcesso_retorna401() throws Exception {
+
+        HashMap<String, String> loginResponse = mapper.readValue(authenticate(
+                        new JwtRequest("crisdewes25@dewes", "123"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), HashMap.class);
+
+        this.mvc.perform(
+                        MockMvcRequestBuilders.post(URI_REFRESH)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(new RefreshRequest(loginResponse.get("jwtToken"))))
+                ).andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Cadastro e alteração de loja respondem de forma assíncrona (o hash da senha roda no pool do BCrypt).
+     */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult asyncResult = this.mvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return this.mvc.perform(asyncDispatch(asyncResult));
     }
-}
\ No newline at end of file
+}
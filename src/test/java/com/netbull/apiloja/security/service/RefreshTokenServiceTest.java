@@ -0,0 +1,124 @@
+package com.netbull.apiloja.security.service;
+
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.domain.store.refreshToken.RefreshTokenRepository;
+import com.netbull.apiloja.security.model.JwtResponse;
+import com.netbull.apiloja.security.utility.JwtTokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Roda contra o banco (H2) porque o uso único do refresh token depende do update condicional,
+ * que um mock do repositório não exercita.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=none"
+})
+@Import({RefreshTokenService.class, JwtTokenUtil.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenServiceTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    private Store store;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        refreshTokenRepository.deleteAll();
+        storeRepository.deleteAll();
+
+        Store store = new Store();
+        store.setCnpj("11111111111111");
+        store.setCorporateName("Loja");
+        store.setEmail("a@a");
+        store.setPhone("11111111111");
+        store.setPassword("senha");
+        this.store = storeRepository.save(store);
+    }
+
+    @Test
+    @DisplayName("Testa renovação e reuso do refresh token.")
+    public void test_quandoTokenReutilizado_revogaTodosOsTokensDaLoja() {
+        String token = refreshTokenService.createRefreshToken(store, store.getEmail());
+
+        JwtResponse renewed = refreshTokenService.refresh(token);
+        assertNotEquals(token, renewed.getRefreshToken());
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh(token));
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh(renewed.getRefreshToken()));
+    }
+
+    @Test
+    @DisplayName("Testa renovações simultâneas com o mesmo refresh token.")
+    public void test_quandoTokenUsadoAoMesmoTempo_somenteUmaRenovacaoPassa() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String token = refreshTokenService.createRefreshToken(store, store.getEmail());
+                CyclicBarrier barrier = new CyclicBarrier(2);
+
+                Callable<JwtResponse> refresh = () -> {
+                    barrier.await(5, TimeUnit.SECONDS);
+                    return refreshTokenService.refresh(token);
+                };
+
+                List<Future<JwtResponse>> results = new ArrayList<>();
+                results.add(executor.submit(refresh));
+                results.add(executor.submit(refresh));
+
+                int renewed = 0;
+                int rejected = 0;
+                for (Future<JwtResponse> result : results) {
+                    try {
+                        result.get(10, TimeUnit.SECONDS);
+                        renewed++;
+                    } catch (ExecutionException e) {
+                        assertTrue(e.getCause() instanceof BadCredentialsException, e.getCause().toString());
+                        rejected++;
+                    }
+                }
+
+                assertEquals(1, renewed, "rodada " + round);
+                assertEquals(1, rejected, "rodada " + round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.introspect.Annotated;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -41,6 +42,9 @@ public class JwtRequestFilterTest {
     @Autowired
     private ObjectMapper mapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private JwtRequestFilter jwtRequestFilter;
 
     private MockMvc mvc;
@@ -99,4 +103,21 @@ public class JwtRequestFilterTest {
                 resultActions2.andReturn().getResponse().getContentAsString());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Testa contagem dos resultados da validação do token.")
+    public void test_filtroContaResultadoDaValidacao() throws Exception {
+        double invalid = meterRegistry.counter("security.jwt.validations", "outcome", "invalid").count();
+        double malformedHeader = meterRegistry.counter("security.jwt.validations",
+                "outcome", "malformed_header").count();
+
+        this.mvc.perform(MockMvcRequestBuilders.get(URI_ADDRESS).header("Authorization", "Bearer asasdf"))
+                .andExpect(status().isUnauthorized());
+        this.mvc.perform(MockMvcRequestBuilders.get(URI_ADDRESS).header("Authorization", "asasdf"))
+                .andExpect(status().isUnauthorized());
+
+        assertEquals(invalid + 1,
+                meterRegistry.counter("security.jwt.validations", "outcome", "invalid").count());
+        assertEquals(malformedHeader + 1,
+                meterRegistry.counter("security.jwt.validations", "outcome", "malformed_header").count());
+    }
+}
@@ -0,0 +1,80 @@
+package com.netbull.apiloja.security.utility;
+
+import com.netbull.apiloja.security.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private RateLimitProperties properties;
+
+    private RateLimitProperties.Route route;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        this.route = new RateLimitProperties.Route();
+        route.setName("orders");
+        route.setPattern("/v1/stores/orders/**");
+        route.setCapacity(2);
+        route.setRefillPerSecond(0.001);
+
+        this.properties = new RateLimitProperties();
+        properties.setMaxKeys(1);
+        properties.getRoutes().add(route);
+
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.rateLimiter = new RateLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Testa limite quando a rajada da rota é ultrapassada.")
+    public void test_quandoRajadaUltrapassada_rejeita() {
+        assertEquals(0, rateLimiter.acquire(route, "store:1"));
+        assertEquals(0, rateLimiter.acquire(route, "store:1"));
+        assertTrue(rateLimiter.acquire(route, "store:1") > 0);
+
+        assertEquals(1, meterRegistry.counter("rate.limit.requests",
+                "route", "orders", "outcome", "rejected").count());
+    }
+
+    @Test
+    @DisplayName("Testa limite quando o mapa de buckets está cheio.")
+    public void test_quandoMapaCheio_descartaBucketMenosUsado() {
+        assertEquals(0, rateLimiter.acquire(route, "store:1"));
+        assertEquals(0, rateLimiter.acquire(route, "store:1"));
+        assertTrue(rateLimiter.acquire(route, "store:1") > 0);
+
+        assertEquals(0, rateLimiter.acquire(route, "store:2"));
+        assertEquals(0, rateLimiter.acquire(route, "store:2"));
+        assertTrue(rateLimiter.acquire(route, "store:2") > 0);
+
+        assertEquals(0, rateLimiter.acquire(route, "store:3"));
+
+        assertEquals(2, meterRegistry.counter("rate.limit.buckets.evicted.lru").count());
+        assertEquals(1, meterRegistry.get("rate.limit.buckets").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Testa descarte dos buckets ociosos.")
+    public void test_quandoBucketsOciosos_descarta() {
+        assertEquals(0, rateLimiter.acquire(route, "store:1"));
+        assertEquals(1, meterRegistry.get("rate.limit.buckets").gauge().value());
+
+        properties.setIdleTimeout(Duration.ZERO);
+        rateLimiter.evictIdleBuckets();
+
+        assertEquals(0, meterRegistry.get("rate.limit.buckets").gauge().value());
+        assertEquals(1, meterRegistry.counter("rate.limit.buckets.evicted").count());
+    }
+}
@@ -8,7 +8,9 @@ import com.netbull.apiloja.domain.order.client.Client;
 import com.netbull.apiloja.domain.order.product.ProductOrder;
 import com.netbull.apiloja.domain.product.Product;
 import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.change.ProductChangeType;
 import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.utility.CatalogVersion;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -25,10 +27,12 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.*;
@@ -45,6 +49,10 @@ class OrderServiceTest {
 
     RabbitTemplate rabbitTemplate;
 
+    CatalogVersion catalogVersion;
+
+    ProductChangeLog productChangeLog;
+
     OrderService orderService;
 
     Pageable pageable;
@@ -60,8 +68,10 @@ class OrderServiceTest {
         this.productRepository = Mockito.mock(ProductRepository.class);
         this.rabbitTemplate = Mockito.mock(RabbitTemplate.class);
         this.pageable = Mockito.mock(Pageable.class);
+        this.catalogVersion = Mockito.mock(CatalogVersion.class);
+        this.productChangeLog = Mockito.mock(ProductChangeLog.class);
         this.orderService = new OrderService(orderRepository, storeService,
-                productRepository, rabbitTemplate);
+                productRepository, rabbitTemplate, catalogVersion, productChangeLog);
     }
 
     @Test
@@ -92,8 +102,8 @@ class OrderServiceTest {
         order.setClient(client);
 
         when(storeService.getStoreByID(any())).thenReturn(store);
-        when(productRepository.findProductsByStoreAndCode(eq(store), eq("123")))
-                .thenReturn(Optional.of(product));
+        when(productRepository.findProductsByStoreAndCodeIn(eq(store), eq(Set.of("123"))))
+                .thenReturn(List.of(product));
 
         orderService.persistOrder(order);
 
@@ -102,6 +112,62 @@ class OrderServiceTest {
         assertEquals(client, addressClient.getClient());
         assertEquals(order, productOrder.getOrder());
         then(orderRepository).should(times(1)).save(order);
+        then(productRepository).should(times(1)).findProductsByStoreAndCodeIn(any(), any());
+        then(catalogVersion).should(times(1)).bump(store.getId());
+        then(productChangeLog).should(times(1))
+                .record(eq(store.getId()), eq(ProductChangeType.UPDATED), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Testa persistir pedido quando um dos produtos não existe na loja.")
+    public void test_persistOrderQuandoProdutoNaoExiste_lancaException() {
+        assertNotNull(orderService);
+
+        ProductOrder productOrder = new ProductOrder();
+        productOrder.setQuantity(BigInteger.ONE);
+        productOrder.setCode("123");
+
+        Store store = new Store();
+        store.setId(BigInteger.ONE);
+
+        Order order = new Order();
+        order.setProducts(List.of(productOrder));
+        order.setAddress(new AddressClient());
+        order.setStore(store);
+        order.setClient(new Client());
+
+        when(storeService.getStoreByID(any())).thenReturn(store);
+        when(productRepository.findProductsByStoreAndCodeIn(any(), any())).thenReturn(List.of());
+
+        var assertThrows = assertThrows(NotFoundException.class,
+                () -> orderService.persistOrder(order));
+
+        assertEquals("Nenhum produto foi encontrado com o código: 123.", assertThrows.getMessage());
+        then(orderRepository).should(times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("Testa alteração do pedido para entregue recebido pela fila.")
+    public void test_alteracaoDoPedidoParaEntregue() {
+        assertNotNull(orderService);
+
+        Order order = new Order();
+        order.setId(BigInteger.ONE);
+        order.setState(OrderState.ENVIADO);
+
+        Order deliveredOrder = new Order();
+        deliveredOrder.setId(BigInteger.ONE);
+        deliveredOrder.setState(OrderState.ENTREGUE);
+        deliveredOrder.setOrderDelivered(LocalDate.now());
+
+        when(orderRepository.findById(any())).thenReturn(Optional.of(order));
+
+        orderService.updateDeliveredOrder(deliveredOrder);
+
+        assertEquals(OrderState.ENTREGUE, order.getState());
+        assertEquals(LocalDate.now(), order.getOrderDelivered());
+        then(orderRepository).should(times(1)).save(order);
+        then(orderRepository).should(times(0)).findDetailedById(any());
     }
 
     @Test
@@ -109,7 +175,7 @@ class OrderServiceTest {
     public void test_alteracaoDoPedidoParaEnviadoQuandoNaoEncontra_lancaException() {
         assertNotNull(orderService);
 
-        when(orderRepository.findById(any())).thenReturn(Optional.empty());
+        when(orderRepository.findDetailedById(any())).thenReturn(Optional.empty());
         var assertThrows = assertThrows(NotFoundException.class,
                 () -> orderService.setOrderStateToDispatched(BigInteger.ONE, "", OrderState.ENVIADO));
 
@@ -130,7 +196,7 @@ class OrderServiceTest {
         order.setState(OrderState.ENTREGUE);
         order.setOrderDelivered(LocalDate.now());
 
-        when(orderRepository.findById(any())).thenReturn(Optional.of(order));
+        when(orderRepository.findDetailedById(any())).thenReturn(Optional.of(order));
 
         var assertThrows = assertThrows(IllegalArgumentException.class,
                 () -> orderService.setOrderStateToDispatched(BigInteger.ONE, "a@a", OrderState.ENVIADO));
@@ -152,7 +218,7 @@ class OrderServiceTest {
         order.setStore(store);
         order.setState(OrderState.CRIADO);
 
-        when(orderRepository.findById(any())).thenReturn(Optional.of(order));
+        when(orderRepository.findDetailedById(any())).thenReturn(Optional.of(order));
 
         var assertThrows = assertThrows(NotFoundException.class,
                 () -> orderService.setOrderStateToDispatched(BigInteger.ONE, "t", OrderState.ENTREGUE));
@@ -173,7 +239,7 @@ class OrderServiceTest {
         order.setStore(store);
         order.setState(OrderState.CRIADO);
 
-        when(orderRepository.findById(any())).thenReturn(Optional.of(order));
+        when(orderRepository.findDetailedById(any())).thenReturn(Optional.of(order));
         var assertThrows = assertThrows(IllegalArgumentException.class,
                 () -> orderService.setOrderStateToDispatched(BigInteger.ONE, "a@A", OrderState.CRIADO));
 
@@ -199,7 +265,7 @@ class OrderServiceTest {
         order.setStore(store);
         order.setState(OrderState.CRIADO);
 
-        when(orderRepository.findById(any())).thenReturn(Optional.of(order));
+        when(orderRepository.findDetailedById(any())).thenReturn(Optional.of(order));
 
         orderService.setOrderStateToDispatched(BigInteger.ONE, store.getEmail(), OrderState.ENVIADO);
 
@@ -242,5 +308,6 @@ class OrderServiceTest {
 
         assertNotNull(ordersPageGet);
         assertEquals(ordersArray.size(), ordersPageGet.size());
+        then(orderRepository).should(times(1)).fetchProducts(ordersPage.getContent());
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package com.netbull.apiloja.service;
+
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.change.ProductChange;
+import com.netbull.apiloja.domain.product.change.ProductChangeRepository;
+import com.netbull.apiloja.domain.product.change.ProductChangeType;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.utility.OptimisticLockRetryAspect;
+import com.netbull.apiloja.utility.RestResponseExceptionHandler;
+import com.netbull.apiloja.utility.RetryOnOptimisticLock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Sobe o feed de alterações junto com o {@link OptimisticLockRetryAspect}: com alterações
+ * pendentes o primeiro flush da transação, onde a versão é conferida, acontece no beforeCommit
+ * do feed, e o conflito tem de sair dali como a exceção do Spring que o aspecto repete.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=none"
+})
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({ProductChangeLog.class, OptimisticLockRetryAspect.class, ProductChangeLogRetryTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductChangeLogRetryTest {
+
+    @Autowired
+    private PriceWriter priceWriter;
+
+    @Autowired
+    private ProductChangeLog productChangeLog;
+
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("Testa que o conflito de versão no flush do feed é repetido e registra uma alteração só.")
+    public void test_quandoConflitoNoFlushDoFeed_repeteEmNovaTransacao() {
+        Product product = productRepository.save(product(store("11111111111111", "a@a", "11111111111")));
+
+        priceWriter.reset(1);
+        priceWriter.patchPrice(product.getId(), BigDecimal.TEN);
+
+        Product saved = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(2, priceWriter.attempts());
+        assertEquals(0, BigDecimal.TEN.compareTo(saved.getPrice()));
+        assertEquals(BigInteger.valueOf(99), saved.getQuantity());
+
+        List<ProductChange> changes = productChangeRepository.findByStoreIdAndSequenceGreaterThanOrderBySequence(
+                saved.getStore().getId(), 0, PageRequest.of(0, 10));
+        assertEquals(1, changes.size());
+        assertEquals(1, changes.get(0).getSequence());
+    }
+
+    @Test
+    @DisplayName("Testa que o conflito no flush do feed vira 409 quando as tentativas se esgotam.")
+    public void test_quandoConflitoNoFlushDoFeedPersiste_responde409() {
+        Product product = productRepository.save(product(store("22222222222222", "b@b", "22222222222")));
+
+        priceWriter.reset(Integer.MAX_VALUE);
+
+        var assertThrows = assertThrows(OptimisticLockingFailureException.class,
+                () -> priceWriter.patchPrice(product.getId(), BigDecimal.TEN));
+
+        assertEquals(3, priceWriter.attempts());
+        assertEquals(HttpStatus.CONFLICT, new RestResponseExceptionHandler()
+                .handleOptimisticLocking(assertThrows, null).getStatusCode());
+        assertEquals(0, productChangeRepository.findByStoreIdAndSequenceGreaterThanOrderBySequence(
+                product.getStore().getId(), 0, PageRequest.of(0, 10)).size());
+    }
+
+    private Store store(String cnpj, String email, String phone) {
+        Store store = new Store();
+        store.setCnpj(cnpj);
+        store.setCorporateName("Loja");
+        store.setEmail(email);
+        store.setPhone(phone);
+        store.setPassword("senha");
+        store = storeRepository.save(store);
+        productChangeLog.openFeed(store.getId());
+        return store;
+    }
+
+    private Product product(Store store) {
+        Product product = new Product();
+        product.setName("TV");
+        product.setCode("TV1");
+        product.setPrice(BigDecimal.ONE);
+        product.setQuantity(BigInteger.valueOf(100));
+        product.setStore(store);
+        return product;
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        PriceWriter priceWriter(ProductRepository productRepository, ProductChangeLog productChangeLog,
+                                PlatformTransactionManager transactionManager) {
+            return new PriceWriter(productRepository, productChangeLog, transactionManager);
+        }
+    }
+
+    /**
+     * Altera o preço e registra a alteração no feed como o ProductService e, enquanto restarem
+     * conflitos, grava o mesmo produto em outra transação antes do commit.
+     */
+    static class PriceWriter {
+
+        private final ProductRepository productRepository;
+
+        private final ProductChangeLog productChangeLog;
+
+        private final TransactionTemplate concurrentWriter;
+
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private final AtomicInteger conflicts = new AtomicInteger();
+
+        PriceWriter(ProductRepository productRepository, ProductChangeLog productChangeLog,
+                    PlatformTransactionManager transactionManager) {
+            this.productRepository = productRepository;
+            this.productChangeLog = productChangeLog;
+            this.concurrentWriter = new TransactionTemplate(transactionManager);
+            this.concurrentWriter.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+
+        @RetryOnOptimisticLock
+        @Transactional
+        public void patchPrice(BigInteger id, BigDecimal price) {
+            attempts.incrementAndGet();
+
+            Product product = productRepository.findById(id).orElseThrow();
+            product.setPrice(price);
+            productRepository.save(product);
+            productChangeLog.record(product.getStore().getId(), ProductChangeType.UPDATED, product);
+
+            if (conflicts.getAndDecrement() > 0) {
+                concurrentWriter.executeWithoutResult(status -> {
+                    Product concurrent = productRepository.findById(id).orElseThrow();
+                    concurrent.setQuantity(concurrent.getQuantity().subtract(BigInteger.ONE));
+                });
+            }
+        }
+
+        public void reset(int conflicts) {
+            this.attempts.set(0);
+            this.conflicts.set(conflicts);
+        }
+
+        public int attempts() {
+            return attempts.get();
+        }
+    }
+}
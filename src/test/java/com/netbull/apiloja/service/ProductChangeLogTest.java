@@ -0,0 +1,170 @@
+package com.netbull.apiloja.service;
+
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.change.*;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.NotFoundException;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductChangeLogTest {
+
+    private ProductChangeRepository productChangeRepository;
+
+    private ProductChangeSequenceRepository productChangeSequenceRepository;
+
+    private ProductRepository productRepository;
+
+    private StoreRepository storeRepository;
+
+    private EntityManager entityManager;
+
+    private ProductChangeLog productChangeLog;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        this.productChangeRepository = Mockito.mock(ProductChangeRepository.class);
+        this.productChangeSequenceRepository = Mockito.mock(ProductChangeSequenceRepository.class);
+        this.productRepository = Mockito.mock(ProductRepository.class);
+        this.storeRepository = Mockito.mock(StoreRepository.class);
+        this.entityManager = Mockito.mock(EntityManager.class);
+        this.productChangeLog = new ProductChangeLog(productChangeRepository, productChangeSequenceRepository,
+                productRepository, storeRepository, entityManager);
+        ReflectionTestUtils.setField(productChangeLog, "maxPageSize", 1000);
+        ReflectionTestUtils.setField(productChangeLog, "retentionDays", 7);
+        ReflectionTestUtils.setField(productChangeLog, "compactionChunkSize", 1000);
+    }
+
+    @Test
+    @DisplayName("Testa registro de alterações, verificando se a sequência da loja avança por produto no commit.")
+    @SuppressWarnings("unchecked")
+    public void test_registraAlteracoes() {
+        ProductChangeSequence sequence = new ProductChangeSequence(BigInteger.ONE);
+        sequence.setLastSequence(10);
+
+        when(productChangeSequenceRepository.findForUpdate(BigInteger.ONE)).thenReturn(Optional.of(sequence));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productChangeLog.record(BigInteger.ONE, ProductChangeType.UPDATED,
+                    List.of(product(BigInteger.ONE), product(BigInteger.TWO)));
+
+            then(productChangeSequenceRepository).should(never()).findForUpdate(any());
+            then(productChangeRepository).should(never()).saveAll(any());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.beforeCommit(false));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<List<ProductChange>> captor = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(entityManager, productChangeSequenceRepository, productChangeRepository);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(productChangeSequenceRepository).findForUpdate(BigInteger.ONE);
+        inOrder.verify(productChangeRepository).saveAll(captor.capture());
+
+        assertEquals(12, sequence.getLastSequence());
+        assertEquals(List.of(11L, 12L), captor.getValue().stream().map(ProductChange::getSequence)
+                .collect(Collectors.toList()));
+        assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testa busca de alterações com cursor anterior à compactação.")
+    public void test_buscaAlteracoesQuandoCursorCompactado_lancaException() {
+        ProductChangeSequence sequence = new ProductChangeSequence(BigInteger.ONE);
+        sequence.setCompactedThrough(50);
+
+        when(productChangeSequenceRepository.findById(BigInteger.ONE)).thenReturn(Optional.of(sequence));
+
+        var assertThrows = assertThrows(ClientErrorException.class,
+                () -> productChangeLog.getChanges(BigInteger.ONE, 10, 100));
+
+        assertEquals(410, assertThrows.getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("Testa busca de alterações quando a loja não existe.")
+    public void test_buscaAlteracoesQuandoLojaNaoExiste_lancaException() {
+        when(productChangeSequenceRepository.findById(any())).thenReturn(Optional.empty());
+        when(storeRepository.existsById(any())).thenReturn(false);
+
+        var assertThrows = assertThrows(NotFoundException.class,
+                () -> productChangeLog.getChanges(BigInteger.ONE, 0, 100));
+
+        assertEquals("Loja não encontrada.", assertThrows.getMessage());
+    }
+
+    @Test
+    @DisplayName("Testa busca de alterações, mantendo só a mais nova de cada produto na página.")
+    public void test_buscaAlteracoes() {
+        when(productChangeSequenceRepository.findById(BigInteger.ONE))
+                .thenReturn(Optional.of(new ProductChangeSequence(BigInteger.ONE)));
+        when(productChangeRepository.findByStoreIdAndSequenceGreaterThanOrderBySequence(eq(BigInteger.ONE),
+                eq(0L), any()))
+                .thenReturn(List.of(
+                        change(1, BigInteger.ONE, ProductChangeType.CREATED),
+                        change(2, BigInteger.TWO, ProductChangeType.CREATED),
+                        change(3, BigInteger.ONE, ProductChangeType.UPDATED),
+                        change(4, BigInteger.TWO, ProductChangeType.DELETED)));
+        when(productRepository.findAllById(any()))
+                .thenReturn(List.of(product(BigInteger.ONE), product(BigInteger.TWO)));
+
+        ProductChangePage page = productChangeLog.getChanges(BigInteger.ONE, 0, 3);
+
+        assertTrue(page.isHasMore());
+        assertEquals(3, page.getNext());
+        assertEquals(2, page.getChanges().size());
+        assertEquals(BigInteger.TWO, page.getChanges().get(0).getProductId());
+        assertEquals(ProductChangeType.CREATED, page.getChanges().get(0).getType());
+        assertEquals(BigInteger.ONE, page.getChanges().get(1).getProductId());
+        assertEquals(ProductChangeType.UPDATED, page.getChanges().get(1).getType());
+        assertNotNull(page.getChanges().get(1).getProduct());
+    }
+
+    private Product product(BigInteger id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode(id.toString());
+        return product;
+    }
+
+    private ProductChange change(long sequence, BigInteger productId, ProductChangeType type) {
+        ProductChange change = new ProductChange();
+        change.setStoreId(BigInteger.ONE);
+        change.setSequence(sequence);
+        change.setProductId(productId);
+        change.setType(type);
+        change.setChangedAt(LocalDateTime.now());
+        return change;
+    }
+}
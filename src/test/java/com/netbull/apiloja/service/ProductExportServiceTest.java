@@ -0,0 +1,103 @@
+package com.netbull.apiloja.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductExportFormat;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.store.Store;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductExportServiceTest {
+
+    private ProductRepository productRepository;
+
+    private EntityManager entityManager;
+
+    private ProductExportService productExportService;
+
+    private Store store;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        this.productRepository = Mockito.mock(ProductRepository.class);
+        this.entityManager = Mockito.mock(EntityManager.class);
+        this.productExportService = new ProductExportService(productRepository, entityManager, new ObjectMapper());
+        ReflectionTestUtils.setField(productExportService, "flushRows", 1);
+
+        this.store = new Store();
+        this.store.setId(BigInteger.ONE);
+    }
+
+    @Test
+    @DisplayName("Testa exportação em CSV, escapando vírgulas e aspas.")
+    public void test_exportaCsv() throws IOException {
+        when(productRepository.streamProductsByStore(any()))
+                .thenReturn(Stream.of(product(BigInteger.ONE, "Caneta"), product(BigInteger.TWO, "Lápis, \"HB\"")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = productExportService.exportProducts(store, ProductExportFormat.CSV, out);
+
+        assertEquals(2, rows);
+        assertEquals("id,code,name,description,price,quantity,version\n" +
+                        "1,1,Caneta,,10.50,5,\n" +
+                        "2,2,\"Lápis, \"\"HB\"\"\",,10.50,5,\n",
+                out.toString(StandardCharsets.UTF_8));
+        then(entityManager).should(times(2)).detach(any());
+    }
+
+    @Test
+    @DisplayName("Testa exportação em NDJSON, com um produto por linha.")
+    public void test_exportaNdjson() throws IOException {
+        when(productRepository.streamProductsByStore(any()))
+                .thenReturn(Stream.of(product(BigInteger.ONE, "Caneta"), product(BigInteger.TWO, "Lápis")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = productExportService.exportProducts(store, ProductExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"Caneta\""));
+        assertTrue(lines[1].contains("\"name\":\"Lápis\""));
+        then(entityManager).should(times(2)).detach(any());
+    }
+
+    @Test
+    @DisplayName("Testa exportação com formato inválido.")
+    public void test_exportaFormatoInvalido_lancaException() {
+        var assertThrows = assertThrows(IllegalArgumentException.class,
+                () -> ProductExportFormat.of("xml"));
+
+        assertEquals("Formato de exportação inválido: xml.", assertThrows.getMessage());
+    }
+
+    private Product product(BigInteger id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode(id.toString());
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.50"));
+        product.setQuantity(BigInteger.valueOf(5));
+        return product;
+    }
+}
@@ -0,0 +1,136 @@
+package com.netbull.apiloja.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netbull.apiloja.domain.product.ProductExportFormat;
+import com.netbull.apiloja.domain.product.ProductImportReport;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.ws.rs.NotFoundException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductImportServiceTest {
+
+    private ProductService productService;
+
+    private ProductRepository productRepository;
+
+    private StoreRepository storeRepository;
+
+    private Validator validator;
+
+    private ProductImportService productImportService;
+
+    private Store store;
+
+    @BeforeAll
+    public void setupBeforAll() {
+        this.validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        this.productService = Mockito.mock(ProductService.class);
+        this.productRepository = Mockito.mock(ProductRepository.class);
+        this.storeRepository = Mockito.mock(StoreRepository.class);
+        this.productImportService = new ProductImportService(productService, productRepository, storeRepository,
+                validator, new ObjectMapper());
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(productImportService, "maxRows", 100L);
+        ReflectionTestUtils.setField(productImportService, "maxReportedErrors", 10);
+
+        this.store = new Store();
+        this.store.setId(BigInteger.ONE);
+    }
+
+    @Test
+    @DisplayName("Testa importação de CSV, gravando os válidos em blocos e reportando as linhas com erro.")
+    public void test_importaCsv() throws IOException {
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(store));
+        when(productRepository.findCodesByStore(any())).thenReturn(Set.of("A1"));
+
+        ProductImportReport report = productImportService.importProducts("a@a", ProductExportFormat.CSV, input(
+                "code,name,description,price,quantity\n" +
+                "A1,Caneta,,1.50,10\n" +
+                "B1,\"Lápis, HB\",\"Grafite\nmacio\",2.00,5\n" +
+                "B2,Borracha,,-1,5\n" +
+                "B3,Régua,,abc,5\n" +
+                "B4,Caderno,,10.00,3\n" +
+                "B5,Estojo,,8.00,1\n" +
+                "B4,Caderno,,10.00,3\n"));
+
+        assertEquals(7, report.getRows());
+        assertEquals(3, report.getCreated());
+        assertEquals(4, report.getFailed());
+        assertEquals(List.of("Já existe um produto com o mesmo código."), report.getErrors().get(0).getMessages());
+        assertEquals(List.of("O preço não pode ser menor que R$0,00."), report.getErrors().get(1).getMessages());
+        assertEquals(List.of("Linha inválida."), report.getErrors().get(2).getMessages());
+        assertEquals(4, report.getErrors().get(2).getRow());
+        then(productService).should(times(2)).persistImportedProducts(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Testa importação de NDJSON.")
+    public void test_importaNdjson() throws IOException {
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(store));
+        when(productRepository.findCodesByStore(any())).thenReturn(Set.of());
+
+        ProductImportReport report = productImportService.importProducts("a@a", ProductExportFormat.NDJSON, input(
+                "{\"code\":\"A1\",\"name\":\"Caneta\",\"price\":1.5,\"quantity\":10}\n" +
+                "\n" +
+                "{\"code\":\"A2\",\"name\":\n"));
+
+        assertEquals(2, report.getRows());
+        assertEquals(1, report.getCreated());
+        assertEquals(1, report.getFailed());
+        then(productService).should(times(1)).persistImportedProducts(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Testa importação de CSV sem coluna obrigatória.")
+    public void test_importaCsvSemColuna_lancaException() {
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(store));
+
+        var assertThrows = assertThrows(IllegalArgumentException.class,
+                () -> productImportService.importProducts("a@a", ProductExportFormat.CSV, input("code,name\n")));
+
+        assertEquals("O cabeçalho do CSV não tem a coluna: price.", assertThrows.getMessage());
+    }
+
+    @Test
+    @DisplayName("Testa importação quando a loja não existe.")
+    public void test_importaQuandoLojaNaoExiste_lancaException() {
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class,
+                () -> productImportService.importProducts("a@a", ProductExportFormat.NDJSON, input("")));
+    }
+
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
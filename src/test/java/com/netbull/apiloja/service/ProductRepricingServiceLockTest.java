@@ -0,0 +1,191 @@
+package com.netbull.apiloja.service;
+
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.price.ProductPrice;
+import com.netbull.apiloja.domain.product.price.ProductPriceUpdate;
+import com.netbull.apiloja.domain.product.price.ProductPriceUpdateReport;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.utility.CatalogVersion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Reajuste contra o H2 com uma alteração de preço concorrente: a escrita de outra transação
+ * acontece entre a leitura do bloco e o update, a janela em que ela seria sobrescrita se o
+ * bloco não fosse lido com bloqueio.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=none"
+})
+@Import({ProductChangeLog.class, ProductRepricingServiceLockTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductRepricingServiceLockTest {
+
+    @Autowired
+    private ProductRepricingService productRepricingService;
+
+    @Autowired
+    private ConcurrentPriceWriter concurrentPriceWriter;
+
+    @Autowired
+    private ProductChangeLog productChangeLog;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("Testa que uma alteração de preço concorrente ao reajuste espera o bloco e falha na versão em vez de ser sobrescrita.")
+    public void test_quandoPrecoAlteradoDuranteReajuste_naoPerdeAlteracao() throws Exception {
+        Store store = new Store();
+        store.setCnpj("11111111111111");
+        store.setCorporateName("Loja");
+        store.setEmail("a@a");
+        store.setPhone("11111111111");
+        store.setPassword("senha");
+        store = storeRepository.save(store);
+        productChangeLog.openFeed(store.getId());
+
+        Product product = new Product();
+        product.setName("TV");
+        product.setCode("TV1");
+        product.setPrice(BigDecimal.TEN);
+        product.setQuantity(BigInteger.valueOf(100));
+        product.setStore(store);
+        product = productRepository.save(product);
+
+        ProductPriceUpdate update = new ProductPriceUpdate();
+        update.setPercentage(BigDecimal.TEN);
+
+        concurrentPriceWriter.arm(product.getId(), new BigDecimal("50.00"));
+        ProductPriceUpdateReport report = productRepricingService.updatePrices("a@a", update);
+
+        assertFalse(concurrentPriceWriter.completedBeforeUpdate());
+        var assertThrows = assertThrows(ExecutionException.class, concurrentPriceWriter::await);
+        assertTrue(assertThrows.getCause() instanceof OptimisticLockingFailureException);
+
+        assertEquals(1, report.getUpdated());
+        assertEquals(new BigDecimal("11.00"), productRepository.findById(product.getId()).orElseThrow().getPrice());
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        ConcurrentPriceWriter concurrentPriceWriter(ProductRepository productRepository,
+                                                    PlatformTransactionManager transactionManager) {
+            return new ConcurrentPriceWriter(productRepository, transactionManager);
+        }
+
+        @Bean
+        ProductRepricingService productRepricingService(ProductRepository productRepository,
+                                                        StoreRepository storeRepository, EntityManager entityManager,
+                                                        ProductChangeLog productChangeLog,
+                                                        ConcurrentPriceWriter concurrentPriceWriter) {
+            ProductRepository repository = Mockito.mock(ProductRepository.class,
+                    AdditionalAnswers.delegatesTo(productRepository));
+            doAnswer(invocation -> {
+                List<ProductPrice> prices = productRepository.findPricesByStoreAfterForUpdate(
+                        invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+                concurrentPriceWriter.runIfArmed();
+                return prices;
+            }).when(repository).findPricesByStoreAfterForUpdate(any(), any(), any());
+
+            return new ProductRepricingService(repository, storeRepository, entityManager,
+                    Mockito.mock(RabbitTemplate.class), Mockito.mock(CatalogVersion.class), productChangeLog);
+        }
+    }
+
+    /**
+     * Altera o preço como o patchProductPrice, em outra thread e outra transação, e dá a ela tempo
+     * de gravar antes de o reajuste seguir para o update.
+     */
+    static class ConcurrentPriceWriter {
+
+        private final ProductRepository productRepository;
+
+        private final TransactionTemplate transactionTemplate;
+
+        private BigInteger productId;
+
+        private BigDecimal price;
+
+        private CompletableFuture<Void> write;
+
+        private boolean completedBeforeUpdate;
+
+        ConcurrentPriceWriter(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+            this.productRepository = productRepository;
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+
+        void arm(BigInteger productId, BigDecimal price) {
+            this.productId = productId;
+            this.price = price;
+        }
+
+        void runIfArmed() throws InterruptedException {
+            if (productId == null) {
+                return;
+            }
+
+            CountDownLatch read = new CountDownLatch(1);
+            BigInteger id = productId;
+            productId = null;
+
+            write = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                Product product = productRepository.findById(id).orElseThrow();
+                read.countDown();
+                product.setPrice(price);
+            }));
+
+            read.await(5, TimeUnit.SECONDS);
+            try {
+                write.get(300, TimeUnit.MILLISECONDS);
+                completedBeforeUpdate = true;
+            } catch (TimeoutException | ExecutionException e) {
+                completedBeforeUpdate = false;
+            }
+        }
+
+        boolean completedBeforeUpdate() {
+            return completedBeforeUpdate;
+        }
+
+        void await() throws Exception {
+            write.get(5, TimeUnit.SECONDS);
+        }
+    }
+}
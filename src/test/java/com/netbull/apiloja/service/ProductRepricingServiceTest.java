@@ -0,0 +1,196 @@
+package com.netbull.apiloja.service;
+
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.change.ProductChangeType;
+import com.netbull.apiloja.domain.product.price.*;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.utility.CatalogVersion;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductRepricingServiceTest {
+
+    private ProductRepository productRepository;
+
+    private StoreRepository storeRepository;
+
+    private EntityManager entityManager;
+
+    private Query query;
+
+    private RabbitTemplate rabbitTemplate;
+
+    private CatalogVersion catalogVersion;
+
+    private ProductChangeLog productChangeLog;
+
+    private ProductRepricingService productRepricingService;
+
+    private Store store;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        this.productRepository = Mockito.mock(ProductRepository.class);
+        this.storeRepository = Mockito.mock(StoreRepository.class);
+        this.entityManager = Mockito.mock(EntityManager.class);
+        this.query = Mockito.mock(Query.class);
+        this.rabbitTemplate = Mockito.mock(RabbitTemplate.class);
+        this.catalogVersion = Mockito.mock(CatalogVersion.class);
+        this.productChangeLog = Mockito.mock(ProductChangeLog.class);
+        this.productRepricingService = new ProductRepricingService(productRepository, storeRepository,
+                entityManager, rabbitTemplate, catalogVersion, productChangeLog);
+        ReflectionTestUtils.setField(productRepricingService, "chunkSize", 2);
+        ReflectionTestUtils.setField(productRepricingService, "maxItems", 10);
+
+        this.store = new Store();
+        this.store.setId(BigInteger.ONE);
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(store));
+    }
+
+    @Test
+    @DisplayName("Testa reajuste por código e por id, bloqueando e gravando os produtos juntos em ordem de id.")
+    public void test_reajustaPorCodigoEId() {
+        when(entityManager.createQuery(anyString())).thenReturn(query);
+        when(productRepository.findPricesByStoreAndCodeIn(any(), any()))
+                .thenReturn(List.of(new ProductPrice(BigInteger.ONE, "A1", new BigDecimal("10.00"))));
+        when(productRepository.findPricesByStoreAndIdInForUpdate(any(), eq(List.of(BigInteger.ONE, BigInteger.TWO))))
+                .thenReturn(List.of(new ProductPrice(BigInteger.ONE, "A1", new BigDecimal("10.00")),
+                        new ProductPrice(BigInteger.TWO, "B1", new BigDecimal("20.00"))));
+        when(productRepository.findPricesByStoreAndIdInForUpdate(any(), eq(List.of(BigInteger.TEN))))
+                .thenReturn(List.of());
+
+        ProductPriceUpdate update = new ProductPriceUpdate();
+        update.setItems(List.of(
+                item(BigInteger.TWO, null, null, new BigDecimal("-10")),
+                item(BigInteger.TEN, null, new BigDecimal("1.00"), null),
+                item(null, "A1", new BigDecimal("12.00"), null)));
+
+        ProductPriceUpdateReport report = productRepricingService.updatePrices("a@a", update);
+
+        assertEquals(2, report.getUpdated());
+        assertEquals(List.of("10"), report.getNotFound());
+        then(query).should(times(1)).executeUpdate();
+        then(query).should(times(1)).setParameter("id0", BigInteger.ONE);
+        then(query).should(times(1)).setParameter("price0", new BigDecimal("12.00"));
+        then(query).should(times(1)).setParameter("id1", BigInteger.TWO);
+        then(query).should(times(1)).setParameter("price1", new BigDecimal("18.00"));
+        then(productChangeLog).should(times(1)).recordAll(store.getId(), ProductChangeType.UPDATED,
+                Map.of(BigInteger.ONE, "A1", BigInteger.TWO, "B1"));
+        then(rabbitTemplate).should(times(1)).convertAndSend(eq("product"), eq("product.price.updated"),
+                any(ProductPriceChanged.class));
+        then(catalogVersion).should(times(1)).bump(store.getId());
+    }
+
+    @Test
+    @DisplayName("Testa reajuste dentro de transação, publicando os eventos dos blocos só depois do commit.")
+    public void test_reajusteDentroDeTransacao_publicaDepoisDoCommit() {
+        when(entityManager.createQuery(anyString())).thenReturn(query);
+        when(productRepository.findPricesByStoreAfterForUpdate(any(), eq(BigInteger.ZERO), any()))
+                .thenReturn(List.of(new ProductPrice(BigInteger.ONE, "A1", new BigDecimal("10.00")),
+                        new ProductPrice(BigInteger.TWO, "A2", new BigDecimal("20.00"))));
+        when(productRepository.findPricesByStoreAfterForUpdate(any(), eq(BigInteger.TWO), any()))
+                .thenReturn(List.of(new ProductPrice(BigInteger.TEN, "A3", new BigDecimal("30.00"))));
+        when(productRepository.findPricesByStoreAfterForUpdate(any(), eq(BigInteger.TEN), any()))
+                .thenReturn(List.of());
+
+        ProductPriceUpdate update = new ProductPriceUpdate();
+        update.setPercentage(BigDecimal.TEN);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productRepricingService.updatePrices("a@a", update);
+
+            then(query).should(times(2)).executeUpdate();
+            then(rabbitTemplate).should(never()).convertAndSend(anyString(), anyString(), any(Object.class));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        then(rabbitTemplate).should(times(2)).convertAndSend(eq("product"), eq("product.price.updated"),
+                any(ProductPriceChanged.class));
+    }
+
+    @Test
+    @DisplayName("Testa reajuste percentual do catálogo inteiro, percorrendo os produtos em blocos.")
+    public void test_reajustaCatalogo() {
+        when(entityManager.createQuery(anyString())).thenReturn(query);
+        when(productRepository.findPricesByStoreAfterForUpdate(any(), eq(BigInteger.ZERO), any()))
+                .thenReturn(List.of(new ProductPrice(BigInteger.ONE, "A1", new BigDecimal("10.00")),
+                        new ProductPrice(BigInteger.TWO, "A2", new BigDecimal("20.00"))));
+        when(productRepository.findPricesByStoreAfterForUpdate(any(), eq(BigInteger.TWO), any()))
+                .thenReturn(List.of());
+
+        ProductPriceUpdate update = new ProductPriceUpdate();
+        update.setPercentage(BigDecimal.TEN);
+
+        ProductPriceUpdateReport report = productRepricingService.updatePrices("a@a", update);
+
+        assertEquals(2, report.getUpdated());
+        ArgumentCaptor<ProductPriceChanged> captor = ArgumentCaptor.forClass(ProductPriceChanged.class);
+        then(rabbitTemplate).should(times(1)).convertAndSend(eq("product"), eq("product.price.updated"),
+                captor.capture());
+        assertEquals(new BigDecimal("11.00"), captor.getValue().getChanges().get(0).getNewPrice());
+        assertEquals(new BigDecimal("22.00"), captor.getValue().getChanges().get(1).getNewPrice());
+    }
+
+    @Test
+    @DisplayName("Testa reajuste quando um item tem preço negativo.")
+    public void test_reajusteComPrecoNegativo_lancaException() {
+        ProductPriceUpdate update = new ProductPriceUpdate();
+        update.setItems(List.of(item(BigInteger.ONE, null, new BigDecimal("-1"), null)));
+
+        var assertThrows = assertThrows(IllegalArgumentException.class,
+                () -> productRepricingService.updatePrices("a@a", update));
+
+        assertEquals("O preço não pode ser negativo.", assertThrows.getMessage());
+        then(entityManager).should(times(0)).createQuery(anyString());
+    }
+
+    @Test
+    @DisplayName("Testa reajuste quando o item informa id e código.")
+    public void test_reajusteComIdECodigo_lancaException() {
+        ProductPriceUpdate update = new ProductPriceUpdate();
+        update.setItems(List.of(item(BigInteger.ONE, "A1", BigDecimal.ONE, null)));
+
+        var assertThrows = assertThrows(IllegalArgumentException.class,
+                () -> productRepricingService.updatePrices("a@a", update));
+
+        assertEquals("Informe o id ou o código de cada produto.", assertThrows.getMessage());
+    }
+
+    private ProductPriceUpdateItem item(BigInteger id, String code, BigDecimal price, BigDecimal percentage) {
+        ProductPriceUpdateItem item = new ProductPriceUpdateItem();
+        item.setId(id);
+        item.setCode(code);
+        item.setPrice(price);
+        item.setPercentage(percentage);
+        return item;
+    }
+}
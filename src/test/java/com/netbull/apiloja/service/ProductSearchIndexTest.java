@@ -0,0 +1,85 @@
+package com.netbull.apiloja.service;
+
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.store.Store;
+import org.junit.jupiter.api.*;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex productSearchIndex;
+
+    private Store store;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        this.productSearchIndex = new ProductSearchIndex(Mockito.mock(ProductRepository.class));
+
+        this.store = new Store();
+        this.store.setId(BigInteger.ONE);
+
+        productSearchIndex.index(product(1, "CAN-01", "Caneta azul", "Caneta esferográfica de ponta fina"));
+        productSearchIndex.index(product(2, "LAP-02", "Lápis preto", "Lápis de grafite para desenho"));
+        productSearchIndex.index(product(3, "CAD-03", "Caderno", "Caderno com capa de caneta desenhada"));
+    }
+
+    @Test
+    @DisplayName("Testa tokenização sem acentos, em minúsculas e sem stopwords.")
+    public void test_tokenizacao() {
+        assertEquals(List.of("lapis", "grafite", "acao"),
+                ProductSearchIndex.tokenize("Lápis de GRAFITE, ação!"));
+    }
+
+    @Test
+    @DisplayName("Testa busca por prefixo e sem acento, com o nome pesando mais que a descrição.")
+    public void test_buscaPorPrefixo() {
+        assertEquals(List.of(BigInteger.ONE, BigInteger.valueOf(3)),
+                productSearchIndex.search(BigInteger.ONE, "can", 10));
+        assertEquals(List.of(BigInteger.TWO), productSearchIndex.search(BigInteger.ONE, "lapis", 10));
+        assertEquals(List.of(BigInteger.TWO), productSearchIndex.search(BigInteger.ONE, "lap-02", 10));
+    }
+
+    @Test
+    @DisplayName("Testa busca com vários termos, exigindo todos.")
+    public void test_buscaComVariosTermos() {
+        assertEquals(List.of(BigInteger.valueOf(3)), productSearchIndex.search(BigInteger.ONE, "caderno caneta", 10));
+        assertEquals(List.of(), productSearchIndex.search(BigInteger.ONE, "caderno grafite", 10));
+    }
+
+    @Test
+    @DisplayName("Testa limite de resultados.")
+    public void test_limite() {
+        assertEquals(List.of(BigInteger.ONE), productSearchIndex.search(BigInteger.ONE, "caneta", 1));
+    }
+
+    @Test
+    @DisplayName("Testa alteração e remoção de produto no índice.")
+    public void test_alteracaoERemocao() {
+        productSearchIndex.index(product(1, "CAN-01", "Marcador", "Marcador de texto"));
+        assertEquals(List.of(BigInteger.valueOf(3)), productSearchIndex.search(BigInteger.ONE, "caneta", 10));
+
+        productSearchIndex.remove(BigInteger.ONE, BigInteger.valueOf(3));
+        assertEquals(List.of(), productSearchIndex.search(BigInteger.ONE, "caneta", 10));
+
+        productSearchIndex.removeStore(BigInteger.ONE);
+        assertEquals(List.of(), productSearchIndex.search(BigInteger.ONE, "marcador", 10));
+    }
+
+    private Product product(long id, String code, String name, String description) {
+        Product product = new Product();
+        product.setId(BigInteger.valueOf(id));
+        product.setCode(code);
+        product.setName(name);
+        product.setDescription(description);
+        product.setVersion(0L);
+        product.setStore(store);
+        return product;
+    }
+}
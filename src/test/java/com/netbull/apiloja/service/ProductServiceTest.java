@@ -1,9 +1,17 @@
 package com.netbull.apiloja.service;
 
 import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductBatchCreated;
+import com.netbull.apiloja.domain.product.ProductBatchGet;
+import com.netbull.apiloja.domain.product.ProductBatchGetResult;
+import com.netbull.apiloja.domain.product.ProductFacets;
+import com.netbull.apiloja.domain.product.ProductField;
+import com.netbull.apiloja.domain.product.ProductFilter;
 import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.product.change.ProductChangeType;
 import com.netbull.apiloja.domain.store.Store;
 import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.utility.CatalogVersion;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -12,7 +20,12 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.validation.*;
 import javax.ws.rs.NotFoundException;
@@ -26,6 +39,7 @@ import static org.hamcrest.Matchers.hasItems;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
@@ -45,6 +59,12 @@ class ProductServiceTest {
 
     private RabbitTemplate rabbitTemplate;
 
+    private CatalogVersion catalogVersion;
+
+    private ProductChangeLog productChangeLog;
+
+    private ProductSearchIndex productSearchIndex;
+
     @BeforeAll
     public void setupBeforAll() {
         ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
@@ -57,7 +77,11 @@ class ProductServiceTest {
         this.productRepository = Mockito.mock(ProductRepository.class);
         this.pageable = Mockito.mock(Pageable.class);
         this.rabbitTemplate = Mockito.mock(RabbitTemplate.class);
-        this.productService = new ProductService(productRepository, storeRepository, validator, rabbitTemplate);
+        this.catalogVersion = Mockito.mock(CatalogVersion.class);
+        this.productChangeLog = Mockito.mock(ProductChangeLog.class);
+        this.productSearchIndex = Mockito.mock(ProductSearchIndex.class);
+        this.productService = new ProductService(productRepository, storeRepository, validator, rabbitTemplate,
+                catalogVersion, productChangeLog, productSearchIndex);
     }
 
     @Test
@@ -204,12 +228,13 @@ class ProductServiceTest {
         Page<Product> productsPage = new PageImpl<>(products, this.pageable, 0);
 
         when(storeRepository.findByEmail(any())).thenReturn(Optional.of(new Store()));
-        when(productRepository.findProductsByStorePage(any(), any())).thenReturn(productsPage);
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(productsPage);
 
-        Page<Product> productsPageResult = this.productService.getProductsByStoreEmail(pageable, "a@a");
+        Page<Product> productsPageResult = this.productService.getProductsByStoreEmail(pageable, "a@a",
+                new ProductFilter());
 
         assertEquals(products.size(), productsPageResult.getSize());
-        then(productRepository).should(times(1)).findProductsByStorePage(any(), any());
+        then(productRepository).should(times(1)).findAll(any(Specification.class), any(Pageable.class));
     }
 
     @Test
@@ -222,13 +247,133 @@ class ProductServiceTest {
         Page<Product> productsPage = new PageImpl<>(products, this.pageable, 0);
 
         when(storeRepository.findByEmail(any())).thenReturn(Optional.of(new Store()));
-        when(productRepository.findProductsByStorePage(any(), any())).thenReturn(productsPage);
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(productsPage);
 
         var assertThrows = assertThrows(NotFoundException.class,
-                () -> this.productService.getProductsByStoreEmail(pageable, "a@a"));
+                () -> this.productService.getProductsByStoreEmail(pageable, "a@a", new ProductFilter()));
 
         assertEquals("Nenhum produto foi encontrado.", assertThrows.getMessage());
-        then(productRepository).should(times(1)).findProductsByStorePage(any(), any());
+        then(productRepository).should(times(1)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Testa busca de vários produtos por id e código, devolvendo os que faltam.")
+    public void test_buscaVariosProdutos() {
+        assertNotNull(productService);
+        ReflectionTestUtils.setField(productService, "batchGetMaxKeys", 10);
+
+        Store store = new Store();
+        store.setId(BigInteger.ONE);
+
+        Product product1 = new Product();
+        product1.setId(BigInteger.ONE);
+        product1.setCode("A1");
+
+        Product product2 = new Product();
+        product2.setId(BigInteger.TWO);
+        product2.setCode("B1");
+
+        ProductBatchGet request = new ProductBatchGet();
+        request.setIds(List.of(BigInteger.ONE, BigInteger.TEN));
+        request.setCodes(List.of("B1", "C1"));
+
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(store));
+        when(productRepository.findAll(any(Specification.class), any(Sort.class)))
+                .thenReturn(List.of(product1, product2));
+
+        ProductBatchGetResult result = productService.getProductsByKeys("a@a", request);
+
+        assertEquals(List.of(product1, product2), result.getProducts());
+        assertEquals(List.of(BigInteger.TEN), result.getMissingIds());
+        assertEquals(List.of("C1"), result.getMissingCodes());
+    }
+
+    @Test
+    @DisplayName("Testa busca de vários produtos com projeção de campos.")
+    public void test_buscaVariosProdutosComCampos() {
+        assertNotNull(productService);
+        ReflectionTestUtils.setField(productService, "batchGetMaxKeys", 10);
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("price", BigDecimal.TEN);
+        row.put("id", BigInteger.ONE);
+        row.put("code", "A1");
+
+        ProductBatchGet request = new ProductBatchGet();
+        request.setCodes(List.of("A1"));
+        request.setFields(List.of("price"));
+
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(new Store()));
+        when(productRepository.findFields(any(),
+                eq(List.of(ProductField.PRICE, ProductField.ID, ProductField.CODE)))).thenReturn(List.of(row));
+
+        ProductBatchGetResult result = productService.getProductsByKeys("a@a", request);
+
+        assertEquals(List.of(Map.of("price", BigDecimal.TEN)), result.getProducts());
+        assertEquals(List.of(), result.getMissingCodes());
+    }
+
+    @Test
+    @DisplayName("Testa busca de vários produtos com mais chaves que o permitido.")
+    public void test_buscaVariosProdutosAcimaDoLimite_lancaException() {
+        assertNotNull(productService);
+        ReflectionTestUtils.setField(productService, "batchGetMaxKeys", 1);
+
+        ProductBatchGet request = new ProductBatchGet();
+        request.setIds(List.of(BigInteger.ONE));
+        request.setCodes(List.of("A1"));
+
+        var assertThrows = assertThrows(IllegalArgumentException.class,
+                () -> productService.getProductsByKeys("a@a", request));
+
+        assertEquals("Informe no máximo 1 ids ou códigos.", assertThrows.getMessage());
+    }
+
+    @Test
+    @DisplayName("Testa busca de vários produtos com campo inválido.")
+    public void test_buscaVariosProdutosComCampoInvalido_lancaException() {
+        assertNotNull(productService);
+        ReflectionTestUtils.setField(productService, "batchGetMaxKeys", 10);
+
+        ProductBatchGet request = new ProductBatchGet();
+        request.setIds(List.of(BigInteger.ONE));
+        request.setFields(List.of("store"));
+
+        var assertThrows = assertThrows(IllegalArgumentException.class,
+                () -> productService.getProductsByKeys("a@a", request));
+
+        assertEquals("Campo inválido: store.", assertThrows.getMessage());
+    }
+
+    @Test
+    @DisplayName("Testa busca produtos quando o preço mínimo é maior que o máximo.")
+    public void test_buscaProdutosQuandoFaixaDePrecoInvalida_lancaException() {
+        assertNotNull(productService);
+
+        ProductFilter filter = new ProductFilter();
+        filter.setMinPrice(BigDecimal.TEN);
+        filter.setMaxPrice(BigDecimal.ONE);
+
+        var assertThrows = assertThrows(IllegalArgumentException.class,
+                () -> this.productService.getProductsByStoreEmail(pageable, "a@a", filter));
+
+        assertEquals("O preço mínimo não pode ser maior que o preço máximo.", assertThrows.getMessage());
+        then(productRepository).should(times(0)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Testa resumo de estoque e faixas de preço dos produtos da loja.")
+    public void test_buscaResumoDosProdutos() {
+        assertNotNull(productService);
+        ReflectionTestUtils.setField(productService, "priceBuckets",
+                new BigDecimal[]{BigDecimal.ZERO, BigDecimal.TEN});
+
+        ProductFacets facets = new ProductFacets(3, 2, 1, List.of());
+
+        when(storeRepository.findById(any())).thenReturn(Optional.of(new Store()));
+        when(productRepository.findFacets(any(), eq(List.of(BigDecimal.ZERO, BigDecimal.TEN)))).thenReturn(facets);
+
+        assertEquals(facets, productService.getProductFacetsByStoreId(BigInteger.ONE, new ProductFilter()));
     }
 
     @Test
@@ -239,7 +384,7 @@ class ProductServiceTest {
         when(storeRepository.findByEmail(any())).thenReturn(Optional.empty());
 
         var assertThrows = assertThrows(NotFoundException.class,
-                () -> this.productService.getProductsByStoreEmail(pageable, "a@a"));
+                () -> this.productService.getProductsByStoreEmail(pageable, "a@a", new ProductFilter()));
 
         assertEquals("Loja não encontrada.", assertThrows.getMessage());
     }
@@ -314,7 +459,7 @@ class ProductServiceTest {
         assertNotNull(productService);
 
         var assertThrows = assertThrows(NotFoundException.class,
-                () -> this.productService.getProductsByStoreId(pageable, BigInteger.ONE));
+                () -> this.productService.getProductsByStoreId(pageable, BigInteger.ONE, new ProductFilter()));
 
         assertEquals("Loja não encontrada.", assertThrows.getMessage());
     }
@@ -325,10 +470,10 @@ class ProductServiceTest {
         assertNotNull(productService);
 
         when(storeRepository.findById(any())).thenReturn(Optional.of(new Store()));
-        when(productRepository.findProductsByStorePage(any(), any())).thenReturn(Page.empty());
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(Page.empty());
 
         var assertThrows = assertThrows(NotFoundException.class,
-                () -> this.productService.getProductsByStoreId(pageable, BigInteger.ONE));
+                () -> this.productService.getProductsByStoreId(pageable, BigInteger.ONE, new ProductFilter()));
 
         assertEquals("Nenhum produto foi encontrado.", assertThrows.getMessage());
     }
@@ -343,13 +488,49 @@ class ProductServiceTest {
         Page<Product> productsPage = new PageImpl<>(products, this.pageable, 0);
 
         when(storeRepository.findById(any())).thenReturn(Optional.of(new Store()));
-        when(productRepository.findProductsByStorePage(any(), any())).thenReturn(productsPage);
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(productsPage);
 
-        Page<Product> productPageResult = productService.getProductsByStoreId(pageable, BigInteger.ONE);
+        Page<Product> productPageResult = productService.getProductsByStoreId(pageable, BigInteger.ONE,
+                new ProductFilter());
 
         assertEquals(products.size(), productPageResult.getSize());
     }
 
+    @Test
+    @DisplayName("Testa busca dos produtos da loja só com os campos pedidos.")
+    public void test_buscaCamposDosProdutosDaLoja() {
+        assertNotNull(productService);
+
+        List<ProductField> fields = List.of(ProductField.ID, ProductField.NAME);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", BigInteger.ONE);
+        row.put("name", "Produto");
+
+        when(storeRepository.findById(any())).thenReturn(Optional.of(new Store()));
+        when(productRepository.findFields(any(Specification.class), eq(fields), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row)));
+
+        Page<Map<String, Object>> result = productService.getProductFieldsByStoreId(pageable, BigInteger.ONE,
+                new ProductFilter(), fields);
+
+        assertEquals(List.of(row), result.getContent());
+        then(productRepository).should(times(0)).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Testa busca dos produtos da loja sem informar nenhum campo.")
+    public void test_buscaCamposDosProdutosSemCampos_lancaException() {
+        assertNotNull(productService);
+
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(new Store()));
+
+        var assertThrows = assertThrows(IllegalArgumentException.class,
+                () -> productService.getProductFieldsByStoreEmail(pageable, "a@a", new ProductFilter(),
+                        List.of()));
+
+        assertEquals("Informe ao menos um campo.", assertThrows.getMessage());
+    }
+
     @Test
     @DisplayName("Testa alteração do preço do produto quando menor que zero.")
     public void test_patchProdutoQuandoMenorQueZero_lancaException() {
@@ -422,6 +603,58 @@ class ProductServiceTest {
 
         assertEquals(BigDecimal.ONE, product.getPrice());
         then(productRepository).should(times(1)).save(any());
+        then(catalogVersion).should(times(1)).bump(store.getId());
+        then(productChangeLog).should(times(1)).record(store.getId(), ProductChangeType.UPDATED, product);
+    }
+
+    @Test
+    @DisplayName("Testa que o evento de alteração de preço só é publicado depois do commit.")
+    public void test_patchProdutoDentroDeTransacao_publicaDepoisDoCommit() {
+        Store store = new Store();
+        store.setId(BigInteger.ONE);
+
+        Product product = new Product();
+        product.setStore(store);
+
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(store));
+        when(productRepository.findById(any())).thenReturn(Optional.of(product));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productService.patchProductPrice(BigInteger.ONE, "a@a", BigDecimal.ONE);
+
+            then(rabbitTemplate).should(never()).convertAndSend(anyString(), anyString(), any(Object.class));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        then(rabbitTemplate).should(times(1)).convertAndSend("product", "product.updated", product);
+    }
+
+    @Test
+    @DisplayName("Testa que o evento de produtos importados só é publicado depois do commit do bloco.")
+    public void test_persistProdutosImportadosDentroDeTransacao_publicaDepoisDoCommit() {
+        Store store = new Store();
+        store.setId(BigInteger.ONE);
+
+        List<Product> products = List.of(new Product(), new Product());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productService.persistImportedProducts(store, products);
+
+            then(productRepository).should(times(1)).saveAll(products);
+            then(rabbitTemplate).should(never()).convertAndSend(anyString(), anyString(), any(Object.class));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        then(rabbitTemplate).should(times(1)).convertAndSend(eq("product"), eq("product.created.batch"),
+                any(ProductBatchCreated.class));
     }
 
     @Test
@@ -543,6 +776,7 @@ class ProductServiceTest {
         this.productService.putProduct(BigInteger.ONE, "a@a", product);
 
         then(productRepository).should(times(1)).save(any());
+        then(productSearchIndex).should(times(1)).index(oldproduct);
         assertEquals(oldproduct.getDescription(), product.getDescription());
     }
 
@@ -597,5 +831,44 @@ class ProductServiceTest {
         productService.deleteById(BigInteger.ONE, "a@a");
 
         then(productRepository).should(times(1)).deleteById(any());
+        then(productSearchIndex).should(times(1)).remove(store.getId(), BigInteger.ONE);
+    }
+
+    @Test
+    @DisplayName("Testa busca de produtos, mantendo a ordem de relevância do índice.")
+    public void test_buscaProdutos() {
+        assertNotNull(productService);
+        ReflectionTestUtils.setField(productService, "searchMaxResults", 100);
+
+        Product product1 = new Product();
+        product1.setId(BigInteger.ONE);
+
+        Product product2 = new Product();
+        product2.setId(BigInteger.TWO);
+
+        when(storeRepository.existsById(any())).thenReturn(true);
+        when(productSearchIndex.search(BigInteger.ONE, "caneta", 20))
+                .thenReturn(List.of(BigInteger.TWO, BigInteger.ONE));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product1, product2));
+
+        List<Product> products = productService.searchProducts(BigInteger.ONE, "caneta", 20);
+
+        assertEquals(List.of(BigInteger.TWO, BigInteger.ONE),
+                products.stream().map(Product::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Testa busca de produtos quando o índice não encontra nada.")
+    public void test_buscaProdutosQuandoNaoEncontra_lancaException() {
+        assertNotNull(productService);
+        ReflectionTestUtils.setField(productService, "searchMaxResults", 100);
+
+        when(storeRepository.existsById(any())).thenReturn(true);
+        when(productSearchIndex.search(any(), any(), anyInt())).thenReturn(List.of());
+
+        var assertThrows = assertThrows(NotFoundException.class,
+                () -> productService.searchProducts(BigInteger.ONE, "caneta", 20));
+
+        assertEquals("Nenhum produto foi encontrado.", assertThrows.getMessage());
     }
 }
\ No newline at end of file
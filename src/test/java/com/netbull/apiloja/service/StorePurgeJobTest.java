@@ -0,0 +1,168 @@
+package com.netbull.apiloja.service;
+
+import com.netbull.apiloja.domain.address.addressStore.AddressStoreRepository;
+import com.netbull.apiloja.domain.product.CatalogTombstone;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.StorePurgeProgress;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import com.netbull.apiloja.domain.store.refreshToken.RefreshTokenRepository;
+import com.netbull.apiloja.utility.CatalogVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StorePurgeJobTest {
+
+    private StorePurgeJob storePurgeJob;
+
+    private StoreRepository storeRepository;
+
+    private ProductRepository productRepository;
+
+    private AddressStoreRepository addressStoreRepository;
+
+    private RabbitTemplate rabbitTemplate;
+
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private CatalogVersion catalogVersion;
+
+    private ProductChangeLog productChangeLog;
+
+    private ProductSearchIndex productSearchIndex;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private Store store;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        this.storeRepository = Mockito.mock(StoreRepository.class);
+        this.productRepository = Mockito.mock(ProductRepository.class);
+        this.addressStoreRepository = Mockito.mock(AddressStoreRepository.class);
+        this.rabbitTemplate = Mockito.mock(RabbitTemplate.class);
+        this.refreshTokenRepository = Mockito.mock(RefreshTokenRepository.class);
+        this.catalogVersion = Mockito.mock(CatalogVersion.class);
+        this.productChangeLog = Mockito.mock(ProductChangeLog.class);
+        this.productSearchIndex = Mockito.mock(ProductSearchIndex.class);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.storePurgeJob = new StorePurgeJob(storeRepository, productRepository, addressStoreRepository,
+                rabbitTemplate, refreshTokenRepository, catalogVersion, productChangeLog, productSearchIndex,
+                meterRegistry);
+        ReflectionTestUtils.setField(storePurgeJob, "chunkSize", 2);
+
+        this.store = new Store();
+        this.store.setId(BigInteger.ONE);
+    }
+
+    @Test
+    @DisplayName("Testa exclusão da loja em blocos.")
+    public void test_purge_removeProdutosEmBlocosEPublicaEventos() {
+        when(productRepository.findProductIdsByStore(eq(store), any()))
+                .thenReturn(ids(1, 2), ids(3), List.of());
+        when(productRepository.deleteProductsByIdIn(any())).thenReturn(2, 1);
+
+        storePurgeJob.purge(store, 3);
+
+        then(productRepository).should(times(1)).deleteProductsByIdIn(ids(1, 2));
+        then(productRepository).should(times(1)).deleteProductsByIdIn(ids(3));
+        then(catalogVersion).should(times(3)).bump(store.getId());
+        then(refreshTokenRepository).should(times(1)).deleteTokensByStore(store);
+        then(productChangeLog).should(times(1)).deleteFeed(store.getId());
+        then(productSearchIndex).should(times(1)).removeStore(store.getId());
+        then(addressStoreRepository).should(times(1)).deleteAddressesByStore(store);
+        then(storeRepository).should(times(1)).delete(store);
+        then(rabbitTemplate).should(times(1)).convertAndSend("store", "store.deleted", store);
+
+        ArgumentCaptor<CatalogTombstone> tombstone = ArgumentCaptor.forClass(CatalogTombstone.class);
+        then(rabbitTemplate).should(times(1))
+                .convertAndSend(eq("product"), eq("product.deleted.catalog"), tombstone.capture());
+        assertEquals(store.getId(), tombstone.getValue().getStoreId());
+        assertEquals(3, tombstone.getValue().getDeletedProducts());
+
+        assertTrue(storePurgeJob.getProgress().isEmpty());
+        assertEquals(0, meterRegistry.get("store.purge.running").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Testa exclusão repetida enquanto a loja ainda está sendo removida.")
+    public void test_purgeEmAndamento_ignoraSegundaChamada() {
+        when(productRepository.findProductIdsByStore(eq(store), any()))
+                .thenReturn(ids(1, 2), List.of());
+        when(productRepository.deleteProductsByIdIn(any())).thenAnswer(invocation -> {
+            assertTrue(storePurgeJob.getProgress(store.getId()).isPresent());
+            storePurgeJob.purge(store, 5);
+            return 2;
+        });
+
+        storePurgeJob.purge(store, 5);
+
+        then(productRepository).should(times(1)).deleteProductsByIdIn(any());
+        then(storeRepository).should(times(1)).delete(store);
+        then(rabbitTemplate).should(times(1)).convertAndSend("store", "store.deleted", store);
+        assertTrue(storePurgeJob.getProgress(store.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testa o andamento publicado durante a exclusão.")
+    public void test_purgeEmAndamento_publicaProgresso() {
+        when(productRepository.findProductIdsByStore(eq(store), any()))
+                .thenReturn(ids(1, 2), ids(3), List.of());
+        when(productRepository.deleteProductsByIdIn(any())).thenReturn(2, 1);
+        doAnswer(invocation -> {
+            StorePurgeProgress progress = storePurgeJob.getProgress(store.getId()).orElseThrow();
+            if (progress.getDeletedProducts() == 2) {
+                assertEquals(5, progress.getTotalProducts());
+                assertEquals(3, progress.getRemainingProducts());
+                assertEquals(1, meterRegistry.get("store.purge.running").gauge().value());
+                assertEquals(3, meterRegistry.get("store.purge.products.remaining").gauge().value());
+            }
+            return null;
+        }).when(catalogVersion).bump(store.getId());
+
+        storePurgeJob.purge(store, 5);
+
+        then(catalogVersion).should(times(3)).bump(store.getId());
+        assertEquals(0, meterRegistry.get("store.purge.products.remaining").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Testa falha na exclusão da loja.")
+    public void test_purgeQuandoFalha_naoRemoveLojaNemPublica() {
+        when(productRepository.findProductIdsByStore(eq(store), any())).thenReturn(ids(1, 2));
+        when(productRepository.deleteProductsByIdIn(any())).thenThrow(new IllegalStateException("falha"));
+
+        storePurgeJob.purge(store, 2);
+
+        then(storeRepository).should(never()).delete(any());
+        then(rabbitTemplate).should(never()).convertAndSend(anyString(), anyString(), any(Object.class));
+        assertTrue(storePurgeJob.getProgress(store.getId()).isEmpty());
+    }
+
+    private static List<BigInteger> ids(long... ids) {
+        return Arrays.stream(ids).mapToObj(BigInteger::valueOf).collect(Collectors.toList());
+    }
+}
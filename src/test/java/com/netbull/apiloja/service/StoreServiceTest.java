@@ -1,25 +1,30 @@
 package com.netbull.apiloja.service;
 
 import com.netbull.apiloja.domain.address.addressStore.AddressStoreRepository;
-import com.netbull.apiloja.domain.address.addressStore.AddressStore;
-import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.CatalogTombstone;
 import com.netbull.apiloja.domain.product.ProductRepository;
 import com.netbull.apiloja.domain.store.Store;
 import com.netbull.apiloja.domain.store.StoreRepository;
-import com.netbull.apiloja.utility.StringUtils;
+import com.netbull.apiloja.domain.store.refreshToken.RefreshTokenRepository;
+import com.netbull.apiloja.utility.CatalogVersion;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.validation.*;
 import javax.ws.rs.NotFoundException;
 import java.math.BigInteger;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -27,7 +32,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItems;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
@@ -43,12 +51,20 @@ class StoreServiceTest {
 
     private ProductRepository productRepository;
 
-    private StringUtils stringUtils;
-
     private Validator validator;
 
     private RabbitTemplate rabbitTemplate;
 
+    private StorePurgeJob storePurgeJob;
+
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private CatalogVersion catalogVersion;
+
+    private ProductChangeLog productChangeLog;
+
+    private ProductSearchIndex productSearchIndex;
+
     private Pageable pageable;
 
     @BeforeAll
@@ -63,11 +79,17 @@ class StoreServiceTest {
         this.addressStoreRepository = Mockito.mock(AddressStoreRepository.class);
         this.productRepository = Mockito.mock(ProductRepository.class);
         this.pageable = Mockito.mock(Pageable.class);
-        this.stringUtils = Mockito.mock(StringUtils.class);
         this.rabbitTemplate = Mockito.mock(RabbitTemplate.class);
+        this.storePurgeJob = Mockito.mock(StorePurgeJob.class);
+        this.refreshTokenRepository = Mockito.mock(RefreshTokenRepository.class);
+        this.catalogVersion = Mockito.mock(CatalogVersion.class);
+        this.productChangeLog = Mockito.mock(ProductChangeLog.class);
+        this.productSearchIndex = Mockito.mock(ProductSearchIndex.class);
         storeService = new StoreService(validator, storeRepository,
                 productRepository, addressStoreRepository,
-                stringUtils, rabbitTemplate);
+                rabbitTemplate, storePurgeJob, refreshTokenRepository, catalogVersion,
+                productChangeLog, productSearchIndex);
+        ReflectionTestUtils.setField(storeService, "purgeChunkSize", 1000);
     }
 
     @Test
@@ -152,8 +174,9 @@ class StoreServiceTest {
         store.setPassword("abc");
 
         storeService.persistStore(store);
-        then(storeRepository).should(times(1)).save(any());
-        then(stringUtils).should(times(1)).encryptPassword(any());
+        then(storeRepository).should(times(1)).saveAndFlush(any());
+        assertEquals("abc", store.getPassword());
+        then(productChangeLog).should(times(1)).openFeed(any());
     }
 
     @Test
@@ -169,7 +192,7 @@ class StoreServiceTest {
         store.setPassword("abc");
 
         storeService.persistStore(store);
-        then(storeRepository).should(times(1)).save(any());
+        then(storeRepository).should(times(1)).saveAndFlush(any());
 
         Store store2 = new Store();
         store2.setCorporateName("Versnelt");
@@ -178,7 +201,8 @@ class StoreServiceTest {
         store2.setPassword("abc");
         store2.setPhone("11111111112");
 
-        when(storeRepository.findByCnpj(store.getCnpj())).thenReturn(Optional.of(store));
+        when(storeRepository.findByCnpjOrEmailOrPhone(store2.getCnpj(), store2.getEmail(), store2.getPhone()))
+                .thenReturn(List.of(store));
         var assertThrows = assertThrows(DuplicateKeyException.class,
                 () -> storeService.persistStore(store2));
 
@@ -198,7 +222,7 @@ class StoreServiceTest {
         store.setPassword("abc");
 
         storeService.persistStore(store);
-        then(storeRepository).should(times(1)).save(any());
+        then(storeRepository).should(times(1)).saveAndFlush(any());
 
         Store store2 = new Store();
         store2.setCorporateName("Versnelt");
@@ -207,7 +231,8 @@ class StoreServiceTest {
         store2.setPhone("11111111112");
         store2.setPassword("abc");
 
-        when(storeRepository.findByEmail(store.getEmail())).thenReturn(Optional.of(store));
+        when(storeRepository.findByCnpjOrEmailOrPhone(store2.getCnpj(), store2.getEmail(), store2.getPhone()))
+                .thenReturn(List.of(store));
         var assertThrows = assertThrows(DuplicateKeyException.class,
                 () -> storeService.persistStore(store2));
 
@@ -227,7 +252,7 @@ class StoreServiceTest {
         store.setPassword("abc");
 
         storeService.persistStore(store);
-        then(storeRepository).should(times(1)).save(any());
+        then(storeRepository).should(times(1)).saveAndFlush(any());
 
         Store store2 = new Store();
         store2.setCorporateName("Versnelt");
@@ -236,13 +261,38 @@ class StoreServiceTest {
         store2.setPhone("11111111111");
         store2.setPassword("abc");
 
-        when(storeRepository.findByPhone(store.getPhone())).thenReturn(Optional.of(store));
+        when(storeRepository.findByCnpjOrEmailOrPhone(store2.getCnpj(), store2.getEmail(), store2.getPhone()))
+                .thenReturn(List.of(store));
         var assertThrows = assertThrows(DuplicateKeyException.class,
                 () -> storeService.persistStore(store2));
 
         assertEquals("O telefone já está sendo utilizado", assertThrows.getMessage());
     }
 
+    @Test
+    @DisplayName("Testa persist quando a chave única do e-mail é violada por um cadastro concorrente")
+    public void test_quandoChaveUnicaEmailEVioladaNoBanco_lancaException() {
+        assertNotNull(storeService);
+
+        Store store = new Store();
+        store.setCorporateName("Versnelt");
+        store.setCnpj("11111111111111");
+        store.setEmail("abc@abc");
+        store.setPhone("11111111111");
+        store.setPassword("abc");
+
+        when(storeRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("",
+                new org.hibernate.exception.ConstraintViolationException("",
+                        new SQLException(), Store.UK_EMAIL)));
+
+        var assertThrows = assertThrows(DuplicateKeyException.class,
+                () -> storeService.persistStore(store));
+
+        assertEquals("O e-mail já está sendo utilizado", assertThrows.getMessage());
+        then(storeRepository).should(times(1)).findByCnpjOrEmailOrPhone(any(), any(), any());
+        then(rabbitTemplate).should(never()).convertAndSend(eq("store"), eq("store.created"), any(Store.class));
+    }
+
     @Test
     @DisplayName("Testa busca de todas as lojas quando não há registros.")
     public void test_buscaTodasLojasQuandoVazio_lancaException() {
@@ -393,8 +443,41 @@ class StoreServiceTest {
         assertEquals(store2.getCorporateName(), store.getCorporateName());
         assertEquals(store2.getCnpj(), store.getCnpj());
         assertEquals(store2.getEmail(), store.getEmail());
-        then(storeRepository).should(times(1)).save(any());
+        then(storeRepository).should(times(1)).saveAndFlush(any());
         then(storeRepository).should(times(1)).findByEmail(any());
+        then(refreshTokenRepository).should(times(1)).revokeTokensByStore(store);
+    }
+
+    @Test
+    @DisplayName("Testa alteração de loja quando o CNPJ novo já pertence a outra loja")
+    public void test_alterLojaQuandoChaveUnicaCnpjEViolada_lancaException() {
+        assertNotNull(storeService);
+
+        Store store = new Store();
+        store.setCorporateName("Versnelt");
+        store.setCnpj("11111111111111");
+        store.setEmail("abc@abc");
+        store.setPhone("11111111111");
+        store.setPassword("abc");
+
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(store));
+        when(storeRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("",
+                new org.hibernate.exception.ConstraintViolationException("",
+                        new SQLException(), Store.UK_CNPJ)));
+
+        Store store2 = new Store();
+        store2.setCorporateName("Cristiano");
+        store2.setCnpj("11111111111122");
+        store2.setEmail("abc@abc");
+        store2.setPhone("11111111111");
+        store2.setPassword("123456");
+
+        var assertThrows = assertThrows(DuplicateKeyException.class,
+                () -> storeService.putStore("abc@abc", store2));
+
+        assertEquals("O CNPJ já está sendo utilizado", assertThrows.getMessage());
+        then(refreshTokenRepository).should(never()).revokeTokensByStore(any());
+        then(rabbitTemplate).should(never()).convertAndSend(eq("store"), eq("store.updated"), any(Store.class));
     }
 
     @Test
@@ -417,9 +500,10 @@ class StoreServiceTest {
 
         when(storeRepository.findByEmail(any())).thenReturn(Optional.of(new Store()));
 
-        storeService.deleteStore("abc@abc");
+        assertTrue(storeService.deleteStore("abc@abc"));
 
         then(storeRepository).should(times(1)).delete(any());
+        then(rabbitTemplate).should(times(1)).convertAndSend(eq("store"), eq("store.deleted"), any(Store.class));
     }
 
     @Test
@@ -427,28 +511,61 @@ class StoreServiceTest {
     public void test_deleteLojaQuandoExisteComEnderecosEProdutos() {
         assertNotNull(storeService);
 
-        Set<AddressStore> addresses = new HashSet<>();
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(new Store()));
+        when(productRepository.countProductsByStore(any())).thenReturn(100L);
+        when(productRepository.deleteProductsByStore(any())).thenReturn(100);
 
-        for(int x=0; x<100; x++) {
-            addresses.add(new AddressStore());
-        }
+        assertTrue(storeService.deleteStore("abc@abc"));
 
-        Set<Product> products = new HashSet<>();
+        then(storeRepository).should(times(1)).delete(any());
+        then(productRepository).should(times(1)).deleteProductsByStore(any());
+        then(addressStoreRepository).should(times(1)).deleteAddressesByStore(any());
+        then(refreshTokenRepository).should(times(1)).deleteTokensByStore(any());
+        then(productChangeLog).should(times(1)).deleteFeed(any());
+        then(productRepository).should(never()).delete(any());
+        then(addressStoreRepository).should(never()).delete(any());
+        then(rabbitTemplate).should(times(1)).convertAndSend(eq("product"), eq("product.deleted.catalog"),
+                any(CatalogTombstone.class));
+        then(storePurgeJob).should(never()).purge(any(), anyLong());
+    }
 
-        for(int x=0; x<100; x++) {
-            Product product = new Product();
-            product.setCode(String.valueOf(x));
-            products.add(product);
-        }
+    @Test
+    @DisplayName("Testa delete de loja quando o catálogo é maior que um bloco.")
+    public void test_deleteLojaQuandoCatalogoGrande_agendaExclusao() {
+        assertNotNull(storeService);
 
-        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(new Store()));
-        when(addressStoreRepository.findAddressesByStore(any())).thenReturn(Optional.of(addresses));
-        when(productRepository.findProductsByStore(any())).thenReturn(Optional.of(products));
+        Store store = new Store();
 
-        storeService.deleteStore("abc@abc");
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(store));
+        when(productRepository.countProductsByStore(any())).thenReturn(50_000L);
 
-        then(storeRepository).should(times(1)).delete(any());
-        then(productRepository).should(times(products.size())).delete(any());
-        then(addressStoreRepository).should(times(addresses.size())).delete(any());
+        assertFalse(storeService.deleteStore("abc@abc"));
+
+        then(storePurgeJob).should(times(1)).purge(store, 50_000L);
+        then(storeRepository).should(never()).delete(any());
+        then(productRepository).should(never()).deleteProductsByStore(any());
+        then(rabbitTemplate).should(never()).convertAndSend(any(String.class), any(String.class), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Testa delete de loja com catálogo grande dentro de transação, agendando a exclusão só no commit.")
+    public void test_deleteLojaQuandoCatalogoGrandeDentroDeTransacao_agendaDepoisDoCommit() {
+        Store store = new Store();
+
+        when(storeRepository.findByEmail(any())).thenReturn(Optional.of(store));
+        when(productRepository.countProductsByStore(any())).thenReturn(50_000L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertFalse(storeService.deleteStore("abc@abc"));
+
+            then(storePurgeJob).should(never()).purge(any(), anyLong());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        then(storePurgeJob).should(times(1)).purge(store, 50_000L);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.netbull.apiloja.utility;
+
+import com.netbull.apiloja.config.BulkheadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BulkheadFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BulkheadFilter bulkheadFilter;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        BulkheadProperties.Group catalog = new BulkheadProperties.Group();
+        catalog.setName("public-catalog");
+        catalog.setMethod("GET");
+        catalog.setPatterns(List.of("/v1/stores/products/store-id/**"));
+        catalog.setMaxConcurrent(0);
+        catalog.setMaxWaiting(0);
+        catalog.setQueueTimeout(Duration.ZERO);
+
+        BulkheadProperties.Group authenticate = new BulkheadProperties.Group();
+        authenticate.setName("authenticate");
+        authenticate.setMethod("POST");
+        authenticate.setPatterns(List.of("/authenticate/**"));
+        authenticate.setMaxConcurrent(1);
+        authenticate.setMaxWaiting(0);
+        authenticate.setQueueTimeout(Duration.ZERO);
+
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getGroups().add(catalog);
+        properties.getGroups().add(authenticate);
+
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.bulkheadFilter = new BulkheadFilter(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Testa bulkhead quando o grupo não tem vagas.")
+    public void test_quandoGrupoSemVagas_retorna503() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/stores/products/store-id/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        bulkheadFilter.doFilter(request, response, filterChain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertNull(filterChain.getRequest());
+        assertEquals(1, meterRegistry.counter("bulkhead.rejected", "group", "public-catalog").count());
+    }
+
+    @Test
+    @DisplayName("Testa bulkhead quando a rota não pertence a nenhum grupo.")
+    public void test_quandoRotaForaDosGrupos_segue() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/v1/stores/orders/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        bulkheadFilter.doFilter(request, response, filterChain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(filterChain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Testa bulkhead quando a resposta é assíncrona.")
+    public void test_quandoRespostaAssincrona_devolveVagaAoTerminar() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/authenticate/store");
+        request.setAsyncSupported(true);
+        FilterChain asyncChain = (servletRequest, servletResponse) -> servletRequest.startAsync();
+
+        bulkheadFilter.doFilter(request, new MockHttpServletResponse(), asyncChain);
+
+        assertEquals(1, meterRegistry.get("bulkhead.active").tag("group", "authenticate").gauge().value());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        bulkheadFilter.doFilter(new MockHttpServletRequest("POST", "/authenticate/store"), rejected,
+                new MockFilterChain());
+        assertEquals(503, rejected.getStatus());
+
+        request.getAsyncContext().complete();
+
+        assertEquals(0, meterRegistry.get("bulkhead.active").tag("group", "authenticate").gauge().value());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        bulkheadFilter.doFilter(new MockHttpServletRequest("POST", "/authenticate/store"), response,
+                new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+}
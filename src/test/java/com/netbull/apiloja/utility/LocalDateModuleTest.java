@@ -0,0 +1,51 @@
+package com.netbull.apiloja.utility;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalDateModuleTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        this.objectMapper = new ObjectMapper().registerModule(new LocalDateModule());
+    }
+
+    @Test
+    @DisplayName("Testa serialização da data no formato dd/MM/yyyy.")
+    public void test_serializaData() throws Exception {
+        assertEquals("\"07/03/2021\"", objectMapper.writeValueAsString(LocalDate.of(2021, 3, 7)));
+        assertEquals("\"01/01/0099\"", objectMapper.writeValueAsString(LocalDate.of(99, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("Testa desserialização da data no formato dd/MM/yyyy.")
+    public void test_desserializaData() throws Exception {
+        assertEquals(LocalDate.of(2021, 3, 7), objectMapper.readValue("\"07/03/2021\"", LocalDate.class));
+        assertEquals(LocalDate.of(2020, 2, 29), objectMapper.readValue("\"29/02/2020\"", LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Testa desserialização de dia inexistente, ajustado como o DateTimeFormatter faz.")
+    public void test_desserializaDiaInexistente() throws Exception {
+        assertEquals(LocalDate.of(2021, 2, 28), objectMapper.readValue("\"31/02/2021\"", LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Testa desserialização de data fora do formato dd/MM/yyyy.")
+    public void test_desserializaDataForaDoFormato_lancaException() {
+        var assertThrows = assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("\"2021-03-07\"", LocalDate.class));
+
+        assertEquals("2021-03-07", assertThrows.getValue());
+    }
+}
@@ -0,0 +1,168 @@
+package com.netbull.apiloja.utility;
+
+import com.netbull.apiloja.domain.product.Product;
+import com.netbull.apiloja.domain.product.ProductRepository;
+import com.netbull.apiloja.domain.store.Store;
+import com.netbull.apiloja.domain.store.StoreRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Sobe o contexto JPA (H2) com o aspecto e o interceptor de transação de verdade: a ordem entre
+ * os dois e o bind da anotação só aparecem com os proxies do Spring, não com mocks.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=none"
+})
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({OptimisticLockRetryAspect.class, OptimisticLockRetryAspectTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticLockRetryAspectTest {
+
+    @Autowired
+    private PriceWriter priceWriter;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Testa que um conflito de versão no commit é repetido em uma transação nova.")
+    public void test_quandoConflitoDeVersao_repeteEmNovaTransacao() {
+        Product product = productRepository.save(product(store("11111111111111", "a@a", "11111111111")));
+
+        priceWriter.reset(1);
+        priceWriter.patchPrice(product.getId(), BigDecimal.TEN);
+
+        Product saved = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(2, priceWriter.attempts());
+        assertEquals(0, BigDecimal.TEN.compareTo(saved.getPrice()));
+        assertEquals(BigInteger.valueOf(99), saved.getQuantity());
+        assertEquals(1, meterRegistry.counter("optimistic.lock.conflicts",
+                "method", "PriceWriter.patchPrice(..)").count());
+    }
+
+    @Test
+    @DisplayName("Testa que o conflito é propagado quando as tentativas se esgotam.")
+    public void test_quandoConflitoPersiste_lancaException() {
+        Product product = productRepository.save(product(store("22222222222222", "b@b", "22222222222")));
+
+        priceWriter.reset(Integer.MAX_VALUE);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> priceWriter.patchPrice(product.getId(), BigDecimal.TEN));
+        assertEquals(3, priceWriter.attempts());
+        assertEquals(1, meterRegistry.counter("optimistic.lock.exhausted",
+                "method", "PriceWriter.patchPrice(..)").count());
+    }
+
+    private Store store(String cnpj, String email, String phone) {
+        Store store = new Store();
+        store.setCnpj(cnpj);
+        store.setCorporateName("Loja");
+        store.setEmail(email);
+        store.setPhone(phone);
+        store.setPassword("senha");
+        return storeRepository.save(store);
+    }
+
+    private Product product(Store store) {
+        Product product = new Product();
+        product.setName("TV");
+        product.setCode("TV1");
+        product.setPrice(BigDecimal.ONE);
+        product.setQuantity(BigInteger.valueOf(100));
+        product.setStore(store);
+        return product;
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        PriceWriter priceWriter(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+            return new PriceWriter(productRepository, transactionManager);
+        }
+    }
+
+    /**
+     * Altera o preço como o ProductService e, enquanto restarem conflitos, grava o mesmo produto
+     * em outra transação antes do commit, o que faz o commit falhar pela coluna de versão.
+     */
+    static class PriceWriter {
+
+        private final ProductRepository productRepository;
+
+        private final TransactionTemplate concurrentWriter;
+
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private final AtomicInteger conflicts = new AtomicInteger();
+
+        PriceWriter(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+            this.productRepository = productRepository;
+            this.concurrentWriter = new TransactionTemplate(transactionManager);
+            this.concurrentWriter.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+
+        @RetryOnOptimisticLock
+        @Transactional
+        public void patchPrice(BigInteger id, BigDecimal price) {
+            attempts.incrementAndGet();
+
+            Product product = productRepository.findById(id).orElseThrow();
+            product.setPrice(price);
+
+            if (conflicts.getAndDecrement() > 0) {
+                concurrentWriter.executeWithoutResult(status -> {
+                    Product concurrent = productRepository.findById(id).orElseThrow();
+                    concurrent.setQuantity(concurrent.getQuantity().subtract(BigInteger.ONE));
+                });
+            }
+        }
+
+        public void reset(int conflicts) {
+            this.attempts.set(0);
+            this.conflicts.set(conflicts);
+        }
+
+        public int attempts() {
+            return attempts.get();
+        }
+    }
+}
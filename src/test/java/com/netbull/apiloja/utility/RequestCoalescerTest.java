@@ -0,0 +1,83 @@
+package com.netbull.apiloja.utility;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.NotFoundException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RequestCoalescer requestCoalescer;
+
+    @BeforeEach
+    public void setupBeforeEach() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.requestCoalescer = new RequestCoalescer(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Testa chamadas simultâneas com a mesma chave compartilhando uma execução.")
+    public void test_chamadasSimultaneas_compartilhamExecucao() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                requestCoalescer.execute("store-by-id", 1, () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return "loja";
+                }));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() ->
+                requestCoalescer.execute("store-by-id", 1, () -> {
+                    executions.incrementAndGet();
+                    return "outra";
+                }));
+
+        while (meterRegistry.counter("request.coalescing", "name", "store-by-id", "role", "follower").count() == 0) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals("loja", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("loja", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Testa que a exceção da execução é repassada e nada fica guardado.")
+    public void test_quandoExecucaoFalha_lancaException() {
+        var assertThrows = assertThrows(NotFoundException.class,
+                () -> requestCoalescer.execute("store-by-id", 1, () -> {
+                    throw new NotFoundException("Nenhuma loja foi encontrada.");
+                }));
+
+        assertEquals("Nenhuma loja foi encontrada.", assertThrows.getMessage());
+        assertEquals("loja", requestCoalescer.execute("store-by-id", 1, () -> "loja"));
+        assertEquals(2, meterRegistry.counter("request.coalescing", "name", "store-by-id", "role", "leader").count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}